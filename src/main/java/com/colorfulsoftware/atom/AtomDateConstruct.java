@@ -21,7 +21,6 @@ package com.colorfulsoftware.atom;
 import java.io.Serializable;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.TimeZone;
 
@@ -30,7 +29,7 @@ class AtomDateConstruct implements Serializable {
 
 	private static final long serialVersionUID = 4497374180937974L;
 
-	private final List<Attribute> attributes;
+	private final AttributeList attributes;
 
 	private final Date dateTime;
 
@@ -68,19 +67,16 @@ class AtomDateConstruct implements Serializable {
 	AtomDateConstruct(List<Attribute> attributes, String dateTime)
 			throws AtomSpecException {
 
-		this.unboundPrefixes = new LinkedList<String>();
-
 		if (attributes == null) {
 			this.attributes = null;
 		} else {
-			this.attributes = new LinkedList<Attribute>();
-			for (Attribute attr : attributes) {
+			this.attributes = AttributeList.of(attributes);
+			for (Attribute attr : this.attributes) {
 				// check for unsupported attribute.
 				if (!new AttributeSupport(attr).verify(this)) {
 					throw new AtomSpecException("Unsupported attribute "
 							+ attr.getName() + " for this Atom Date Construct.");
 				}
-				this.attributes.add(new Attribute(attr));
 				// check for unbound attribute prefixes
 				if (attr.getName().indexOf(":") != -1
 						&& !attr.getName().equals("xml:lang")
@@ -89,15 +85,14 @@ class AtomDateConstruct implements Serializable {
 						&& getAttribute("xmlns:"
 								+ attr.getName().substring(0,
 										attr.getName().indexOf(":"))) == null) {
-					this.unboundPrefixes.add(attr.getName().substring(0,
-							attr.getName().indexOf(":")));
+					this.unboundPrefixes = UnboundPrefixes.add(
+							this.unboundPrefixes,
+							attr.getName().substring(0,
+									attr.getName().indexOf(":")));
 				}
 			}
 		}
 
-		this.unboundPrefixes = (this.unboundPrefixes.size() == 0) ? null
-				: this.unboundPrefixes;
-
 		// specification customization
 		if (dateTime == null || dateTime.trim().equals("")) {
 			throw new AtomSpecException(
@@ -203,7 +198,7 @@ class AtomDateConstruct implements Serializable {
 	}
 
 	AtomDateConstruct(AtomDateConstruct atomDateConstruct) {
-		this.attributes = atomDateConstruct.getAttributes();
+		this.attributes = atomDateConstruct.attributes;
 		this.dateTime = atomDateConstruct.getDateTime();
 		this.text = atomDateConstruct.text;
 	}
@@ -230,13 +225,7 @@ class AtomDateConstruct implements Serializable {
 	 * @return the category attribute list.
 	 */
 	public List<Attribute> getAttributes() {
-		List<Attribute> attrsCopy = new LinkedList<Attribute>();
-		if (this.attributes != null) {
-			for (Attribute attribute : this.attributes) {
-				attrsCopy.add(new Attribute(attribute));
-			}
-		}
-		return (this.attributes == null) ? null : attrsCopy;
+		return attributes;
 	}
 
 	/**
@@ -245,14 +234,8 @@ class AtomDateConstruct implements Serializable {
 	 * @return the Attribute object if attrName matches or null if not found.
 	 */
 	public Attribute getAttribute(String attrName) {
-		if (this.attributes != null) {
-			for (Attribute attribute : this.attributes) {
-				if (attribute.getName().equals(attrName)) {
-					return new Attribute(attribute);
-				}
-			}
-		}
-		return null;
+		return (attributes == null) ? null : attributes
+				.getAttribute(attrName);
 	}
 
 	/**
@@ -0,0 +1,81 @@
+/**
+ * Copyright 2011 Bill Brown
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.colorfulsoftware.atom;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class holds the root element of an atom document that was read
+ * together with the settings from its xml prolog. The FeedDoc keeps no state
+ * from the documents it reads so these settings are only available here.
+ *
+ * @param <T>
+ *            the type of the root element (Feed or Entry).
+ * @author Bill Brown
+ *
+ */
+public final class AtomDocument<T> implements Serializable {
+
+	private static final long serialVersionUID = 5238146022785617203L;
+
+	private final T root;
+	private final String encoding;
+	private final String xmlVersion;
+	private final List<FeedDoc.ProcessingInstruction> processingInstructions;
+
+	// use the FeedDoc readFeedDocument methods.
+	AtomDocument(T root, String encoding, String xmlVersion,
+			List<FeedDoc.ProcessingInstruction> processingInstructions) {
+		this.root = root;
+		this.encoding = encoding;
+		this.xmlVersion = xmlVersion;
+		this.processingInstructions = (processingInstructions == null) ? null
+				: Collections.unmodifiableList(processingInstructions);
+	}
+
+	/**
+	 * @return the root element of the document.
+	 */
+	public T getRoot() {
+		return root;
+	}
+
+	/**
+	 * @return the encoding declared in the xml prolog or the encoding the
+	 *         parser detected if none was declared.
+	 */
+	public String getEncoding() {
+		return encoding;
+	}
+
+	/**
+	 * @return the xml version declared in the xml prolog.
+	 */
+	public String getXmlVersion() {
+		return xmlVersion;
+	}
+
+	/**
+	 * @return the processing instructions before the root element or null if
+	 *         there were none. Pass these to the FeedDoc constructor to write
+	 *         them out again.
+	 */
+	public List<FeedDoc.ProcessingInstruction> getProcessingInstructions() {
+		return processingInstructions;
+	}
+}
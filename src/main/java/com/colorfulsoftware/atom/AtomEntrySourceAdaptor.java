@@ -20,6 +20,7 @@
 package com.colorfulsoftware.atom;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -37,7 +38,7 @@ class AtomEntrySourceAdaptor implements Serializable {
 	 */
 	private static final long serialVersionUID = 4534581935906399126L;
 
-	private final List<Attribute> attributes;
+	private final AttributeList attributes;
 
 	private final List<Author> authors;
 
@@ -66,18 +67,18 @@ class AtomEntrySourceAdaptor implements Serializable {
 			throws AtomSpecException {
 
 		// none of these first three will be null.
-		this.id = new Id(id);
-		this.title = new Title(title);
-		this.updated = new Updated(updated);
+		this.id = id;
+		this.title = title;
+		this.updated = updated;
 
-		this.rights = (rights == null) ? null : new Rights(rights);
+		this.rights = rights;
 
 		if (authors == null) {
 			this.authors = null;
 		} else {
 			this.authors = new LinkedList<Author>();
 			for (Author author : authors) {
-				this.authors.add(new Author(author));
+				this.authors.add(author);
 			}
 		}
 
@@ -86,7 +87,7 @@ class AtomEntrySourceAdaptor implements Serializable {
 		} else {
 			this.categories = new LinkedList<Category>();
 			for (Category category : categories) {
-				this.categories.add(new Category(category));
+				this.categories.add(category);
 			}
 		}
 
@@ -95,7 +96,7 @@ class AtomEntrySourceAdaptor implements Serializable {
 		} else {
 			this.contributors = new LinkedList<Contributor>();
 			for (Contributor contributor : contributors) {
-				this.contributors.add(new Contributor(contributor));
+				this.contributors.add(contributor);
 			}
 		}
 
@@ -104,23 +105,20 @@ class AtomEntrySourceAdaptor implements Serializable {
 		} else {
 			this.links = new LinkedList<Link>();
 			for (Link link : links) {
-				this.links.add(new Link(link));
+				this.links.add(link);
 			}
 		}
 
-		this.unboundPrefixes = new LinkedList<String>();
-
 		if (attributes == null) {
 			this.attributes = null;
 		} else {
-			this.attributes = new LinkedList<Attribute>();
-			for (Attribute attr : attributes) {
+			this.attributes = AttributeList.of(attributes);
+			for (Attribute attr : this.attributes) {
 				// check for unsupported attribute.
 				if (!new AttributeSupport(attr).verify(this)) {
 					throw new AtomSpecException("Unsupported attribute "
 							+ attr.getName() + " for this element.");
 				}
-				this.attributes.add(new Attribute(attr));
 				// check for unbound attribute prefixes
 				if (attr.getName().indexOf(":") != -1
 						&& !attr.getName().equals("xml:lang")
@@ -129,8 +127,10 @@ class AtomEntrySourceAdaptor implements Serializable {
 						&& getAttribute("xmlns:"
 								+ attr.getName().substring(0,
 										attr.getName().indexOf(":"))) == null) {
-					this.unboundPrefixes.add(attr.getName().substring(0,
-							attr.getName().indexOf(":")));
+					this.unboundPrefixes = UnboundPrefixes.add(
+							this.unboundPrefixes,
+							attr.getName().substring(0,
+									attr.getName().indexOf(":")));
 				}
 			}
 		}
@@ -144,10 +144,11 @@ class AtomEntrySourceAdaptor implements Serializable {
 				String namespacePrefix = extension.getNamespacePrefix();
 				if (namespacePrefix != null) {
 					if (getAttribute("xmlns:" + namespacePrefix) == null) {
-						this.unboundPrefixes.add(namespacePrefix);
+						this.unboundPrefixes = UnboundPrefixes.add(
+								this.unboundPrefixes, namespacePrefix);
 					}
 				}
-				this.extensions.add(new Extension(extension));
+				this.extensions.add(extension);
 			}
 		}
 
@@ -156,7 +157,8 @@ class AtomEntrySourceAdaptor implements Serializable {
 				&& title.getUnboundPrefixes() != null) {
 			for (String unboundPrefix : title.getUnboundPrefixes()) {
 				if (getAttribute("xmlns:" + unboundPrefix) == null) {
-					this.unboundPrefixes.add(unboundPrefix);
+					this.unboundPrefixes = UnboundPrefixes.add(
+							this.unboundPrefixes, unboundPrefix);
 				}
 			}
 		}
@@ -165,7 +167,8 @@ class AtomEntrySourceAdaptor implements Serializable {
 				&& updated.getUnboundPrefixes() != null) {
 			for (String unboundPrefix : updated.getUnboundPrefixes()) {
 				if (getAttribute("xmlns:" + unboundPrefix) == null) {
-					this.unboundPrefixes.add(unboundPrefix);
+					this.unboundPrefixes = UnboundPrefixes.add(
+							this.unboundPrefixes, unboundPrefix);
 				}
 			}
 		}
@@ -173,7 +176,8 @@ class AtomEntrySourceAdaptor implements Serializable {
 		if (rights != null && rights.getUnboundPrefixes() != null) {
 			for (String unboundPrefix : rights.getUnboundPrefixes()) {
 				if (getAttribute("xmlns:" + unboundPrefix) == null) {
-					this.unboundPrefixes.add(unboundPrefix);
+					this.unboundPrefixes = UnboundPrefixes.add(
+							this.unboundPrefixes, unboundPrefix);
 				}
 			}
 		}
@@ -183,7 +187,8 @@ class AtomEntrySourceAdaptor implements Serializable {
 				if (author.getUnboundPrefixes() != null) {
 					for (String unboundPrefix : author.getUnboundPrefixes()) {
 						if (getAttribute("xmlns:" + unboundPrefix) == null) {
-							this.unboundPrefixes.add(unboundPrefix);
+							this.unboundPrefixes = UnboundPrefixes.add(
+									this.unboundPrefixes, unboundPrefix);
 						}
 					}
 				}
@@ -195,7 +200,8 @@ class AtomEntrySourceAdaptor implements Serializable {
 				if (category.getUnboundPrefixes() != null) {
 					for (String unboundPrefix : category.getUnboundPrefixes()) {
 						if (getAttribute("xmlns:" + unboundPrefix) == null) {
-							this.unboundPrefixes.add(unboundPrefix);
+							this.unboundPrefixes = UnboundPrefixes.add(
+									this.unboundPrefixes, unboundPrefix);
 						}
 					}
 				}
@@ -208,7 +214,8 @@ class AtomEntrySourceAdaptor implements Serializable {
 					for (String unboundPrefix : contributor
 							.getUnboundPrefixes()) {
 						if (getAttribute("xmlns:" + unboundPrefix) == null) {
-							this.unboundPrefixes.add(unboundPrefix);
+							this.unboundPrefixes = UnboundPrefixes.add(
+									this.unboundPrefixes, unboundPrefix);
 						}
 					}
 				}
@@ -220,29 +227,27 @@ class AtomEntrySourceAdaptor implements Serializable {
 				if (link.getUnboundPrefixes() != null) {
 					for (String unboundPrefix : link.getUnboundPrefixes()) {
 						if (getAttribute("xmlns:" + unboundPrefix) == null) {
-							this.unboundPrefixes.add(unboundPrefix);
+							this.unboundPrefixes = UnboundPrefixes.add(
+									this.unboundPrefixes, unboundPrefix);
 						}
 					}
 				}
 			}
 		}
-
-		this.unboundPrefixes = (this.unboundPrefixes.size() == 0) ? null
-				: this.unboundPrefixes;
 	}
 
 	AtomEntrySourceAdaptor(AtomEntrySourceAdaptor atomEntrySourceAdaptor) {
-		this.attributes = atomEntrySourceAdaptor.getAttributes();
-		this.authors = atomEntrySourceAdaptor.getAuthors();
-		this.categories = atomEntrySourceAdaptor.getCategories();
-		this.contributors = atomEntrySourceAdaptor.getContributors();
-		this.links = atomEntrySourceAdaptor.getLinks();
-		this.extensions = atomEntrySourceAdaptor.getExtensions();
-		this.id = atomEntrySourceAdaptor.getId();
-		this.title = atomEntrySourceAdaptor.getTitle();
-		this.updated = atomEntrySourceAdaptor.getUpdated();
-		this.rights = atomEntrySourceAdaptor.getRights();
-		this.unboundPrefixes = atomEntrySourceAdaptor.getUnboundPrefixes();
+		this.attributes = atomEntrySourceAdaptor.attributes;
+		this.authors = atomEntrySourceAdaptor.authors;
+		this.categories = atomEntrySourceAdaptor.categories;
+		this.contributors = atomEntrySourceAdaptor.contributors;
+		this.links = atomEntrySourceAdaptor.links;
+		this.extensions = atomEntrySourceAdaptor.extensions;
+		this.id = atomEntrySourceAdaptor.id;
+		this.title = atomEntrySourceAdaptor.title;
+		this.updated = atomEntrySourceAdaptor.updated;
+		this.rights = atomEntrySourceAdaptor.rights;
+		this.unboundPrefixes = atomEntrySourceAdaptor.unboundPrefixes;
 	}
 
 	/**
@@ -250,14 +255,7 @@ class AtomEntrySourceAdaptor implements Serializable {
 	 * @return the category attribute list.
 	 */
 	List<Attribute> getAttributes() {
-
-		List<Attribute> attrsCopy = new LinkedList<Attribute>();
-		if (this.attributes != null) {
-			for (Attribute attr : this.attributes) {
-				attrsCopy.add(new Attribute(attr));
-			}
-		}
-		return (this.attributes == null) ? null : attrsCopy;
+		return attributes;
 	}
 
 	/**
@@ -265,14 +263,7 @@ class AtomEntrySourceAdaptor implements Serializable {
 	 * @return the authors for this entry.
 	 */
 	List<Author> getAuthors() {
-		if (authors == null) {
-			return null;
-		}
-		List<Author> authrosCopy = new LinkedList<Author>();
-		for (Author author : authors) {
-			authrosCopy.add(new Author(author));
-		}
-		return authrosCopy;
+		return (authors == null) ? null : Collections.unmodifiableList(authors);
 	}
 
 	/**
@@ -280,14 +271,8 @@ class AtomEntrySourceAdaptor implements Serializable {
 	 * @return the categories for this element.
 	 */
 	List<Category> getCategories() {
-		if (categories == null) {
-			return null;
-		}
-		List<Category> catsCopy = new LinkedList<Category>();
-		for (Category category : this.categories) {
-			catsCopy.add(new Category(category));
-		}
-		return catsCopy;
+		return (categories == null) ? null : Collections
+				.unmodifiableList(categories);
 	}
 
 	/**
@@ -295,14 +280,8 @@ class AtomEntrySourceAdaptor implements Serializable {
 	 * @return the contributors for this entry.
 	 */
 	List<Contributor> getContributors() {
-		if (contributors == null) {
-			return null;
-		}
-		List<Contributor> contsCopy = new LinkedList<Contributor>();
-		for (Contributor contributor : this.contributors) {
-			contsCopy.add(new Contributor(contributor));
-		}
-		return contsCopy;
+		return (contributors == null) ? null : Collections
+				.unmodifiableList(contributors);
 	}
 
 	/**
@@ -310,14 +289,8 @@ class AtomEntrySourceAdaptor implements Serializable {
 	 * @return the extensions for this entry.
 	 */
 	List<Extension> getExtensions() {
-		if (extensions == null) {
-			return null;
-		}
-		List<Extension> extsCopy = new LinkedList<Extension>();
-		for (Extension extension : this.extensions) {
-			extsCopy.add(new Extension(extension));
-		}
-		return extsCopy;
+		return (extensions == null) ? null : Collections
+				.unmodifiableList(extensions);
 	}
 
 	/**
@@ -325,14 +298,7 @@ class AtomEntrySourceAdaptor implements Serializable {
 	 * @return the links for this entry.
 	 */
 	List<Link> getLinks() {
-		if (links == null) {
-			return null;
-		}
-		List<Link> linksCopy = new LinkedList<Link>();
-		for (Link link : this.links) {
-			linksCopy.add(new Link(link));
-		}
-		return linksCopy;
+		return (links == null) ? null : Collections.unmodifiableList(links);
 	}
 
 	/**
@@ -340,7 +306,7 @@ class AtomEntrySourceAdaptor implements Serializable {
 	 * @return the unique identifier for this entry.
 	 */
 	Id getId() {
-		return new Id(id);
+		return id;
 	}
 
 	/**
@@ -348,7 +314,7 @@ class AtomEntrySourceAdaptor implements Serializable {
 	 * @return the associated rights for this entry.
 	 */
 	Rights getRights() {
-		return (rights == null) ? null : new Rights(rights);
+		return rights;
 	}
 
 	/**
@@ -356,7 +322,7 @@ class AtomEntrySourceAdaptor implements Serializable {
 	 * @return the title for this element.
 	 */
 	Title getTitle() {
-		return new Title(title);
+		return title;
 	}
 
 	/**
@@ -364,7 +330,7 @@ class AtomEntrySourceAdaptor implements Serializable {
 	 * @return the updated date for this element.
 	 */
 	Updated getUpdated() {
-		return new Updated(updated);
+		return updated;
 	}
 
 	/**
@@ -373,14 +339,8 @@ class AtomEntrySourceAdaptor implements Serializable {
 	 * @return the Attribute object if attrName matches or null if not found.
 	 */
 	Attribute getAttribute(String attrName) {
-		if (this.attributes != null) {
-			for (Attribute attribute : this.attributes) {
-				if (attribute.getName().equals(attrName)) {
-					return new Attribute(attribute);
-				}
-			}
-		}
-		return null;
+		return (attributes == null) ? null : attributes
+				.getAttribute(attrName);
 	}
 
 	/**
@@ -392,7 +352,7 @@ class AtomEntrySourceAdaptor implements Serializable {
 		if (this.authors != null) {
 			for (Author author : this.authors) {
 				if (author.getName().getText().equals(name)) {
-					return new Author(author);
+					return author;
 				}
 			}
 		}
@@ -408,7 +368,7 @@ class AtomEntrySourceAdaptor implements Serializable {
 		if (this.categories != null) {
 			for (Category category : this.categories) {
 				if (category.getAttribute("term").getValue().equals(termValue)) {
-					return new Category(category);
+					return category;
 				}
 			}
 		}
@@ -424,7 +384,7 @@ class AtomEntrySourceAdaptor implements Serializable {
 		if (this.contributors != null) {
 			for (Contributor contributor : this.contributors) {
 				if (contributor.getName().getText().equals(name)) {
-					return new Contributor(contributor);
+					return contributor;
 				}
 			}
 		}
@@ -448,7 +408,7 @@ class AtomEntrySourceAdaptor implements Serializable {
 			for (Link link : this.links) {
 				// rel values of "self" and "alternate" are most relevant
 				if (link.getRel().getValue().equals(relAttributeValue)) {
-					return new Link(link);
+					return link;
 				}
 			}
 		}
@@ -464,7 +424,7 @@ class AtomEntrySourceAdaptor implements Serializable {
 		if (this.extensions != null) {
 			for (Extension extension : this.extensions) {
 				if (extension.getElementName().equals(extName)) {
-					return new Extension(extension);
+					return extension;
 				}
 			}
 		}
@@ -20,6 +20,7 @@
 package com.colorfulsoftware.atom;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -47,7 +48,7 @@ class AtomPersonConstruct implements Serializable {
 	 */
 	private static final long serialVersionUID = 5470418749893434673L;
 
-	private final List<Attribute> attributes;
+	private final AttributeList attributes;
 
 	private final Name name;
 
@@ -73,26 +74,23 @@ class AtomPersonConstruct implements Serializable {
 			throw new AtomSpecException("The person name SHOULD NOT be blank.");
 		}
 
-		this.name = new Name(name.getText());
+		this.name = name;
 
-		this.uri = (uri == null) ? null : new URI(uri.getText());
+		this.uri = uri;
 
-		this.email = (email == null) ? null : new Email(email.getText());
-
-		this.unboundPrefixes = new LinkedList<String>();
+		this.email = email;
 
 		if (attributes == null) {
 			this.attributes = null;
 		} else {
-			this.attributes = new LinkedList<Attribute>();
-			for (Attribute attr : attributes) {
+			this.attributes = AttributeList.of(attributes);
+			for (Attribute attr : this.attributes) {
 				// check for unsupported attribute.
 				if (!new AttributeSupport(attr).verify(this)) {
 					throw new AtomSpecException("Unsupported attribute "
 							+ attr.getName()
 							+ " for this Atom Person Construct.");
 				}
-				this.attributes.add(new Attribute(attr));
 				// check for unbound attribute prefixes
 				if (attr.getName().indexOf(":") != -1
 						&& !attr.getName().equals("xml:lang")
@@ -101,8 +99,10 @@ class AtomPersonConstruct implements Serializable {
 						&& getAttribute("xmlns:"
 								+ attr.getName().substring(0,
 										attr.getName().indexOf(":"))) == null) {
-					this.unboundPrefixes.add(attr.getName().substring(0,
-							attr.getName().indexOf(":")));
+					this.unboundPrefixes = UnboundPrefixes.add(
+							this.unboundPrefixes,
+							attr.getName().substring(0,
+									attr.getName().indexOf(":")));
 				}
 			}
 
@@ -118,19 +118,17 @@ class AtomPersonConstruct implements Serializable {
 				String namespacePrefix = extension.getNamespacePrefix();
 				if (namespacePrefix != null) {
 					if (getAttribute("xmlns:" + namespacePrefix) == null) {
-						this.unboundPrefixes.add(namespacePrefix);
+						this.unboundPrefixes = UnboundPrefixes.add(
+								this.unboundPrefixes, namespacePrefix);
 					}
 				}
-				this.extensions.add(new Extension(extension));
+				this.extensions.add(extension);
 			}
 		}
-
-		this.unboundPrefixes = (this.unboundPrefixes.size() == 0) ? null
-				: this.unboundPrefixes;
 	}
 
 	public AtomPersonConstruct(AtomPersonConstruct person) {
-		this.attributes = person.getAttributes();
+		this.attributes = person.attributes;
 		this.name = person.getName();
 		this.uri = person.getUri();
 		this.email = person.getEmail();
@@ -143,14 +141,7 @@ class AtomPersonConstruct implements Serializable {
 	 * @return the category attribute list.
 	 */
 	public List<Attribute> getAttributes() {
-
-		List<Attribute> attrsCopy = new LinkedList<Attribute>();
-		if (this.attributes != null) {
-			for (Attribute attr : this.attributes) {
-				attrsCopy.add(new Attribute(attr));
-			}
-		}
-		return (this.attributes == null) ? null : attrsCopy;
+		return attributes;
 	}
 
 	/**
@@ -158,7 +149,7 @@ class AtomPersonConstruct implements Serializable {
 	 * @return the email address for this element.
 	 */
 	public Email getEmail() {
-		return (email == null) ? null : new Email(email.getText());
+		return email;
 	}
 
 	/**
@@ -166,7 +157,7 @@ class AtomPersonConstruct implements Serializable {
 	 * @return the name for this element.
 	 */
 	public Name getName() {
-		return new Name(name.getText());
+		return name;
 	}
 
 	/**
@@ -174,7 +165,7 @@ class AtomPersonConstruct implements Serializable {
 	 * @return the URI for this element.
 	 */
 	public URI getUri() {
-		return (uri == null) ? null : new URI(uri.getText());
+		return uri;
 	}
 
 	/**
@@ -182,14 +173,8 @@ class AtomPersonConstruct implements Serializable {
 	 * @return the extensions for this element.
 	 */
 	public List<Extension> getExtensions() {
-		if (extensions == null) {
-			return null;
-		}
-		List<Extension> extsCopy = new LinkedList<Extension>();
-		for (Extension extension : this.extensions) {
-			extsCopy.add(new Extension(extension));
-		}
-		return extsCopy;
+		return (extensions == null) ? null : Collections
+				.unmodifiableList(extensions);
 	}
 
 	/**
@@ -198,14 +183,8 @@ class AtomPersonConstruct implements Serializable {
 	 * @return the Attribute object if attrName matches or null if not found.
 	 */
 	public Attribute getAttribute(String attrName) {
-		if (this.attributes != null) {
-			for (Attribute attribute : this.attributes) {
-				if (attribute.getName().equals(attrName)) {
-					return new Attribute(attribute);
-				}
-			}
-		}
-		return null;
+		return (attributes == null) ? null : attributes
+				.getAttribute(attrName);
 	}
 
 	/**
@@ -217,7 +196,7 @@ class AtomPersonConstruct implements Serializable {
 		if (this.extensions != null) {
 			for (Extension extension : this.extensions) {
 				if (extension.getElementName().equals(extName)) {
-					return new Extension(extension);
+					return extension;
 				}
 			}
 		}
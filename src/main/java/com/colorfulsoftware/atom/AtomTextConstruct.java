@@ -19,7 +19,6 @@
 package com.colorfulsoftware.atom;
 
 import java.io.Serializable;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -49,7 +48,7 @@ class AtomTextConstruct implements Serializable {
 
 	private static final long serialVersionUID = 5347393958118559606L;
 
-	private final List<Attribute> attributes;
+	private final AttributeList attributes;
 	private final String text;
 	private ContentType contentType;
 	private final String divStartName;
@@ -60,15 +59,13 @@ class AtomTextConstruct implements Serializable {
 	AtomTextConstruct(String text, List<Attribute> attributes,
 			boolean isContentElement) throws AtomSpecException {
 
-		this.unboundPrefixes = new LinkedList<String>();
-
 		if (attributes == null) {
 			this.attributes = null;
 		} else {
-			this.attributes = new LinkedList<Attribute>();
+			this.attributes = AttributeList.of(attributes);
 			// content elements have a slightly different validation.
 			if (isContentElement) {
-				for (Attribute attr : attributes) {
+				for (Attribute attr : this.attributes) {
 					// check for unsupported attribute.
 					if (!new AttributeSupport(attr).verify(this)
 							&& !attr.getName().equals("src")) {
@@ -76,7 +73,6 @@ class AtomTextConstruct implements Serializable {
 								+ attr.getName()
 								+ " for this Atom Text Construct.");
 					}
-					this.attributes.add(new Attribute(attr));
 					// check for unbound attribute prefixes
 					if (attr.getName().indexOf(":") != -1
 							&& !attr.getName().equals("xml:lang")
@@ -85,20 +81,21 @@ class AtomTextConstruct implements Serializable {
 							&& getAttribute("xmlns:"
 									+ attr.getName().substring(0,
 											attr.getName().indexOf(":"))) == null) {
-						this.unboundPrefixes.add(attr.getName().substring(0,
-								attr.getName().indexOf(":")));
+						this.unboundPrefixes = UnboundPrefixes.add(
+								this.unboundPrefixes,
+								attr.getName().substring(0,
+										attr.getName().indexOf(":")));
 					}
 
 				}
 			} else {
-				for (Attribute attr : attributes) {
+				for (Attribute attr : this.attributes) {
 					// check for unsupported attribute.
 					if (!new AttributeSupport(attr).verify(this)) {
 						throw new AtomSpecException("Unsupported attribute "
 								+ attr.getName()
 								+ " for this Atom Text Construct.");
 					}
-					this.attributes.add(new Attribute(attr));
 					// check for unbound attribute prefixes
 					if (attr.getName().indexOf(":") != -1
 							&& !attr.getName().equals("xml:lang")
@@ -107,16 +104,15 @@ class AtomTextConstruct implements Serializable {
 							&& getAttribute("xmlns:"
 									+ attr.getName().substring(0,
 											attr.getName().indexOf(":"))) == null) {
-						this.unboundPrefixes.add(attr.getName().substring(0,
-								attr.getName().indexOf(":")));
+						this.unboundPrefixes = UnboundPrefixes.add(
+								this.unboundPrefixes,
+								attr.getName().substring(0,
+										attr.getName().indexOf(":")));
 					}
 				}
 			}
 		}
 
-		this.unboundPrefixes = (this.unboundPrefixes.size() == 0) ? null
-				: this.unboundPrefixes;
-
 		// get the content type
 		Attribute attr = getAttribute("src");
 		if (attr != null) {
@@ -175,7 +171,7 @@ class AtomTextConstruct implements Serializable {
 	}
 
 	AtomTextConstruct(AtomTextConstruct atomTextConstruct) {
-		this.attributes = atomTextConstruct.getAttributes();
+		this.attributes = atomTextConstruct.attributes;
 		this.text = atomTextConstruct.text;
 		this.contentType = atomTextConstruct.getContentType();
 		this.divStartName = atomTextConstruct.divStartName;
@@ -248,14 +244,7 @@ class AtomTextConstruct implements Serializable {
 	 * @return the category attribute list.
 	 */
 	public List<Attribute> getAttributes() {
-
-		List<Attribute> attrsCopy = new LinkedList<Attribute>();
-		if (this.attributes != null) {
-			for (Attribute attr : this.attributes) {
-				attrsCopy.add(new Attribute(attr));
-			}
-		}
-		return (this.attributes == null) ? null : attrsCopy;
+		return attributes;
 	}
 
 	/**
@@ -280,14 +269,8 @@ class AtomTextConstruct implements Serializable {
 	 * @return the Attribute object if attrName matches or null if not found.
 	 */
 	public Attribute getAttribute(String attrName) {
-		if (this.attributes != null) {
-			for (Attribute attribute : this.attributes) {
-				if (attribute.getName().equals(attrName)) {
-					return new Attribute(attribute);
-				}
-			}
-		}
-		return null;
+		return (attributes == null) ? null : attributes
+				.getAttribute(attrName);
 	}
 
 	/**
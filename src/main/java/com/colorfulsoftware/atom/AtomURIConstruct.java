@@ -20,32 +20,28 @@
 package com.colorfulsoftware.atom;
 
 import java.io.Serializable;
-import java.util.LinkedList;
 import java.util.List;
 
 class AtomURIConstruct implements Serializable {
 
 	private static final long serialVersionUID = -6063992140422293183L;
-	private final List<Attribute> attributes;
+	private final AttributeList attributes;
 	private final String atomUri;
 	private List<String> unboundPrefixes = null;
 
 	AtomURIConstruct(List<Attribute> attributes, String atomUri)
 			throws AtomSpecException {
 
-		this.unboundPrefixes = new LinkedList<String>();
-
 		if (attributes == null) {
 			this.attributes = null;
 		} else {
-			this.attributes = new LinkedList<Attribute>();
-			for (Attribute attr : attributes) {
+			this.attributes = AttributeList.of(attributes);
+			for (Attribute attr : this.attributes) {
 				// check for unsupported attribute.
 				if (!new AttributeSupport(attr).verify(this)) {
 					throw new AtomSpecException("Unsupported attribute "
 							+ attr.getName() + " for this element.");
 				}
-				this.attributes.add(new Attribute(attr));
 				// check for unbound attribute prefixes
 				if (attr.getName().indexOf(":") != -1
 						&& !attr.getName().equals("xml:lang")
@@ -54,20 +50,19 @@ class AtomURIConstruct implements Serializable {
 						&& getAttribute("xmlns:"
 								+ attr.getName().substring(0,
 										attr.getName().indexOf(":"))) == null) {
-					this.unboundPrefixes.add(attr.getName().substring(0,
-							attr.getName().indexOf(":")));
+					this.unboundPrefixes = UnboundPrefixes.add(
+							this.unboundPrefixes,
+							attr.getName().substring(0,
+									attr.getName().indexOf(":")));
 				}
 			}
 		}
 
-		this.unboundPrefixes = (this.unboundPrefixes.size() == 0) ? null
-				: this.unboundPrefixes;
-
 		this.atomUri = atomUri;
 	}
 
 	AtomURIConstruct(AtomURIConstruct atomURIConstruct) {
-		this.attributes = atomURIConstruct.getAttributes();
+		this.attributes = atomURIConstruct.attributes;
 		this.atomUri = atomURIConstruct.atomUri;
 	}
 
@@ -76,14 +71,7 @@ class AtomURIConstruct implements Serializable {
 	 * @return the category attribute list.
 	 */
 	public List<Attribute> getAttributes() {
-
-		List<Attribute> attrsCopy = new LinkedList<Attribute>();
-		if (this.attributes != null) {
-			for (Attribute attr : this.attributes) {
-				attrsCopy.add(new Attribute(attr));
-			}
-		}
-		return (this.attributes == null) ? null : attrsCopy;
+		return attributes;
 	}
 
 	/**
@@ -100,15 +88,8 @@ class AtomURIConstruct implements Serializable {
 	 * @return the Attribute object if attrName matches or null if not found.
 	 */
 	public Attribute getAttribute(String attrName) {
-		if (this.attributes != null) {
-			for (Attribute attribute : this.attributes) {
-				if (attribute.getName().equals(attrName)) {
-
-					return new Attribute(attribute);
-				}
-			}
-		}
-		return null;
+		return (attributes == null) ? null : attributes
+				.getAttribute(attrName);
 	}
 
 	/**
@@ -0,0 +1,133 @@
+/**
+ * Copyright 2011 Bill Brown
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.colorfulsoftware.atom;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * This class is the immutable list the constructs keep their attributes in.
+ * The attributes are held in an array of exactly their number, or directly
+ * when there is only one as there is for most links and categories, which
+ * takes a fraction of the memory of a linked list with a node per attribute.
+ * All of the constructs without attributes share one empty list.
+ *
+ * @author Bill Brown
+ *
+ */
+abstract class AttributeList extends AbstractList<Attribute> implements
+		RandomAccess, Serializable {
+
+	private static final long serialVersionUID = 4630419237305960124L;
+
+	static final AttributeList EMPTY = new Many(new Attribute[0]);
+
+	/**
+	 * @param attributes
+	 *            the attributes in order or null.
+	 * @return a list of the attributes or null if there are none given.
+	 */
+	static AttributeList of(List<Attribute> attributes) {
+		if (attributes == null) {
+			return null;
+		}
+		if (attributes instanceof AttributeList) {
+			return (AttributeList) attributes;
+		}
+		switch (attributes.size()) {
+		case 0:
+			return EMPTY;
+		case 1:
+			return new One(attributes.get(0));
+		default:
+			return new Many(attributes.toArray(new Attribute[attributes
+					.size()]));
+		}
+	}
+
+	/**
+	 * @param name
+	 *            the name of the attribute.
+	 * @return the first attribute with the name or null if there is none.
+	 */
+	Attribute getAttribute(String name) {
+		for (int i = 0; i < size(); i++) {
+			Attribute attribute = get(i);
+			if (attribute.getName().equals(name)) {
+				return attribute;
+			}
+		}
+		return null;
+	}
+
+	private static final class One extends AttributeList {
+
+		private static final long serialVersionUID = -1906185433071254383L;
+
+		private final Attribute attribute;
+
+		One(Attribute attribute) {
+			this.attribute = attribute;
+		}
+
+		@Override
+		public Attribute get(int index) {
+			if (index != 0) {
+				throw new IndexOutOfBoundsException("Index: " + index
+						+ ", Size: 1");
+			}
+			return attribute;
+		}
+
+		@Override
+		public int size() {
+			return 1;
+		}
+
+		@Override
+		Attribute getAttribute(String name) {
+			return attribute.getName().equals(name) ? attribute : null;
+		}
+	}
+
+	private static final class Many extends AttributeList {
+
+		private static final long serialVersionUID = 2973627470592648104L;
+
+		private final Attribute[] attributes;
+
+		Many(Attribute[] attributes) {
+			this.attributes = attributes;
+		}
+
+		@Override
+		public Attribute get(int index) {
+			return attributes[index];
+		}
+
+		@Override
+		public int size() {
+			return attributes.length;
+		}
+
+		// keeps the shared empty list after deserialization.
+		private Object readResolve() {
+			return (attributes.length == 0) ? EMPTY : this;
+		}
+	}
+}
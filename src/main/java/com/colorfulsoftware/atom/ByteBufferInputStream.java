@@ -0,0 +1,95 @@
+/**
+ * Copyright 2011 Bill Brown
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.colorfulsoftware.atom;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * This class hands the bytes of one or more buffers to the xml parser without
+ * copying them into an intermediate array first. Subclasses supply the
+ * buffers that follow the first one through <code>nextBuffer</code>.
+ *
+ * @author Bill Brown
+ *
+ */
+class ByteBufferInputStream extends InputStream {
+
+	private ByteBuffer buffer;
+	private boolean done;
+
+	/**
+	 * @param buffer
+	 *            the first buffer to read or null to start with
+	 *            <code>nextBuffer</code>.
+	 */
+	ByteBufferInputStream(ByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+	/**
+	 * @return the buffer to continue reading from once the current one has
+	 *         been read or null at the end of the input.
+	 * @throws IOException
+	 *             if the next buffer cannot be obtained.
+	 */
+	ByteBuffer nextBuffer() throws IOException {
+		return null;
+	}
+
+	// true if there are bytes left to read.
+	private boolean fill() throws IOException {
+		while (!done && (buffer == null || !buffer.hasRemaining())) {
+			buffer = nextBuffer();
+			done = (buffer == null);
+		}
+		return !done;
+	}
+
+	@Override
+	public int read() throws IOException {
+		return fill() ? (buffer.get() & 0xff) : -1;
+	}
+
+	@Override
+	public int read(byte[] bytes, int offset, int length) throws IOException {
+		if (length == 0) {
+			return 0;
+		}
+		if (!fill()) {
+			return -1;
+		}
+		length = Math.min(length, buffer.remaining());
+		buffer.get(bytes, offset, length);
+		return length;
+	}
+
+	@Override
+	public long skip(long count) throws IOException {
+		if (count <= 0 || !fill()) {
+			return 0;
+		}
+		int skipped = (int) Math.min(count, buffer.remaining());
+		buffer.position(buffer.position() + skipped);
+		return skipped;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return (done || buffer == null) ? 0 : buffer.remaining();
+	}
+}
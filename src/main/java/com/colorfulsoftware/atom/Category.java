@@ -19,7 +19,6 @@
 package com.colorfulsoftware.atom;
 
 import java.io.Serializable;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -46,7 +45,7 @@ public class Category implements Serializable {
 	 * 
 	 */
 	private static final long serialVersionUID = -7475777621616906621L;
-	private final List<Attribute> attributes;
+	private final AttributeList attributes;
 	private final Attribute term; // required
 	private final Attribute scheme;
 	private final Attribute label;
@@ -57,20 +56,17 @@ public class Category implements Serializable {
 	Category(List<Attribute> attributes, String content)
 			throws AtomSpecException {
 
-		this.unboundPrefixes = new LinkedList<String>();
-
 		if (attributes == null) {
 			throw new AtomSpecException(
 					"Category elements MUST have a \"term\" attribute.");
 		} else {
-			this.attributes = new LinkedList<Attribute>();
-			for (Attribute attr : attributes) {
+			this.attributes = AttributeList.of(attributes);
+			for (Attribute attr : this.attributes) {
 				// check for unsupported attribute.
 				if (!new AttributeSupport(attr).verify(this)) {
 					throw new AtomSpecException("Unsupported attribute "
 							+ attr.getName() + " in the atom:category element.");
 				}
-				this.attributes.add(new Attribute(attr));
 				// check for unbound attribute prefixes
 				if (attr.getName().indexOf(":") != -1
 						&& !attr.getName().equals("xml:lang")
@@ -79,15 +75,14 @@ public class Category implements Serializable {
 						&& getAttribute("xmlns:"
 								+ attr.getName().substring(0,
 										attr.getName().indexOf(":"))) == null) {
-					this.unboundPrefixes.add(attr.getName().substring(0,
-							attr.getName().indexOf(":")));
+					this.unboundPrefixes = UnboundPrefixes.add(
+							this.unboundPrefixes,
+							attr.getName().substring(0,
+									attr.getName().indexOf(":")));
 				}
 			}
 		}
 
-		this.unboundPrefixes = (this.unboundPrefixes.size() == 0) ? null
-				: this.unboundPrefixes;
-
 		if ((this.term = getAttribute("term")) == null
 				|| this.term.getValue().equals("")) {
 			throw new AtomSpecException(
@@ -102,7 +97,7 @@ public class Category implements Serializable {
 	}
 
 	Category(Category category) {
-		this.attributes = category.getAttributes();
+		this.attributes = category.attributes;
 		this.term = category.getTerm();
 		this.scheme = category.getScheme();
 		this.label = category.getLabel();
@@ -114,12 +109,7 @@ public class Category implements Serializable {
 	 * @return the category attribute list.
 	 */
 	public List<Attribute> getAttributes() {
-
-		List<Attribute> attrsCopy = new LinkedList<Attribute>();
-		for (Attribute attr : this.attributes) {
-			attrsCopy.add(new Attribute(attr));
-		}
-		return attrsCopy;
+		return attributes;
 	}
 
 	/**
@@ -127,7 +117,7 @@ public class Category implements Serializable {
 	 * @return the label attribute
 	 */
 	public Attribute getLabel() {
-		return (label == null) ? null : new Attribute(label);
+		return label;
 	}
 
 	/**
@@ -135,7 +125,7 @@ public class Category implements Serializable {
 	 * @return the scheme attribute
 	 */
 	public Attribute getScheme() {
-		return (scheme == null) ? null : new Attribute(scheme);
+		return scheme;
 	}
 
 	/**
@@ -143,7 +133,7 @@ public class Category implements Serializable {
 	 * @return the term attribute
 	 */
 	public Attribute getTerm() {
-		return new Attribute(term);
+		return term;
 	}
 
 	/**
@@ -160,12 +150,7 @@ public class Category implements Serializable {
 	 * @return the Attribute object if attrName matches or null if not found.
 	 */
 	public Attribute getAttribute(String attrName) {
-		for (Attribute attribute : this.attributes) {
-			if (attribute.getName().equals(attrName)) {
-				return new Attribute(attribute);
-			}
-		}
-		return null;
+		return attributes.getAttribute(attrName);
 	}
 
 	/**
@@ -0,0 +1,186 @@
+/**
+ * Copyright 2011 Bill Brown
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.colorfulsoftware.atom;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The compression formats the FeedDoc can write atom documents in. Compressed
+ * documents are recognized by their first bytes when they are read so there
+ * is no need to say how a document being read was compressed.
+ *
+ * @see FeedDoc#writeFeedDoc(OutputStream, Feed, String, String, Compression)
+ * @author Bill Brown
+ *
+ */
+public enum Compression {
+
+	/**
+	 * the gzip file format (RFC 1952) used by .gz files and the gzip http
+	 * content encoding.
+	 */
+	GZIP {
+		@Override
+		DeflaterOutputStream compress(OutputStream output) throws IOException {
+			return new GZIPOutputStream(output, BUFFER_SIZE) {
+				@Override
+				public void close() {
+					def.end();
+				}
+			};
+		}
+	},
+
+	/**
+	 * the zlib format (RFC 1950) used by the deflate http content encoding.
+	 */
+	DEFLATE {
+		@Override
+		DeflaterOutputStream compress(OutputStream output) {
+			return new DeflaterOutputStream(output, new Deflater(),
+					BUFFER_SIZE) {
+				@Override
+				public void close() {
+					def.end();
+				}
+			};
+		}
+	};
+
+	static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * @param output
+	 *            the stream to write the compressed bytes to.
+	 * @return a stream compressing what is written to it. Finishing it writes
+	 *         the trailer and closing it only frees the compressor, so it is
+	 *         finished and then closed without closing the output.
+	 * @throws IOException
+	 *             if the compressed header cannot be written.
+	 */
+	abstract DeflaterOutputStream compress(OutputStream output)
+			throws IOException;
+
+	/**
+	 * looks at the first two bytes of the input and returns a stream that
+	 * decompresses it if they are the gzip magic number or a zlib header. An
+	 * xml document cannot start with either because its first byte is a byte
+	 * order mark, white space or '&lt;'.
+	 *
+	 * @param inputStream
+	 *            the input that may be compressed.
+	 * @return a stream reading the input as it is if it is not compressed.
+	 *         Closing it frees the decompressor without closing the input, so
+	 *         the readers close it when they are done with the document.
+	 * @throws IOException
+	 *             if the input cannot be read.
+	 */
+	static InputStream decompress(InputStream inputStream) throws IOException {
+		byte[] magic = new byte[2];
+		int read = 0;
+		InputStream input;
+		if (inputStream.markSupported()) {
+			inputStream.mark(magic.length);
+			read = readFully(inputStream, magic);
+			inputStream.reset();
+			input = inputStream;
+		} else {
+			PushbackInputStream pushback = new PushbackInputStream(
+					inputStream, magic.length);
+			read = readFully(pushback, magic);
+			pushback.unread(magic, 0, read);
+			input = pushback;
+		}
+		input = new KeptOpenInputStream(input);
+		if (read < magic.length) {
+			return input;
+		}
+
+		if (isGzip(magic[0], magic[1])) {
+			// the stream ends the inflater it made itself when it is closed.
+			return new BufferedInputStream(new GZIPInputStream(input,
+					BUFFER_SIZE), BUFFER_SIZE);
+		}
+		if (isDeflate(magic[0], magic[1])) {
+			return new BufferedInputStream(new InflaterInputStream(input,
+					new Inflater(), BUFFER_SIZE) {
+				@Override
+				public void close() {
+					inf.end();
+				}
+			}, BUFFER_SIZE);
+		}
+		return input;
+	}
+
+	/**
+	 * @param first
+	 *            the first byte of a document.
+	 * @param second
+	 *            the second byte of a document.
+	 * @return true if the document is gzip or zlib compressed.
+	 */
+	static boolean isCompressed(byte first, byte second) {
+		return isGzip(first, second) || isDeflate(first, second);
+	}
+
+	private static boolean isGzip(byte first, byte second) {
+		return (first & 0xff) == 0x1f && (second & 0xff) == 0x8b;
+	}
+
+	// the deflate method with a header checksum that adds up.
+	private static boolean isDeflate(byte first, byte second) {
+		int method = first & 0xff;
+		return (method & 0x0f) == 8 && (method >> 4) <= 7
+				&& ((method << 8) | (second & 0xff)) % 31 == 0;
+	}
+
+	// leaves the input of the caller open when the document is closed.
+	private static class KeptOpenInputStream extends FilterInputStream {
+
+		KeptOpenInputStream(InputStream inputStream) {
+			super(inputStream);
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	private static int readFully(InputStream inputStream, byte[] bytes)
+			throws IOException {
+		int read = 0;
+		while (read < bytes.length) {
+			int count = inputStream.read(bytes, read, bytes.length - read);
+			if (count == -1) {
+				break;
+			}
+			read += count;
+		}
+		return read;
+	}
+}
@@ -0,0 +1,191 @@
+/**
+ * Copyright 2011 Bill Brown
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.colorfulsoftware.atom;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.Charset;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This class works out the character encoding of an xml document from its
+ * byte order mark and its xml declaration as described in appendix F of the
+ * xml specification, so the parser can be told the encoding instead of
+ * guessing it or being given the default encoding of the platform.
+ *
+ * UTF-8, the encoding of nearly every atom feed, is recognized from the first
+ * bytes: a document with a UTF-8 byte order mark, without an xml declaration
+ * or with one that declares UTF-8 goes straight to the UTF-8 decoder of the
+ * parser. Encodings this class does not recognize, such as UTF-32 and EBCDIC,
+ * are left to the parser to detect.
+ *
+ * @author Bill Brown
+ *
+ */
+final class EncodingDetector {
+
+	static final String UTF_8 = "UTF-8";
+
+	// the most bytes looked at for the end of the xml declaration.
+	private static final int PROLOG_LIMIT = 1024;
+
+	private static final Pattern ENCODING = Pattern
+			.compile("encoding\\s*=\\s*[\"']([A-Za-z][A-Za-z0-9._\\-]*)[\"']");
+
+	private final InputStream input;
+	private final String charset;
+
+	private EncodingDetector(InputStream input, String charset) {
+		this.input = input;
+		this.charset = charset;
+	}
+
+	/**
+	 * looks at the start of the input to find its encoding. A byte order
+	 * mark is taken off the input so the parser does not have to deal with
+	 * it.
+	 *
+	 * @param inputStream
+	 *            the input at the start of an xml document.
+	 * @return the detected encoding and the input to read the document from.
+	 * @throws IOException
+	 *             if the input cannot be read.
+	 */
+	static EncodingDetector detect(InputStream inputStream) throws IOException {
+		PushbackInputStream input = new PushbackInputStream(inputStream,
+				PROLOG_LIMIT);
+		byte[] prolog = new byte[PROLOG_LIMIT];
+		int read = readFully(input, prolog, 0, 4);
+		if (read < 4) {
+			input.unread(prolog, 0, read);
+			return new EncodingDetector(input, UTF_8);
+		}
+		int b0 = prolog[0] & 0xff;
+		int b1 = prolog[1] & 0xff;
+		int b2 = prolog[2] & 0xff;
+		int b3 = prolog[3] & 0xff;
+
+		// the byte order marks.
+		if (b0 == 0xEF && b1 == 0xBB && b2 == 0xBF) {
+			input.unread(prolog, 3, 1);
+			return new EncodingDetector(input, UTF_8);
+		}
+		if (b0 == 0xFE && b1 == 0xFF && (b2 != 0 || b3 != 0)) {
+			input.unread(prolog, 2, 2);
+			return new EncodingDetector(input, "UTF-16BE");
+		}
+		if (b0 == 0xFF && b1 == 0xFE && (b2 != 0 || b3 != 0)) {
+			input.unread(prolog, 2, 2);
+			return new EncodingDetector(input, "UTF-16LE");
+		}
+
+		// '<?' without a byte order mark.
+		if (b0 == 0 && b1 == '<' && b2 == 0 && b3 == '?') {
+			input.unread(prolog, 0, read);
+			return new EncodingDetector(input, "UTF-16BE");
+		}
+		if (b0 == '<' && b1 == 0 && b2 == '?' && b3 == 0) {
+			input.unread(prolog, 0, read);
+			return new EncodingDetector(input, "UTF-16LE");
+		}
+		if (b0 == '<' && b1 == '?' && b2 == 'x' && b3 == 'm') {
+			// an ASCII compatible encoding named in the xml declaration.
+			int end = indexOf(prolog, 0, read, '>');
+			while (end == -1 && read < PROLOG_LIMIT) {
+				int count = input.read(prolog, read, PROLOG_LIMIT - read);
+				if (count == -1) {
+					break;
+				}
+				end = indexOf(prolog, read, read + count, '>');
+				read += count;
+			}
+			input.unread(prolog, 0, read);
+			return new EncodingDetector(input, (end == -1) ? null
+					: declared(new String(prolog, 0, end, "ISO-8859-1")));
+		}
+		if ((b0 == 0 || b1 == 0 || b2 == 0 || b3 == 0)
+				|| (b0 == 0x4C && b1 == 0x6F && b2 == 0xA7 && b3 == 0x94)) {
+			// UTF-32, UCS-4 or EBCDIC.
+			input.unread(prolog, 0, read);
+			return new EncodingDetector(input, null);
+		}
+
+		// a document without a byte order mark or an xml declaration is UTF-8.
+		input.unread(prolog, 0, read);
+		return new EncodingDetector(input, UTF_8);
+	}
+
+	// the encoding in the xml declaration or null if the parser should report
+	// it.
+	private static String declared(String declaration) {
+		Matcher matcher = ENCODING.matcher(declaration);
+		if (!matcher.find()) {
+			return UTF_8;
+		}
+		String name = matcher.group(1);
+		if (name.equalsIgnoreCase(UTF_8) || name.equalsIgnoreCase("UTF8")) {
+			return UTF_8;
+		}
+		if (name.toUpperCase().startsWith("UTF-16")
+				|| name.toUpperCase().startsWith("UTF-32")) {
+			// these cannot be read from single byte markup.
+			return null;
+		}
+		try {
+			return Charset.isSupported(name) ? name : null;
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private static int indexOf(byte[] bytes, int start, int end, char c) {
+		for (int i = start; i < end; i++) {
+			if (bytes[i] == c) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int readFully(InputStream inputStream, byte[] bytes,
+			int offset, int length) throws IOException {
+		int read = 0;
+		while (read < length) {
+			int count = inputStream.read(bytes, offset + read, length - read);
+			if (count == -1) {
+				break;
+			}
+			read += count;
+		}
+		return read;
+	}
+
+	/**
+	 * @return the input to read the document from.
+	 */
+	InputStream getInput() {
+		return input;
+	}
+
+	/**
+	 * @return the name of the encoding or null if the parser has to detect it.
+	 */
+	String getCharset() {
+		return charset;
+	}
+}
@@ -20,11 +20,12 @@
 package com.colorfulsoftware.atom;
 
 import java.io.Serializable;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
- * This class represents an Atom 1.0 entry element.
+ * This class represents an Atom 1.0 entry element. The entry is immutable, so
+ * its getters hand out the elements it was built with instead of copies and
+ * its lists are unmodifiable views.
  * 
  * @see <a
  *      href="http://www.atomenabled.org/developers/syndication/atom-format-spec.php">Atom
@@ -108,24 +109,24 @@ public class Entry implements Serializable {
 				}
 			}
 
-			this.content = new Content(content);
+			this.content = content;
 		}
 
-		this.published = (published == null) ? null : new Published(published);
-		this.source = (source == null) ? null : new Source(source);
-		this.summary = (summary == null) ? null : new Summary(summary);
+		this.published = published;
+		this.source = source;
+		this.summary = summary;
 
 		// check that the extension prefixes are bound to a namespace
-		this.unboundPrefixes = new LinkedList<String>();
-
 		if (entryAdaptor.getUnboundPrefixes() != null) {
-			this.unboundPrefixes.addAll(entryAdaptor.getUnboundPrefixes());
+			this.unboundPrefixes = UnboundPrefixes.addAll(
+					this.unboundPrefixes, entryAdaptor.getUnboundPrefixes());
 		}
 
 		if (source != null && source.getUnboundPrefixes() != null) {
 			for (String unboundPrefix : source.getUnboundPrefixes()) {
 				if (getAttribute("xmlns:" + unboundPrefix) == null) {
-					this.unboundPrefixes.add(unboundPrefix);
+					this.unboundPrefixes = UnboundPrefixes.add(
+							this.unboundPrefixes, unboundPrefix);
 				}
 			}
 		}
@@ -133,7 +134,8 @@ public class Entry implements Serializable {
 		if (published != null && updated.getUnboundPrefixes() != null) {
 			for (String unboundPrefix : updated.getUnboundPrefixes()) {
 				if (getAttribute("xmlns:" + unboundPrefix) == null) {
-					this.unboundPrefixes.add(unboundPrefix);
+					this.unboundPrefixes = UnboundPrefixes.add(
+							this.unboundPrefixes, unboundPrefix);
 				}
 			}
 		}
@@ -141,13 +143,11 @@ public class Entry implements Serializable {
 		if (summary != null && summary.getUnboundPrefixes() != null) {
 			for (String unboundPrefix : summary.getUnboundPrefixes()) {
 				if (getAttribute("xmlns:" + unboundPrefix) == null) {
-					this.unboundPrefixes.add(unboundPrefix);
+					this.unboundPrefixes = UnboundPrefixes.add(
+							this.unboundPrefixes, unboundPrefix);
 				}
 			}
 		}
-
-		this.unboundPrefixes = (this.unboundPrefixes.size() == 0) ? null
-				: this.unboundPrefixes;
 	}
 
 	Entry(Entry entry) {
@@ -160,7 +160,7 @@ public class Entry implements Serializable {
 	}
 
 	AtomEntrySourceAdaptor getEntryAdaptor() {
-		return new AtomEntrySourceAdaptor(this.entryAdaptor);
+		return entryAdaptor;
 	}
 
 	/**
@@ -168,7 +168,7 @@ public class Entry implements Serializable {
 	 * @return the content for this entry.
 	 */
 	public Content getContent() {
-		return (content == null) ? null : new Content(content);
+		return content;
 	}
 
 	/**
@@ -176,7 +176,7 @@ public class Entry implements Serializable {
 	 * @return the published date for this entry.
 	 */
 	public Published getPublished() {
-		return (published == null) ? null : new Published(published);
+		return published;
 	}
 
 	/**
@@ -184,7 +184,7 @@ public class Entry implements Serializable {
 	 * @return the source for this element.
 	 */
 	public Source getSource() {
-		return (source == null) ? null : new Source(source);
+		return source;
 	}
 
 	/**
@@ -192,7 +192,7 @@ public class Entry implements Serializable {
 	 * @return the summary for this element.
 	 */
 	public Summary getSummary() {
-		return (summary == null) ? null : new Summary(summary);
+		return summary;
 	}
 
 	/**
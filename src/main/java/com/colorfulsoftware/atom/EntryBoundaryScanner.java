@@ -0,0 +1,481 @@
+/**
+ * Copyright 2011 Bill Brown
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.colorfulsoftware.atom;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class finds the byte offsets of the root element and of the top level
+ * entry elements of an atom document without parsing it. It understands just
+ * enough xml to step over comments, CDATA sections, processing instructions,
+ * the document type declaration and quoted attribute values. A top level
+ * element named entry only counts as an entry when its prefix is bound to the
+ * atom namespace or to none, as it is for the FeedReader, by a declaration on
+ * the element itself or on the root element.
+ *
+ * The bytes can be scanned in pieces: <code>scan</code> stops in front of a
+ * markup token it cannot classify yet and picks up from the same place when it
+ * is called again with more bytes. Only encodings where the xml markup
+ * characters are single ASCII bytes (UTF-8, US-ASCII, ISO-8859-x and the like)
+ * can be scanned this way.
+ *
+ * @author Bill Brown
+ *
+ */
+final class EntryBoundaryScanner {
+
+	/**
+	 * receives the offsets found by the scanner. The offsets are absolute
+	 * indexes into the buffer passed to <code>scan</code>.
+	 */
+	interface Listener {
+
+		/**
+		 * @param start
+		 *            the offset of the '&lt;' of the root start tag.
+		 * @param end
+		 *            the offset after the '&gt;' of the root start tag.
+		 * @param nameEnd
+		 *            the offset after the root element name.
+		 * @throws Exception
+		 *             to abort the scan.
+		 */
+		void rootStart(int start, int end, int nameEnd) throws Exception;
+
+		/**
+		 * @param start
+		 *            the offset of the '&lt;' of an entry start tag.
+		 * @throws Exception
+		 *             to abort the scan.
+		 */
+		void entryStart(int start) throws Exception;
+
+		/**
+		 * @param end
+		 *            the offset after the '&gt;' of the entry end tag.
+		 * @throws Exception
+		 *             to abort the scan.
+		 */
+		void entryEnd(int end) throws Exception;
+
+		/**
+		 * @param start
+		 *            the offset of the '&lt;' of the root end tag.
+		 * @param end
+		 *            the offset after the '&gt;' of the root end tag.
+		 * @throws Exception
+		 *             to abort the scan.
+		 */
+		void rootEnd(int start, int end) throws Exception;
+	}
+
+	private static final int TEXT = 0;
+	private static final int START_TAG = 1;
+	private static final int END_TAG = 2;
+	private static final int COMMENT = 3;
+	private static final int CDATA = 4;
+	private static final int PROCESSING_INSTRUCTION = 5;
+	private static final int DECLARATION = 6;
+
+	private static final byte[] COMMENT_START = { '<', '!', '-', '-' };
+	private static final byte[] CDATA_START = { '<', '!', '[', 'C', 'D', 'A',
+			'T', 'A', '[' };
+	private static final byte[] ENTRY = { 'e', 'n', 't', 'r', 'y' };
+	private static final byte[] XMLNS = { 'x', 'm', 'l', 'n', 's' };
+	private static final String ATOM_NAMESPACE = "http://www.w3.org/2005/Atom";
+
+	private final Listener listener;
+	private int state = TEXT;
+	// the offset of the markup token being scanned.
+	private int tokenStart;
+	// the next offset to scan.
+	private int position;
+	// the quote character of an attribute value or 0 outside of one.
+	private byte quote;
+	// the closing '-', ']' or '?' characters seen in a row.
+	private int run;
+	// the nesting of '[' in the document type declaration.
+	private int brackets;
+	private int depth;
+	private boolean inEntry;
+	private boolean finished;
+	// the namespace declarations of the root element keyed by prefix, with
+	// "" for the default namespace.
+	private final Map<String, String> rootNamespaces = new HashMap<String, String>();
+
+	EntryBoundaryScanner(Listener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * scans the bytes from where the last call stopped up to the limit.
+	 *
+	 * @param bytes
+	 *            the document bytes. The position and limit of the buffer are
+	 *            ignored.
+	 * @param limit
+	 *            the offset after the last byte available.
+	 * @throws Exception
+	 *             if the listener throws an exception.
+	 */
+	void scan(ByteBuffer bytes, int limit) throws Exception {
+		while (position < limit && !finished) {
+			byte b = bytes.get(position);
+			switch (state) {
+			case TEXT:
+				if (b == '<') {
+					int token = classify(bytes, position, limit);
+					if (token == -1) {
+						// wait for the rest of the markup.
+						return;
+					}
+					tokenStart = position;
+					state = token;
+					quote = 0;
+					run = 0;
+					brackets = 0;
+					position += (token == START_TAG) ? 1
+							: (token == COMMENT) ? COMMENT_START.length
+									: (token == CDATA) ? CDATA_START.length
+											: 2;
+					continue;
+				}
+				break;
+			case START_TAG:
+			case END_TAG:
+				if (quote != 0) {
+					if (b == quote) {
+						quote = 0;
+					}
+				} else if (b == '"' || b == '\'') {
+					quote = b;
+				} else if (b == '>') {
+					state = TEXT;
+					position++;
+					if (bytes.get(tokenStart + 1) == '/') {
+						endTag(position);
+					} else {
+						startTag(bytes, position);
+					}
+					continue;
+				}
+				break;
+			case COMMENT:
+			case CDATA:
+				// comments end with "-->" and CDATA sections with "]]>".
+				if (b == ((state == COMMENT) ? '-' : ']')) {
+					run++;
+				} else {
+					if (b == '>' && run >= 2) {
+						state = TEXT;
+					}
+					run = 0;
+				}
+				break;
+			case PROCESSING_INSTRUCTION:
+				if (b == '>' && run == 1) {
+					state = TEXT;
+				}
+				run = (b == '?') ? 1 : 0;
+				break;
+			default:// the document type declaration.
+				if (quote != 0) {
+					if (b == quote) {
+						quote = 0;
+					}
+				} else if (b == '"' || b == '\'') {
+					quote = b;
+				} else if (b == '[') {
+					brackets++;
+				} else if (b == ']') {
+					brackets--;
+				} else if (b == '>' && brackets == 0) {
+					state = TEXT;
+				}
+			}
+			position++;
+		}
+	}
+
+	// returns the kind of markup starting at the '<' or -1 if more bytes are
+	// needed to tell.
+	private int classify(ByteBuffer bytes, int start, int limit) {
+		if (start + 1 >= limit) {
+			return -1;
+		}
+		switch (bytes.get(start + 1)) {
+		case '/':
+			return END_TAG;
+		case '?':
+			return PROCESSING_INSTRUCTION;
+		case '!':
+			if (startsWith(bytes, start, limit, COMMENT_START)) {
+				return (start + COMMENT_START.length <= limit) ? COMMENT : -1;
+			}
+			if (startsWith(bytes, start, limit, CDATA_START)) {
+				return (start + CDATA_START.length <= limit) ? CDATA : -1;
+			}
+			return DECLARATION;
+		default:
+			return START_TAG;
+		}
+	}
+
+	// true if the available bytes match the beginning of the prefix.
+	private boolean startsWith(ByteBuffer bytes, int start, int limit,
+			byte[] prefix) {
+		for (int i = 0; i < prefix.length && start + i < limit; i++) {
+			if (bytes.get(start + i) != prefix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void startTag(ByteBuffer bytes, int end) throws Exception {
+		boolean empty = bytes.get(end - 2) == '/';
+		int nameEnd = tokenStart + 1;
+		int localName = nameEnd;
+		while (nameEnd < end) {
+			byte b = bytes.get(nameEnd);
+			if (b == '>' || b == '/' || b == ' ' || b == '\t' || b == '\n'
+					|| b == '\r') {
+				break;
+			}
+			if (b == ':') {
+				localName = nameEnd + 1;
+			}
+			nameEnd++;
+		}
+
+		if (depth == 0) {
+			readNamespaces(bytes, nameEnd, end);
+			listener.rootStart(tokenStart, end, nameEnd);
+			if (empty) {
+				finished = true;
+				listener.rootEnd(end, end);
+			} else {
+				depth = 1;
+			}
+			return;
+		}
+		if (depth == 1 && isEntry(bytes, localName, nameEnd)
+				&& isAtom(bytes, localName, nameEnd, end)) {
+			listener.entryStart(tokenStart);
+			if (empty) {
+				listener.entryEnd(end);
+				return;
+			}
+			inEntry = true;
+		}
+		if (!empty) {
+			depth++;
+		}
+	}
+
+	private void endTag(int end) throws Exception {
+		depth--;
+		if (depth == 1 && inEntry) {
+			inEntry = false;
+			listener.entryEnd(end);
+		} else if (depth == 0) {
+			finished = true;
+			listener.rootEnd(tokenStart, end);
+		}
+	}
+
+	private boolean isEntry(ByteBuffer bytes, int start, int end) {
+		if (end - start != ENTRY.length) {
+			return false;
+		}
+		for (int i = 0; i < ENTRY.length; i++) {
+			if (bytes.get(start + i) != ENTRY[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// true if the prefix of the element is bound to the atom namespace or to
+	// none.
+	private boolean isAtom(ByteBuffer bytes, int localName, int nameEnd,
+			int end) {
+		String prefix = (localName == tokenStart + 1) ? "" : text(bytes,
+				tokenStart + 1, localName - 1);
+		String uri = namespace(bytes, nameEnd, end, prefix);
+		if (uri == null) {
+			if (!rootNamespaces.containsKey(prefix)) {
+				// an unbound prefix is left to the parser to report.
+				return prefix.length() == 0;
+			}
+			uri = rootNamespaces.get(prefix);
+		}
+		return uri.length() == 0 || uri.equals(ATOM_NAMESPACE);
+	}
+
+	// keeps the namespace declarations of the root start tag.
+	private void readNamespaces(ByteBuffer bytes, int from, int end) {
+		int[] attribute = new int[4];
+		int position = from;
+		while ((position = nextAttribute(bytes, position, end,
+				attribute)) != -1) {
+			String prefix = declaredPrefix(bytes, attribute);
+			if (prefix != null) {
+				rootNamespaces.put(prefix, text(bytes, attribute[2],
+						attribute[3]));
+			}
+		}
+	}
+
+	// returns the namespace the start tag itself binds the prefix to or null.
+	private String namespace(ByteBuffer bytes, int from, int end,
+			String prefix) {
+		int[] attribute = new int[4];
+		int position = from;
+		while ((position = nextAttribute(bytes, position, end,
+				attribute)) != -1) {
+			if (prefix.equals(declaredPrefix(bytes, attribute))) {
+				return text(bytes, attribute[2], attribute[3]);
+			}
+		}
+		return null;
+	}
+
+	// the prefix a namespace declaration binds, "" for the default namespace
+	// or null if the attribute is not a namespace declaration.
+	private String declaredPrefix(ByteBuffer bytes, int[] attribute) {
+		int start = attribute[0];
+		int length = attribute[1] - start;
+		if (length < XMLNS.length) {
+			return null;
+		}
+		for (int i = 0; i < XMLNS.length; i++) {
+			if (bytes.get(start + i) != XMLNS[i]) {
+				return null;
+			}
+		}
+		if (length == XMLNS.length) {
+			return "";
+		}
+		return (bytes.get(start + XMLNS.length) == ':') ? text(bytes, start
+				+ XMLNS.length + 1, attribute[1]) : null;
+	}
+
+	// finds the next attribute of a start tag and puts the offsets of its
+	// name and value in the array. returns the offset after the attribute or
+	// -1 if there is none.
+	private int nextAttribute(ByteBuffer bytes, int position, int end,
+			int[] attribute) {
+		// the tag ends with '>' or "/>".
+		end--;
+		while (position < end && isSpace(bytes.get(position))) {
+			position++;
+		}
+		if (position >= end || bytes.get(position) == '/') {
+			return -1;
+		}
+		attribute[0] = position;
+		while (position < end && bytes.get(position) != '='
+				&& !isSpace(bytes.get(position))) {
+			position++;
+		}
+		attribute[1] = position;
+		while (position < end && bytes.get(position) != '"'
+				&& bytes.get(position) != '\'') {
+			position++;
+		}
+		if (position >= end) {
+			return -1;
+		}
+		byte quote = bytes.get(position++);
+		attribute[2] = position;
+		while (position < end && bytes.get(position) != quote) {
+			position++;
+		}
+		attribute[3] = position;
+		return position + 1;
+	}
+
+	private static boolean isSpace(byte b) {
+		return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+	}
+
+	// namespace names and prefixes are compared as the bytes they are
+	// written with.
+	private static String text(ByteBuffer bytes, int start, int end) {
+		char[] chars = new char[end - start];
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = (char) (bytes.get(start + i) & 0xFF);
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * @param bytes
+	 *            the first bytes of a document.
+	 * @param limit
+	 *            the offset after the last byte available.
+	 * @return false if the document starts with a UTF-16 or UTF-32 byte order
+	 *         mark or a zero byte, which this scanner cannot read.
+	 */
+	static boolean canScan(ByteBuffer bytes, int limit) {
+		if (limit < 2) {
+			return true;
+		}
+		byte first = bytes.get(0);
+		byte second = bytes.get(1);
+		return !((first == (byte) 0xFE && second == (byte) 0xFF)
+				|| (first == (byte) 0xFF && second == (byte) 0xFE)
+				|| first == 0 || second == 0);
+	}
+
+	/**
+	 * stops the scan. Further calls to <code>scan</code> do nothing.
+	 */
+	void finish() {
+		finished = true;
+	}
+
+	/**
+	 * @return true if the root element was closed or the scan was stopped.
+	 */
+	boolean isFinished() {
+		return finished;
+	}
+
+	/**
+	 * @return the first offset the scanner still needs to see again, either
+	 *         the start of an unfinished markup token or the next offset to
+	 *         scan.
+	 */
+	int getPending() {
+		return (state == TEXT) ? position : tokenStart;
+	}
+
+	/**
+	 * moves the offsets of the scanner after the bytes it has seen have been
+	 * shifted to the front of the buffer.
+	 *
+	 * @param count
+	 *            the number of bytes dropped from the front of the buffer.
+	 */
+	void shift(int count) {
+		position -= count;
+		tokenStart -= count;
+	}
+}
@@ -0,0 +1,285 @@
+/**
+ * Copyright 2011 Bill Brown
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.colorfulsoftware.atom;
+
+import java.util.List;
+
+/**
+ * This class collects the elements of an Entry and checks them against the
+ * specification once, when the Entry is built. Setting an element does no
+ * checking, so an Entry can be changed by setting the one element that
+ * differs. A builder is not thread safe and can be used to build more than
+ * one Entry.
+ *
+ * @see FeedDoc#newEntryBuilder()
+ * @see FeedDoc#newEntryBuilder(Entry)
+ * @author Bill Brown
+ *
+ */
+public final class EntryBuilder {
+
+	private Id id;
+	private Title title;
+	private Updated updated;
+	private Rights rights;
+	private Content content;
+	private List<Author> authors;
+	private List<Category> categories;
+	private List<Contributor> contributors;
+	private List<Link> links;
+	private List<Attribute> attributes;
+	private List<Extension> extensions;
+	private Published published;
+	private Summary summary;
+	private Source source;
+
+	// use the factory method in the FeedDoc.
+	EntryBuilder() {
+	}
+
+	// use the factory method in the FeedDoc.
+	EntryBuilder(Entry entry) {
+		this.id = entry.getId();
+		this.title = entry.getTitle();
+		this.updated = entry.getUpdated();
+		this.rights = entry.getRights();
+		this.content = entry.getContent();
+		this.authors = FeedBuilder.copy(entry.getAuthors());
+		this.categories = FeedBuilder.copy(entry.getCategories());
+		this.contributors = FeedBuilder.copy(entry.getContributors());
+		this.links = FeedBuilder.copy(entry.getLinks());
+		this.attributes = FeedBuilder.copy(entry.getAttributes());
+		this.extensions = FeedBuilder.copy(entry.getExtensions());
+		this.published = entry.getPublished();
+		this.summary = entry.getSummary();
+		this.source = entry.getSource();
+	}
+
+	/**
+	 * @param id
+	 *            the unique id element (required)
+	 * @return this builder.
+	 */
+	public EntryBuilder setId(Id id) {
+		this.id = id;
+		return this;
+	}
+
+	/**
+	 * @param title
+	 *            the title element (required)
+	 * @return this builder.
+	 */
+	public EntryBuilder setTitle(Title title) {
+		this.title = title;
+		return this;
+	}
+
+	/**
+	 * @param updated
+	 *            the updated element (required)
+	 * @return this builder.
+	 */
+	public EntryBuilder setUpdated(Updated updated) {
+		this.updated = updated;
+		return this;
+	}
+
+	/**
+	 * @param rights
+	 *            the rights element (optional)
+	 * @return this builder.
+	 */
+	public EntryBuilder setRights(Rights rights) {
+		this.rights = rights;
+		return this;
+	}
+
+	/**
+	 * @param content
+	 *            the content element (optional)
+	 * @return this builder.
+	 */
+	public EntryBuilder setContent(Content content) {
+		this.content = content;
+		return this;
+	}
+
+	/**
+	 * @param authors
+	 *            a list of author elements (optional)
+	 * @return this builder.
+	 */
+	public EntryBuilder setAuthors(List<Author> authors) {
+		this.authors = FeedBuilder.copy(authors);
+		return this;
+	}
+
+	/**
+	 * @param author
+	 *            an author element to add.
+	 * @return this builder.
+	 */
+	public EntryBuilder addAuthor(Author author) {
+		this.authors = FeedBuilder.add(this.authors, author);
+		return this;
+	}
+
+	/**
+	 * @param categories
+	 *            a list of category elements (optional)
+	 * @return this builder.
+	 */
+	public EntryBuilder setCategories(List<Category> categories) {
+		this.categories = FeedBuilder.copy(categories);
+		return this;
+	}
+
+	/**
+	 * @param category
+	 *            a category element to add.
+	 * @return this builder.
+	 */
+	public EntryBuilder addCategory(Category category) {
+		this.categories = FeedBuilder.add(this.categories, category);
+		return this;
+	}
+
+	/**
+	 * @param contributors
+	 *            a list of contributor elements (optional)
+	 * @return this builder.
+	 */
+	public EntryBuilder setContributors(List<Contributor> contributors) {
+		this.contributors = FeedBuilder.copy(contributors);
+		return this;
+	}
+
+	/**
+	 * @param contributor
+	 *            a contributor element to add.
+	 * @return this builder.
+	 */
+	public EntryBuilder addContributor(Contributor contributor) {
+		this.contributors = FeedBuilder.add(this.contributors, contributor);
+		return this;
+	}
+
+	/**
+	 * @param links
+	 *            a list of link elements (optional)
+	 * @return this builder.
+	 */
+	public EntryBuilder setLinks(List<Link> links) {
+		this.links = FeedBuilder.copy(links);
+		return this;
+	}
+
+	/**
+	 * @param link
+	 *            a link element to add.
+	 * @return this builder.
+	 */
+	public EntryBuilder addLink(Link link) {
+		this.links = FeedBuilder.add(this.links, link);
+		return this;
+	}
+
+	/**
+	 * @param attributes
+	 *            additional attributes (optional)
+	 * @return this builder.
+	 */
+	public EntryBuilder setAttributes(List<Attribute> attributes) {
+		this.attributes = FeedBuilder.copy(attributes);
+		return this;
+	}
+
+	/**
+	 * @param attribute
+	 *            an attribute to add.
+	 * @return this builder.
+	 */
+	public EntryBuilder addAttribute(Attribute attribute) {
+		this.attributes = FeedBuilder.add(this.attributes, attribute);
+		return this;
+	}
+
+	/**
+	 * @param extensions
+	 *            a list of extension elements (optional)
+	 * @return this builder.
+	 */
+	public EntryBuilder setExtensions(List<Extension> extensions) {
+		this.extensions = FeedBuilder.copy(extensions);
+		return this;
+	}
+
+	/**
+	 * @param extension
+	 *            an extension element to add.
+	 * @return this builder.
+	 */
+	public EntryBuilder addExtension(Extension extension) {
+		this.extensions = FeedBuilder.add(this.extensions, extension);
+		return this;
+	}
+
+	/**
+	 * @param published
+	 *            the published element (optional)
+	 * @return this builder.
+	 */
+	public EntryBuilder setPublished(Published published) {
+		this.published = published;
+		return this;
+	}
+
+	/**
+	 * @param summary
+	 *            the summary element (optional)
+	 * @return this builder.
+	 */
+	public EntryBuilder setSummary(Summary summary) {
+		this.summary = summary;
+		return this;
+	}
+
+	/**
+	 * @param source
+	 *            the source element (optional)
+	 * @return this builder.
+	 */
+	public EntryBuilder setSource(Source source) {
+		this.source = source;
+		return this;
+	}
+
+	/**
+	 * checks the elements against the specification and builds the Entry.
+	 *
+	 * @return an immutable Entry object.
+	 * @throws AtomSpecException
+	 *             if the data violates the <a href=
+	 *             "http://atomenabled.org/developers/syndication/atom-format-spec.php"
+	 *             >specification</a>.
+	 */
+	public Entry build() throws AtomSpecException {
+		return new Entry(id, title, updated, rights, content, authors, categories,
+				contributors, links, attributes, extensions, published,
+				summary, source);
+	}
+}
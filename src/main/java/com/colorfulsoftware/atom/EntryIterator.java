@@ -0,0 +1,142 @@
+/**
+ * Copyright 2011 Bill Brown
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.colorfulsoftware.atom;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * This class iterates over the entry elements of an atom document as they are
+ * read from the underlying stream. Each entry is handed back as soon as its
+ * closing tag has been read so only one entry is held in memory at a time.
+ *
+ * Feed level elements are skipped and the entries are returned in document
+ * order. The feed level sort extension is therefore not applied. Obtain
+ * instances from the FeedDoc <code>readEntries</code> methods.
+ *
+ * @author Bill Brown
+ *
+ */
+public class EntryIterator implements Iterator<Entry>, Closeable {
+
+	private final FeedReader feedReader;
+	private final XMLStreamReader reader;
+	// the document stream that frees the decompressor when it is closed.
+	private final InputStream document;
+	// the stream opened by the FeedDoc on behalf of the caller (if any).
+	private final InputStream inputStream;
+	private Entry next;
+	private boolean done;
+
+	// use the factory methods in the FeedDoc.
+	EntryIterator(FeedReader feedReader, XMLStreamReader reader,
+			InputStream document, InputStream inputStream) {
+		this.feedReader = feedReader;
+		this.reader = reader;
+		this.document = document;
+		this.inputStream = inputStream;
+	}
+
+	/**
+	 * @return true if there is another entry in the document.
+	 * @throws IllegalStateException
+	 *             wrapping the underlying exception if the next entry cannot
+	 *             be parsed.
+	 */
+	public boolean hasNext() {
+		if (next == null && !done) {
+			try {
+				next = feedReader.readNextEntry(reader);
+				if (next == null) {
+					close();
+				}
+			} catch (Exception e) {
+				closeQuietly();
+				throw new IllegalStateException(
+						"The next atom entry could not be read.", e);
+			}
+		}
+		return next != null;
+	}
+
+	/**
+	 * @return the next entry in the document.
+	 * @throws NoSuchElementException
+	 *             if there are no more entries.
+	 */
+	public Entry next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException(
+					"There are no more atom entries in the document.");
+		}
+		Entry entry = next;
+		next = null;
+		return entry;
+	}
+
+	/**
+	 * Entries cannot be removed from the underlying document.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always.
+	 */
+	public void remove() {
+		throw new UnsupportedOperationException(
+				"Entries cannot be removed from an atom document stream.");
+	}
+
+	/**
+	 * Stops reading the document and releases the underlying reader. Streams
+	 * opened by the FeedDoc on behalf of the caller are closed as well.
+	 *
+	 * @throws IOException
+	 *             if the underlying resources cannot be closed.
+	 */
+	public void close() throws IOException {
+		if (done) {
+			return;
+		}
+		done = true;
+		next = null;
+		try {
+			reader.close();
+		} catch (XMLStreamException e) {
+			throw new IOException(e.getMessage(), e);
+		} finally {
+			try {
+				document.close();
+			} finally {
+				if (inputStream != null) {
+					inputStream.close();
+				}
+			}
+		}
+	}
+
+	private void closeQuietly() {
+		try {
+			close();
+		} catch (IOException e) {
+			// the original parsing exception is more relevant.
+		}
+	}
+}
@@ -22,7 +22,6 @@
 package com.colorfulsoftware.atom;
 
 import java.io.Serializable;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -55,7 +54,7 @@ public class Extension implements Serializable {
 	 */
 	private static final long serialVersionUID = 7382104018423864548L;
 	private final String elementName;
-	private final List<Attribute> attributes;
+	private final AttributeList attributes;
 	private final String content;
 	private final String namespacePrefix;
 
@@ -66,14 +65,7 @@ public class Extension implements Serializable {
 		this.elementName = elementName;
 		this.content = content;
 
-		if (attributes == null) {
-			this.attributes = null;
-		} else {
-			this.attributes = new LinkedList<Attribute>();
-			for (Attribute attr : attributes) {
-				this.attributes.add(new Attribute(attr));
-			}
-		}
+		this.attributes = AttributeList.of(attributes);
 
 		if (elementName == null
 				|| elementName.equals("")
@@ -103,7 +95,7 @@ public class Extension implements Serializable {
 	// copy constructor
 	Extension(Extension extension) {
 		this.elementName = extension.elementName;
-		this.attributes = extension.getAttributes();
+		this.attributes = extension.attributes;
 		this.content = extension.content;
 		this.namespacePrefix = extension.namespacePrefix;
 	}
@@ -113,14 +105,7 @@ public class Extension implements Serializable {
 	 * @return the category attribute list.
 	 */
 	public List<Attribute> getAttributes() {
-
-		List<Attribute> attrsCopy = new LinkedList<Attribute>();
-		if (this.attributes != null) {
-			for (Attribute attr : this.attributes) {
-				attrsCopy.add(new Attribute(attr));
-			}
-		}
-		return (this.attributes == null) ? null : attrsCopy;
+		return attributes;
 	}
 
 	/**
@@ -143,14 +128,8 @@ public class Extension implements Serializable {
 	 * @return the Attribute object if attrName matches or null if not found.
 	 */
 	public Attribute getAttribute(String attrName) {
-		if (this.attributes != null) {
-			for (Attribute attribute : this.attributes) {
-				if (attribute.getName().equals(attrName)) {
-					return new Attribute(attribute);
-				}
-			}
-		}
-		return null;
+		return (attributes == null) ? null : attributes
+				.getAttribute(attrName);
 	}
 
 	/**
@@ -29,7 +29,9 @@ import java.util.LinkedList;
 import java.util.List;
 
 /**
- * This class represents an Atom 1.0 feed element.
+ * This class represents an Atom 1.0 feed element. The feed is immutable, so
+ * its getters hand out the elements it was built with instead of copies and
+ * its lists are unmodifiable views.
  * 
  * @see <a
  *      href="http://www.atomenabled.org/developers/syndication/atom-format-spec.php">Atom
@@ -70,7 +72,7 @@ public class Feed implements Serializable {
 	private final Icon icon;
 	private final Logo logo;
 	private final Subtitle subtitle;
-	private final List<Entry> entries;
+	private final PersistentList<Entry> entries;
 
 	// extra processing fields
 	private List<String> unboundPrefixes;
@@ -103,10 +105,10 @@ public class Feed implements Serializable {
 				rights, authors, categories, contributors, links, attributes,
 				extensions);
 
-		this.generator = (generator == null) ? null : new Generator(generator);
-		this.subtitle = (subtitle == null) ? null : new Subtitle(subtitle);
-		this.icon = (icon == null) ? null : new Icon(icon);
-		this.logo = (logo == null) ? null : new Logo(logo);
+		this.generator = generator;
+		this.subtitle = subtitle;
+		this.icon = icon;
+		this.logo = logo;
 
 		// check that the extension prefixes are bound to a namespace
 		this.unboundPrefixes = new LinkedList<String>();
@@ -155,36 +157,52 @@ public class Feed implements Serializable {
 			}
 		} else {
 
-			this.entries = new LinkedList<Entry>();
+			this.entries = PersistentList.of(entries);
 
-			for (Entry entry : entries) {
-				// check that the entry unbound prefixes are ok.
-				if (entry.getUnboundPrefixes() != null) {
-					for (String unboundPrefix : entry.getUnboundPrefixes()) {
-						if (sourceAdaptor
-								.getAttribute("xmlns:" + unboundPrefix) == null) {
-							this.unboundPrefixes.addAll(entry
-									.getUnboundPrefixes());
-						}
-					}
-				}
-				// if there is no author element at the feed level
-				// check to make sure the entry has an author element
-				if (sourceAdaptor.getAuthors() == null
-						&& entry.getAuthors() == null) {
-					throw new AtomSpecException(
-							"atom:feed elements MUST contain one or more atom:author elements, unless all of the atom:feed element's child atom:entry elements contain at least one atom:author element.");
+			for (Entry entry : this.entries) {
+				checkEntry(entry, this.unboundPrefixes);
+			}
+		}
 
-				}
+		checkUnboundPrefixes(this.unboundPrefixes);
+	}
+
+	// used by the with methods to share everything but the entries.
+	private Feed(Feed feed, PersistentList<Entry> entries) {
+		this.sourceAdaptor = feed.sourceAdaptor;
+		this.generator = feed.generator;
+		this.subtitle = feed.subtitle;
+		this.icon = feed.icon;
+		this.logo = feed.logo;
+		this.unboundPrefixes = feed.unboundPrefixes;
+		this.entries = entries;
+	}
 
-				this.entries.add(new Entry(entry));
+	private void checkEntry(Entry entry, List<String> unboundPrefixes)
+			throws AtomSpecException {
+		// check that the entry unbound prefixes are ok.
+		if (entry.getUnboundPrefixes() != null) {
+			for (String unboundPrefix : entry.getUnboundPrefixes()) {
+				if (sourceAdaptor.getAttribute("xmlns:" + unboundPrefix) == null) {
+					unboundPrefixes.addAll(entry.getUnboundPrefixes());
+				}
 			}
 		}
+		// if there is no author element at the feed level
+		// check to make sure the entry has an author element
+		if (sourceAdaptor.getAuthors() == null && entry.getAuthors() == null) {
+			throw new AtomSpecException(
+					"atom:feed elements MUST contain one or more atom:author elements, unless all of the atom:feed element's child atom:entry elements contain at least one atom:author element.");
+
+		}
+	}
 
-		// if there are any unbound prefixes, throw an exception
-		if (this.unboundPrefixes.size() > 0) {
+	// if there are any unbound prefixes, throw an exception
+	private static void checkUnboundPrefixes(List<String> unboundPrefixes)
+			throws AtomSpecException {
+		if (unboundPrefixes.size() > 0) {
 			StringBuilder sb = new StringBuilder();
-			for (String namePrefix : this.unboundPrefixes) {
+			for (String namePrefix : unboundPrefixes) {
 				sb.append(namePrefix + " ");
 			}
 			throw new AtomSpecException(
@@ -192,22 +210,92 @@ public class Feed implements Serializable {
 							+ sb
 							+ ") are not bound to a namespace declaration. See http://www.w3.org/TR/1999/REC-xml-names-19990114/#ns-decl.");
 		}
+	}
 
+	/**
+	 * Only the new entry is checked against the specification and the
+	 * existing entries are shared with this feed, so adding an entry takes
+	 * O(log n) time. The entry is added after the others; a sort extension of
+	 * the feed is applied when it is written.
+	 *
+	 * @param entry
+	 *            the entry to add.
+	 * @return a feed with the entry added after the entries of this one.
+	 * @throws AtomSpecException
+	 *             if the entry violates the <a href=
+	 *             "http://atomenabled.org/developers/syndication/atom-format-spec.php"
+	 *             >specification</a> for an entry of this feed.
+	 */
+	public Feed withEntry(Entry entry) throws AtomSpecException {
+		if (entry == null) {
+			throw new AtomSpecException("The atom entry object cannot be null.");
+		}
+		List<String> entryPrefixes = new LinkedList<String>();
+		checkEntry(entry, entryPrefixes);
+		checkUnboundPrefixes(entryPrefixes);
+		return new Feed(this, ((entries == null) ? PersistentList
+				.<Entry> empty() : entries).plus(entry));
 	}
 
 	/**
-	 * @return the list of entry elements. Sorted by updated descending by
-	 *         default.
+	 * adds several entries as withEntry() does.
+	 *
+	 * @param entries
+	 *            the entries to add in order.
+	 * @return a feed with the entries added after the entries of this one.
+	 * @throws AtomSpecException
+	 *             if one of the entries violates the <a href=
+	 *             "http://atomenabled.org/developers/syndication/atom-format-spec.php"
+	 *             >specification</a> for an entry of this feed.
 	 */
-	public List<Entry> getEntries() {
-		if (entries == null) {
-			return null;
+	public Feed withEntries(List<Entry> entries) throws AtomSpecException {
+		PersistentList<Entry> added = (this.entries == null) ? PersistentList
+				.<Entry> empty() : this.entries;
+		List<String> entryPrefixes = new LinkedList<String>();
+		for (Entry entry : entries) {
+			if (entry == null) {
+				throw new AtomSpecException(
+						"The atom entry object cannot be null.");
+			}
+			checkEntry(entry, entryPrefixes);
+			added = added.plus(entry);
+		}
+		checkUnboundPrefixes(entryPrefixes);
+		return new Feed(this, added);
+	}
+
+	/**
+	 * The entries are found by comparing their ids without allocating, and
+	 * taking each one out takes O(log n) time while the other entries are
+	 * shared with this feed.
+	 *
+	 * @param id
+	 *            the id of the entries to take out.
+	 * @return a feed without the entries that have the id or this feed if
+	 *         none of its entries have it.
+	 */
+	public Feed withoutEntry(Id id) {
+		if (entries == null || id == null) {
+			return this;
 		}
-		List<Entry> entriesCopy = new LinkedList<Entry>();
-		for (Entry entry : this.entries) {
-			entriesCopy.add(new Entry(entry));
+		PersistentList<Entry> remaining = entries;
+		int index = 0;
+		for (Entry entry : entries) {
+			if (entry.getId().getAtomUri().equals(id.getAtomUri())) {
+				remaining = remaining.minus(index);
+			} else {
+				index++;
+			}
 		}
-		return entriesCopy;
+		return (remaining == entries) ? this : new Feed(this, remaining);
+	}
+
+	/**
+	 * @return the unmodifiable list of entry elements. Sorted by updated
+	 *         descending by default.
+	 */
+	public List<Entry> getEntries() {
+		return entries;
 	}
 
 	/**
@@ -215,7 +303,7 @@ public class Feed implements Serializable {
 	 * @return the generator for this element.
 	 */
 	public Generator getGenerator() {
-		return (generator == null) ? null : new Generator(generator);
+		return generator;
 	}
 
 	/**
@@ -223,7 +311,7 @@ public class Feed implements Serializable {
 	 * @return the icon for this element.
 	 */
 	public Icon getIcon() {
-		return (icon == null) ? null : new Icon(icon);
+		return icon;
 	}
 
 	/**
@@ -231,7 +319,7 @@ public class Feed implements Serializable {
 	 * @return the logo for this element.
 	 */
 	public Logo getLogo() {
-		return (logo == null) ? null : new Logo(logo);
+		return logo;
 	}
 
 	/**
@@ -239,7 +327,7 @@ public class Feed implements Serializable {
 	 * @return the subtitle for this element.
 	 */
 	public Subtitle getSubtitle() {
-		return (subtitle == null) ? null : new Subtitle(subtitle);
+		return subtitle;
 	}
 
 	/**
@@ -367,7 +455,7 @@ public class Feed implements Serializable {
 		if (this.entries != null) {
 			for (Entry entry : this.entries) {
 				if (entry.getTitle().getText().equals(entryTitle)) {
-					return new Entry(entry);
+					return entry;
 				}
 			}
 		}
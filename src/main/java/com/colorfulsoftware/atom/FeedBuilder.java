@@ -0,0 +1,383 @@
+/**
+ * Copyright 2011 Bill Brown
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.colorfulsoftware.atom;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class collects the elements of a Feed and checks them against the
+ * specification once, when the Feed is built. Setting an element does no
+ * checking and no copying of the elements themselves, so a Feed read from a
+ * document can be changed by setting the one element that differs instead of
+ * rebuilding it through <code>FeedDoc.buildFeed</code> more than once.
+ *
+ * A builder is not thread safe and can be used to build more than one Feed.
+ * Lists handed to the builder are copied so changing them afterwards does not
+ * change the builder.
+ *
+ * @see FeedDoc#newFeedBuilder()
+ * @see FeedDoc#newFeedBuilder(Feed)
+ * @author Bill Brown
+ *
+ */
+public final class FeedBuilder {
+
+	private Id id;
+	private Title title;
+	private Updated updated;
+	private Rights rights;
+	private List<Author> authors;
+	private List<Category> categories;
+	private List<Contributor> contributors;
+	private List<Link> links;
+	private List<Attribute> attributes;
+	private List<Extension> extensions;
+	private Generator generator;
+	private Subtitle subtitle;
+	private Icon icon;
+	private Logo logo;
+	private List<Entry> entries;
+
+	// use the factory method in the FeedDoc.
+	FeedBuilder() {
+	}
+
+	// used by the FeedReader to hand over the lists it made.
+	FeedBuilder(Id id, Title title, Updated updated, Rights rights,
+			List<Author> authors, List<Category> categories,
+			List<Contributor> contributors, List<Link> links,
+			List<Attribute> attributes, List<Extension> extensions,
+			Generator generator, Subtitle subtitle, Icon icon, Logo logo,
+			List<Entry> entries) {
+		this.id = id;
+		this.title = title;
+		this.updated = updated;
+		this.rights = rights;
+		this.authors = authors;
+		this.categories = categories;
+		this.contributors = contributors;
+		this.links = links;
+		this.attributes = attributes;
+		this.extensions = extensions;
+		this.generator = generator;
+		this.subtitle = subtitle;
+		this.icon = icon;
+		this.logo = logo;
+		this.entries = entries;
+	}
+
+	// use the factory method in the FeedDoc.
+	FeedBuilder(Feed feed) {
+		this.id = feed.getId();
+		this.title = feed.getTitle();
+		this.updated = feed.getUpdated();
+		this.rights = feed.getRights();
+		this.authors = copy(feed.getAuthors());
+		this.categories = copy(feed.getCategories());
+		this.contributors = copy(feed.getContributors());
+		this.links = copy(feed.getLinks());
+		this.attributes = copy(feed.getAttributes());
+		this.extensions = copy(feed.getExtensions());
+		this.generator = feed.getGenerator();
+		this.subtitle = feed.getSubtitle();
+		this.icon = feed.getIcon();
+		this.logo = feed.getLogo();
+		this.entries = copy(feed.getEntries());
+	}
+
+	/**
+	 * @param id
+	 *            the unique id element (required)
+	 * @return this builder.
+	 */
+	public FeedBuilder setId(Id id) {
+		this.id = id;
+		return this;
+	}
+
+	/**
+	 * @param title
+	 *            the title element (required)
+	 * @return this builder.
+	 */
+	public FeedBuilder setTitle(Title title) {
+		this.title = title;
+		return this;
+	}
+
+	/**
+	 * @param updated
+	 *            the updated element (required)
+	 * @return this builder.
+	 */
+	public FeedBuilder setUpdated(Updated updated) {
+		this.updated = updated;
+		return this;
+	}
+
+	/**
+	 * @param rights
+	 *            the rights element (optional)
+	 * @return this builder.
+	 */
+	public FeedBuilder setRights(Rights rights) {
+		this.rights = rights;
+		return this;
+	}
+
+	/**
+	 * @param authors
+	 *            a list of author elements (optional)
+	 * @return this builder.
+	 */
+	public FeedBuilder setAuthors(List<Author> authors) {
+		this.authors = copy(authors);
+		return this;
+	}
+
+	/**
+	 * @param author
+	 *            an author element to add.
+	 * @return this builder.
+	 */
+	public FeedBuilder addAuthor(Author author) {
+		this.authors = add(this.authors, author);
+		return this;
+	}
+
+	/**
+	 * @param categories
+	 *            a list of category elements (optional)
+	 * @return this builder.
+	 */
+	public FeedBuilder setCategories(List<Category> categories) {
+		this.categories = copy(categories);
+		return this;
+	}
+
+	/**
+	 * @param category
+	 *            a category element to add.
+	 * @return this builder.
+	 */
+	public FeedBuilder addCategory(Category category) {
+		this.categories = add(this.categories, category);
+		return this;
+	}
+
+	/**
+	 * @param contributors
+	 *            a list of contributor elements (optional)
+	 * @return this builder.
+	 */
+	public FeedBuilder setContributors(List<Contributor> contributors) {
+		this.contributors = copy(contributors);
+		return this;
+	}
+
+	/**
+	 * @param contributor
+	 *            a contributor element to add.
+	 * @return this builder.
+	 */
+	public FeedBuilder addContributor(Contributor contributor) {
+		this.contributors = add(this.contributors, contributor);
+		return this;
+	}
+
+	/**
+	 * @param links
+	 *            a list of link elements (optional)
+	 * @return this builder.
+	 */
+	public FeedBuilder setLinks(List<Link> links) {
+		this.links = copy(links);
+		return this;
+	}
+
+	/**
+	 * @param link
+	 *            a link element to add.
+	 * @return this builder.
+	 */
+	public FeedBuilder addLink(Link link) {
+		this.links = add(this.links, link);
+		return this;
+	}
+
+	/**
+	 * @param attributes
+	 *            additional attributes (optional)
+	 * @return this builder.
+	 */
+	public FeedBuilder setAttributes(List<Attribute> attributes) {
+		this.attributes = copy(attributes);
+		return this;
+	}
+
+	/**
+	 * @param attribute
+	 *            an attribute to add.
+	 * @return this builder.
+	 */
+	public FeedBuilder addAttribute(Attribute attribute) {
+		this.attributes = add(this.attributes, attribute);
+		return this;
+	}
+
+	/**
+	 * @param extensions
+	 *            a list of extension elements (optional)
+	 * @return this builder.
+	 */
+	public FeedBuilder setExtensions(List<Extension> extensions) {
+		this.extensions = copy(extensions);
+		return this;
+	}
+
+	/**
+	 * @param extension
+	 *            an extension element to add.
+	 * @return this builder.
+	 */
+	public FeedBuilder addExtension(Extension extension) {
+		this.extensions = add(this.extensions, extension);
+		return this;
+	}
+
+	/**
+	 * @param generator
+	 *            the generator element (optional)
+	 * @return this builder.
+	 */
+	public FeedBuilder setGenerator(Generator generator) {
+		this.generator = generator;
+		return this;
+	}
+
+	/**
+	 * @param subtitle
+	 *            the subtitle element (optional)
+	 * @return this builder.
+	 */
+	public FeedBuilder setSubtitle(Subtitle subtitle) {
+		this.subtitle = subtitle;
+		return this;
+	}
+
+	/**
+	 * @param icon
+	 *            the icon element (optional)
+	 * @return this builder.
+	 */
+	public FeedBuilder setIcon(Icon icon) {
+		this.icon = icon;
+		return this;
+	}
+
+	/**
+	 * @param logo
+	 *            the logo element (optional)
+	 * @return this builder.
+	 */
+	public FeedBuilder setLogo(Logo logo) {
+		this.logo = logo;
+		return this;
+	}
+
+	/**
+	 * @param entries
+	 *            a list of entry elements (optional)
+	 * @return this builder.
+	 */
+	public FeedBuilder setEntries(List<Entry> entries) {
+		this.entries = copy(entries);
+		return this;
+	}
+
+	/**
+	 * @param entry
+	 *            an entry element to add.
+	 * @return this builder.
+	 */
+	public FeedBuilder addEntry(Entry entry) {
+		this.entries = add(this.entries, entry);
+		return this;
+	}
+
+	/**
+	 * checks the elements against the specification and builds the Feed.
+	 *
+	 * @return an immutable Feed object.
+	 * @throws AtomSpecException
+	 *             if the data violates the <a href=
+	 *             "http://atomenabled.org/developers/syndication/atom-format-spec.php"
+	 *             >specification</a>.
+	 */
+	public Feed build() throws AtomSpecException {
+		return new Feed(id, title, updated, rights, authors, categories,
+				contributors, links, attributes, extensions, generator,
+				subtitle, icon, logo, entries);
+	}
+
+	// the lists are handed out as they are for the extensions to work on.
+	List<Attribute> getAttributes() {
+		return attributes;
+	}
+
+	List<Extension> getExtensions() {
+		return extensions;
+	}
+
+	List<Entry> getEntries() {
+		return entries;
+	}
+
+	Attribute getAttribute(String attrName) {
+		if (attributes != null) {
+			for (Attribute attribute : attributes) {
+				if (attribute.getName().equals(attrName)) {
+					return attribute;
+				}
+			}
+		}
+		return null;
+	}
+
+	Extension getExtension(String extName) {
+		if (extensions != null) {
+			for (Extension extension : extensions) {
+				if (extension.getElementName().equals(extName)) {
+					return extension;
+				}
+			}
+		}
+		return null;
+	}
+
+	static <T> List<T> copy(List<T> list) {
+		return (list == null) ? null : new ArrayList<T>(list);
+	}
+
+	static <T> List<T> add(List<T> list, T element) {
+		if (list == null) {
+			list = new ArrayList<T>();
+		}
+		list.add(element);
+		return list;
+	}
+}
@@ -15,22 +15,41 @@
  */
 package com.colorfulsoftware.atom;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.Reader;
 import java.io.Serializable;
+import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.lang.reflect.Constructor;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Properties;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.zip.DeflaterOutputStream;
 
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLOutputFactory;
@@ -56,61 +75,119 @@ public final class FeedDoc implements Serializable {
 	/**
 	 * the default document encoding of "UTF-8"
 	 */
-	private String encoding = System.getProperty("file.encoding");
+	private final String encoding = "UTF-8";
 
 	/**
 	 * the default XML version of "1.0"
 	 */
-	private String xmlVersion = "1.0";
-	private Generator libVersion;
+	private final String xmlVersion = "1.0";
+	private final Generator libVersion;
 
-	private Attribute langEn;
-	private Attribute atomBase;
+	private final Attribute langEn;
+	private final Attribute atomBase;
 
-	private XMLInputFactory inputFactory;
+	private final List<ProcessingInstruction> processingInstructions;
 
-	private List<ProcessingInstruction> processingInstructions;
+	private final ParserProfile profile;
+	// created from the profile on first use.
+	private transient volatile XMLInputFactory inputFactory;
+
+	// the size from which local files are memory mapped.
+	private static final long MAP_THRESHOLD = 1024 * 1024;
+
+	// loaded once from atomsphere.properties.
+	private static Generator sharedLibVersion;
 
 	/**
-	 * creates a new feed document.
+	 * creates a new feed document. A FeedDoc holds no state from the documents
+	 * it reads or writes so one instance can be shared between threads.
 	 * 
 	 * @throws Exception
 	 *             if the library version information cannot be loaded from the
 	 *             environment.
 	 */
 	public FeedDoc() throws Exception {
-
-		langEn = new Attribute("xml:lang", "en-US");
-		atomBase = new Attribute("xmlns", "http://www.w3.org/2005/Atom");
-
-		Properties props = new Properties();
-		props.load(FeedDoc.class.getResourceAsStream("/atomsphere.properties"));
-		List<Attribute> attributes = new LinkedList<Attribute>();
-		attributes.add(new Attribute("uri", props.getProperty("uri")));
-		attributes.add(new Attribute("version", props.getProperty("version")));
-		libVersion = buildGenerator(attributes, "Atomsphere");
-
-		inputFactory = XMLInputFactory.newInstance();
-		// this is done to help for parsing documents that have undeclared and
-		// unescaped html or xhtml entities.
-		inputFactory.setProperty(
-				"javax.xml.stream.isReplacingEntityReferences", Boolean.FALSE);
+		this(null);
 	}
 
 	/**
 	 * @param processingInstructions
-	 *            xml processing instructions.
+	 *            xml processing instructions written before the root element
+	 *            of every document.
 	 * @throws Exception
 	 *             if the library version information cannot be loaded from the
 	 *             environment.
 	 */
 	public FeedDoc(List<ProcessingInstruction> processingInstructions)
 			throws Exception {
-		this();
-		this.processingInstructions = processingInstructions;
+		this(processingInstructions, ParserProfile.DEFAULTS);
+	}
+
+	/**
+	 * @param processingInstructions
+	 *            xml processing instructions written before the root element
+	 *            of every document or null.
+	 * @param profile
+	 *            the StAX implementation and parser settings to read
+	 *            documents with.
+	 * @throws Exception
+	 *             if the library version information cannot be loaded from the
+	 *             environment or the StAX implementation is not available.
+	 */
+	public FeedDoc(List<ProcessingInstruction> processingInstructions,
+			ParserProfile profile) throws Exception {
+		this.profile = profile;
+		if (profile != ParserProfile.DEFAULTS) {
+			inputFactory = profile.newInputFactory();
+		}
+		langEn = new Attribute("xml:lang", "en-US");
+		atomBase = new Attribute("xmlns", "http://www.w3.org/2005/Atom");
+		libVersion = loadLibVersion();
+		this.processingInstructions = (processingInstructions == null) ? null
+				: Collections
+						.unmodifiableList(new LinkedList<ProcessingInstruction>(
+								processingInstructions));
+	}
+
+	private static synchronized Generator loadLibVersion() throws Exception {
+		if (sharedLibVersion == null) {
+			Properties props = new Properties();
+			props.load(FeedDoc.class
+					.getResourceAsStream("/atomsphere.properties"));
+			List<Attribute> attributes = new LinkedList<Attribute>();
+			attributes.add(new Attribute("uri", props.getProperty("uri")));
+			attributes.add(new Attribute("version", props
+					.getProperty("version")));
+			sharedLibVersion = new Generator(attributes, "Atomsphere");
+		}
+		return sharedLibVersion;
+	}
+
+	// the StAX factories are safe to share once they are configured so they
+	// are created once for all instances.
+	private static final class Factories {
+		static final XMLInputFactory INPUT = ParserProfile.DEFAULTS
+				.newInputFactory();
+		static final XMLOutputFactory OUTPUT = XMLOutputFactory.newInstance();
+	}
+
+	// the factory of the profile. a deserialized FeedDoc creates it again.
+	private XMLInputFactory inputFactory() {
+		if (profile == ParserProfile.DEFAULTS) {
+			return Factories.INPUT;
+		}
+		XMLInputFactory factory = inputFactory;
+		if (factory == null) {
+			factory = profile.newInputFactory();
+			inputFactory = factory;
+		}
+		return factory;
 	}
 
-	class ProcessingInstruction implements Serializable {
+	/**
+	 * An xml processing instruction from the prolog of an atom document.
+	 */
+	public static class ProcessingInstruction implements Serializable {
 		private final String target;
 		private final String data;
 		private static final long serialVersionUID = -4261298860522801834L;
@@ -151,8 +228,7 @@ public final class FeedDoc implements Serializable {
 	 * @param feed
 	 *            the atom feed object containing the content of the feed
 	 * @param encoding
-	 *            the file encoding (default is
-	 *            System.getProperty("file.encoding"))
+	 *            the file encoding (default is "UTF-8")
 	 * @param version
 	 *            the xml version (default is 1.0)
 	 * @throws Exception
@@ -161,7 +237,7 @@ public final class FeedDoc implements Serializable {
 	public void writeFeedDoc(OutputStream output, Feed feed, String encoding,
 			String version) throws Exception {
 		writeFeedDoc(
-				XMLOutputFactory.newInstance().createXMLStreamWriter(output,
+				Factories.OUTPUT.createXMLStreamWriter(output,
 						encoding), feed, encoding, version);
 	}
 
@@ -172,8 +248,7 @@ public final class FeedDoc implements Serializable {
 	 * @param entry
 	 *            the atom entry object containing the content.
 	 * @param encoding
-	 *            the file encoding (default is
-	 *            System.getProperty("file.encoding"))
+	 *            the file encoding (default is "UTF-8")
 	 * @param version
 	 *            the xml version (default is 1.0)
 	 * @throws Exception
@@ -182,10 +257,73 @@ public final class FeedDoc implements Serializable {
 	public void writeEntryDoc(OutputStream output, Entry entry,
 			String encoding, String version) throws Exception {
 		writeEntryDoc(
-				XMLOutputFactory.newInstance().createXMLStreamWriter(output,
+				Factories.OUTPUT.createXMLStreamWriter(output,
 						encoding), entry, encoding, version);
 	}
 
+	/**
+	 * This method writes a feed document compressed as it is written. The
+	 * output is not closed.
+	 * 
+	 * @param output
+	 *            the target output for the compressed feed document.
+	 * @param feed
+	 *            the atom feed object containing the content of the feed
+	 * @param encoding
+	 *            the file encoding (default is "UTF-8")
+	 * @param version
+	 *            the xml version (default is 1.0)
+	 * @param compression
+	 *            the compression format to write.
+	 * @throws Exception
+	 *             thrown if the feed cannot be written to the output
+	 */
+	public void writeFeedDoc(OutputStream output, Feed feed, String encoding,
+			String version, Compression compression) throws Exception {
+		DeflaterOutputStream compressed = compression.compress(output);
+		try {
+			OutputStream buffered = new BufferedOutputStream(compressed,
+					Compression.BUFFER_SIZE);
+			writeFeedDoc(buffered, feed, encoding, version);
+			buffered.flush();
+			compressed.finish();
+		} finally {
+			compressed.close();
+		}
+	}
+
+	/**
+	 * This method writes an entry document compressed as it is written. The
+	 * output is not closed.
+	 * 
+	 * @param output
+	 *            the target output for the compressed entry document.
+	 * @param entry
+	 *            the atom entry object containing the content.
+	 * @param encoding
+	 *            the file encoding (default is "UTF-8")
+	 * @param version
+	 *            the xml version (default is 1.0)
+	 * @param compression
+	 *            the compression format to write.
+	 * @throws Exception
+	 *             thrown if the atom document cannot be written to the output
+	 */
+	public void writeEntryDoc(OutputStream output, Entry entry,
+			String encoding, String version, Compression compression)
+			throws Exception {
+		DeflaterOutputStream compressed = compression.compress(output);
+		try {
+			OutputStream buffered = new BufferedOutputStream(compressed,
+					Compression.BUFFER_SIZE);
+			writeEntryDoc(buffered, entry, encoding, version);
+			buffered.flush();
+			compressed.finish();
+		} finally {
+			compressed.close();
+		}
+	}
+
 	/**
 	 * 
 	 * @param output
@@ -193,8 +331,7 @@ public final class FeedDoc implements Serializable {
 	 * @param feed
 	 *            the atom feed object containing the content of the feed
 	 * @param encoding
-	 *            the file encoding (default is
-	 *            System.getProperty("file.encoding"))
+	 *            the file encoding (default is "UTF-8")
 	 * @param version
 	 *            the xml version (default is 1.0)
 	 * @throws Exception
@@ -205,7 +342,7 @@ public final class FeedDoc implements Serializable {
 	public void writeFeedDoc(Writer output, Feed feed, String encoding,
 			String version) throws Exception {
 		writeFeedDoc(
-				XMLOutputFactory.newInstance().createXMLStreamWriter(output),
+				Factories.OUTPUT.createXMLStreamWriter(output),
 				feed, encoding, version);
 	}
 
@@ -216,8 +353,7 @@ public final class FeedDoc implements Serializable {
 	 * @param entry
 	 *            the atom entry object containing the content.
 	 * @param encoding
-	 *            the file encoding (default is
-	 *            System.getProperty("file.encoding"))
+	 *            the file encoding (default is "UTF-8")
 	 * @param version
 	 *            the xml version (default is 1.0)
 	 * @throws Exception
@@ -229,7 +365,7 @@ public final class FeedDoc implements Serializable {
 	public void writeEntryDoc(Writer output, Entry entry, String encoding,
 			String version) throws Exception {
 		writeEntryDoc(
-				XMLOutputFactory.newInstance().createXMLStreamWriter(output),
+				Factories.OUTPUT.createXMLStreamWriter(output),
 				entry, encoding, version);
 	}
 
@@ -250,8 +386,7 @@ public final class FeedDoc implements Serializable {
 	 * @param feed
 	 *            the atom feed object containing the content of the feed
 	 * @param encoding
-	 *            the file encoding (default is
-	 *            System.getProperty("file.encoding"))
+	 *            the file encoding (default is "UTF-8")
 	 * @param version
 	 *            the xml version (default is 1.0)
 	 * @throws Exception
@@ -259,7 +394,8 @@ public final class FeedDoc implements Serializable {
 	 */
 	public void writeFeedDoc(XMLStreamWriter output, Feed feed,
 			String encoding, String version) throws Exception {
-		writeFeedOutput(feed, output, encoding, version);
+		writeFeedOutput(feed, output, encoding, version,
+				processingInstructions);
 
 	}
 
@@ -271,8 +407,7 @@ public final class FeedDoc implements Serializable {
 	 * @param entry
 	 *            the atom entry object containing the content of the entry
 	 * @param encoding
-	 *            the file encoding (default is
-	 *            System.getProperty("file.encoding"))
+	 *            the file encoding (default is "UTF-8")
 	 * @param version
 	 *            the xml version (default is 1.0)
 	 * @throws Exception
@@ -326,27 +461,63 @@ public final class FeedDoc implements Serializable {
 			throw new AtomSpecException("The atom feed object cannot be null.");
 		}
 
+		return writeFeedString(feed, xmlStreamWriter, encoding, xmlVersion,
+				processingInstructions);
+	}
+
+	/**
+	 * This method writes the Feed element of a document that was read back to
+	 * an atom feed string with the encoding, xml version and processing
+	 * instructions of that document. See
+	 * <code>readFeedToString(Feed feed, String xmlStreamWriter)</code> for
+	 * the formatting.
+	 * 
+	 * @param document
+	 *            the document to be converted to an atom document string.
+	 * @param xmlStreamWriter
+	 *            the fully qualified XMLStreamWriter class name.
+	 * @return an atom feed document string.
+	 * @throws Exception
+	 *             thrown if the feed cannot be returned as a String
+	 */
+	public String readFeedDocumentToString(AtomDocument<Feed> document,
+			String xmlStreamWriter) throws Exception {
+
+		if (document == null || document.getRoot() == null) {
+			throw new AtomSpecException("The atom feed object cannot be null.");
+		}
+
+		return writeFeedString(document.getRoot(), xmlStreamWriter,
+				(document.getEncoding() == null) ? encoding : document
+						.getEncoding(),
+				(document.getXmlVersion() == null) ? xmlVersion : document
+						.getXmlVersion(), document.getProcessingInstructions());
+	}
+
+	private String writeFeedString(Feed feed, String xmlStreamWriter,
+			String encoding, String version,
+			List<ProcessingInstruction> processingInstructions) {
 		try {
 			StringWriter theString = new StringWriter();
 			if (xmlStreamWriter == null || xmlStreamWriter.equals("")) {
-				writeFeedOutput(feed, XMLOutputFactory.newInstance()
-						.createXMLStreamWriter(theString), encoding, xmlVersion);
+				writeFeedOutput(feed, Factories.OUTPUT
+						.createXMLStreamWriter(theString), encoding, version,
+						processingInstructions);
 			} else {
 				Class<?> cls = Class.forName(xmlStreamWriter);
 				Constructor<?> ct = cls
 						.getConstructor(new Class[] { XMLStreamWriter.class });
-				Object arglist[] = new Object[] { XMLOutputFactory
-						.newInstance().createXMLStreamWriter(theString) };
+				Object arglist[] = new Object[] { Factories.OUTPUT
+						.createXMLStreamWriter(theString) };
 				writeFeedOutput(feed,
 						(XMLStreamWriter) ct.newInstance(arglist), encoding,
-						xmlVersion);
+						version, processingInstructions);
 			}
 			return theString.toString();
 		} catch (Exception e) {
 			e.printStackTrace();
 			return feed.toString();
 		}
-
 	}
 
 	/**
@@ -372,14 +543,14 @@ public final class FeedDoc implements Serializable {
 		try {
 			StringWriter theString = new StringWriter();
 			if (xmlStreamWriter == null || xmlStreamWriter.equals("")) {
-				writeEntryOutput(entry, XMLOutputFactory.newInstance()
+				writeEntryOutput(entry, Factories.OUTPUT
 						.createXMLStreamWriter(theString), encoding, xmlVersion);
 			} else {
 				Class<?> cls = Class.forName(xmlStreamWriter);
 				Constructor<?> ct = cls
 						.getConstructor(new Class[] { XMLStreamWriter.class });
-				Object arglist[] = new Object[] { XMLOutputFactory
-						.newInstance().createXMLStreamWriter(theString) };
+				Object arglist[] = new Object[] { Factories.OUTPUT
+						.createXMLStreamWriter(theString) };
 				XMLStreamWriter writer = (XMLStreamWriter) ct
 						.newInstance(arglist);
 
@@ -404,9 +575,9 @@ public final class FeedDoc implements Serializable {
 		}
 
 		// add atom base and language to the entry if they are not there.
-		List<Attribute> attributes = entry.getAttributes();
-		if (attributes == null) {
-			attributes = new LinkedList<Attribute>();
+		List<Attribute> attributes = new LinkedList<Attribute>();
+		if (entry.getAttributes() != null) {
+			attributes.addAll(entry.getAttributes());
 		}
 		if (entry.getAttribute("xmlns") == null) {
 			attributes.add(getAtomBase());
@@ -431,7 +602,8 @@ public final class FeedDoc implements Serializable {
 	}
 
 	/**
-	 * This method reads an xml string into a Feed element.
+	 * This method reads an xml string into a Feed element. The characters are
+	 * parsed as they are so any encoding declared in the string is ignored.
 	 * 
 	 * @param xmlString
 	 *            the xml string to be transformed into a Feed element.
@@ -440,23 +612,12 @@ public final class FeedDoc implements Serializable {
 	 *             if the string cannot be parsed into a Feed element.
 	 */
 	public Feed readFeedToBean(String xmlString) throws Exception {
-		// try to grab the encoding first:
-		if (xmlString.contains("encoding=\"")) {
-			String localEncoding = xmlString.substring(xmlString
-					.indexOf("encoding=\"") + 10);
-			localEncoding = localEncoding.substring(0,
-					localEncoding.indexOf('"'));
-			encoding = localEncoding;
-
-		}
-		XMLStreamReader reader = inputFactory
-				.createXMLStreamReader(new ByteArrayInputStream(xmlString
-						.getBytes(encoding)));
-		return new FeedReader(this).readFeed(reader);
+		return readFeedToBean(new StringReader(xmlString));
 	}
 
 	/**
-	 * This method reads an xml string into a Entry element.
+	 * This method reads an xml string into a Entry element. The characters are
+	 * parsed as they are so any encoding declared in the string is ignored.
 	 * 
 	 * @param xmlString
 	 *            the xml string to be transformed into a Entry element.
@@ -465,25 +626,146 @@ public final class FeedDoc implements Serializable {
 	 *             if the string cannot be parsed into a Entry element.
 	 */
 	public Entry readEntryToBean(String xmlString) throws Exception {
-		// try to grab the encoding first:
-		if (xmlString.contains("encoding=\"")) {
-			String localEncoding = xmlString.substring(xmlString
-					.indexOf("encoding=\"") + 10);
-			localEncoding = localEncoding.substring(0,
-					localEncoding.indexOf('"'));
-			encoding = localEncoding;
+		return readEntryToBean(new StringReader(xmlString));
+	}
+
+	/**
+	 * This method reads xml characters into a Feed element. The characters
+	 * are parsed as they are so any encoding declared in the document is
+	 * ignored. The reader is not closed.
+	 * 
+	 * @param xmlReader
+	 *            the reader containing an atom document.
+	 * @return the atom Feed element
+	 * @throws Exception
+	 *             if the characters cannot be parsed into a Feed element.
+	 */
+	public Feed readFeedToBean(Reader xmlReader) throws Exception {
+		XMLStreamReader reader = inputFactory()
+				.createXMLStreamReader(xmlReader);
+		try {
+			return new FeedReader(this).readFeed(reader);
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * This method reads xml characters into an Entry element. The characters
+	 * are parsed as they are so any encoding declared in the document is
+	 * ignored. The reader is not closed.
+	 * 
+	 * @param xmlReader
+	 *            the reader containing an atom entry document.
+	 * @return the atom Entry element
+	 * @throws Exception
+	 *             if the characters cannot be parsed into an Entry element.
+	 */
+	public Entry readEntryToBean(Reader xmlReader) throws Exception {
+		XMLStreamReader reader = inputFactory()
+				.createXMLStreamReader(xmlReader);
+		try {
+			return new FeedReader(this).findEntry(reader, null);
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * This method reads the remaining bytes of a buffer into a Feed element.
+	 * The bytes are read in place so direct buffers are not copied into an
+	 * intermediate array. The position of the buffer is not changed and the
+	 * encoding is detected from the document.
+	 * 
+	 * @param buffer
+	 *            the buffer containing an atom document.
+	 * @return the atom Feed element
+	 * @throws Exception
+	 *             if the bytes cannot be parsed into a Feed element.
+	 */
+	public Feed readFeedToBean(ByteBuffer buffer) throws Exception {
+		return readFeed(new ByteBufferInputStream(buffer.duplicate()));
+	}
+
+	/**
+	 * This method reads the remaining bytes of a buffer into an Entry element.
+	 * The position of the buffer is not changed and the encoding is detected
+	 * from the document.
+	 * 
+	 * @param buffer
+	 *            the buffer containing an atom entry document.
+	 * @return the atom Entry element
+	 * @throws Exception
+	 *             if the bytes cannot be parsed into an Entry element.
+	 */
+	public Entry readEntryToBean(ByteBuffer buffer) throws Exception {
+		return readEntry(new ByteBufferInputStream(buffer.duplicate()));
+	}
 
+	/**
+	 * This method reads the bytes of a channel into a Feed element. The parser
+	 * reads from the channel straight into its own buffer. The channel must
+	 * be in blocking mode and is not closed. The encoding is detected from
+	 * the document.
+	 * 
+	 * @param channel
+	 *            the channel containing an atom document.
+	 * @return the atom Feed element
+	 * @throws Exception
+	 *             if the bytes cannot be parsed into a Feed element.
+	 */
+	public Feed readFeedToBean(ReadableByteChannel channel) throws Exception {
+		return readFeed(Channels.newInputStream(channel));
+	}
+
+	/**
+	 * This method reads the bytes of a channel into an Entry element. The
+	 * channel must be in blocking mode and is not closed. The encoding is
+	 * detected from the document.
+	 * 
+	 * @param channel
+	 *            the channel containing an atom entry document.
+	 * @return the atom Entry element
+	 * @throws Exception
+	 *             if the bytes cannot be parsed into an Entry element.
+	 */
+	public Entry readEntryToBean(ReadableByteChannel channel) throws Exception {
+		return readEntry(Channels.newInputStream(channel));
+	}
+
+	// reads a feed from bytes whose encoding the parser detects.
+	private Feed readFeed(InputStream inputStream) throws Exception {
+		InputStream document = Compression.decompress(inputStream);
+		try {
+			XMLStreamReader reader = createXMLStreamReader(document);
+			try {
+				return new FeedReader(this).readFeed(reader);
+			} finally {
+				reader.close();
+			}
+		} finally {
+			document.close();
+		}
+	}
+
+	// reads an entry from bytes whose encoding the parser detects.
+	private Entry readEntry(InputStream inputStream) throws Exception {
+		InputStream document = Compression.decompress(inputStream);
+		try {
+			XMLStreamReader reader = createXMLStreamReader(document);
+			try {
+				return new FeedReader(this).findEntry(reader, null);
+			} finally {
+				reader.close();
+			}
+		} finally {
+			document.close();
 		}
-		XMLStreamReader reader = inputFactory
-				.createXMLStreamReader(new ByteArrayInputStream(xmlString
-						.getBytes(encoding)));
-		List<Entry> entries = new FeedReader(this).readEntry(reader, null);
-		// readEntry() only reads at most one entry.
-		return entries.get(0);
 	}
 
 	/**
-	 * This method reads an xml File object into a Feed element.
+	 * This method reads an xml File object into a Feed element. Large files
+	 * are memory mapped. The file is closed before this method returns.
 	 * 
 	 * @param file
 	 *            the file object representing an atom file.
@@ -492,13 +774,12 @@ public final class FeedDoc implements Serializable {
 	 *             if the file cannot be parsed into a Feed element.
 	 */
 	public Feed readFeedToBean(File file) throws Exception {
-		XMLStreamReader reader = inputFactory.createXMLStreamReader(
-				new FileInputStream(file), encoding);
-		return new FeedReader(this).readFeed(reader);
+		return readFeedToBean(file, ReadOptions.DEFAULTS);
 	}
 
 	/**
-	 * This method reads an xml File object into an Entry element.
+	 * This method reads an xml File object into an Entry element. Large files
+	 * are memory mapped. The file is closed before this method returns.
 	 * 
 	 * @param file
 	 *            the file object representing an atom file.
@@ -507,11 +788,39 @@ public final class FeedDoc implements Serializable {
 	 *             if the file cannot be parsed into an Entry element.
 	 */
 	public Entry readEntryToBean(File file) throws Exception {
-		XMLStreamReader reader = inputFactory.createXMLStreamReader(
-				new FileInputStream(file), encoding);
-		List<Entry> entries = new FeedReader(this).readEntry(reader, null);
-		// readEntry() only reads at most one entry.
-		return entries.get(0);
+		return readEntryToBean(file, null);
+	}
+
+	/**
+	 * This method reads the entry with the given atom:id out of an xml File
+	 * object. The entries in front of it are skipped without being built or
+	 * validated and the rest of the file is not read. The file is closed
+	 * before this method returns.
+	 * 
+	 * @param file
+	 *            the file object representing an atom file.
+	 * @param atomId
+	 *            the atom:id of the entry or null for the first entry.
+	 * @return the atom Entry element or null if there is no such entry.
+	 * @throws Exception
+	 *             if the file cannot be parsed into an Entry element.
+	 */
+	public Entry readEntryToBean(File file, String atomId) throws Exception {
+		InputStream inputStream = openFile(file);
+		try {
+			return readEntryToBean(inputStream, atomId);
+		} finally {
+			inputStream.close();
+		}
+	}
+
+	// opens a local atom file. files of at least MAP_THRESHOLD bytes are
+	// memory mapped, smaller ones are not worth the cost of the mapping.
+	private InputStream openFile(File file) throws IOException {
+		if (file.length() >= MAP_THRESHOLD) {
+			return new MappedFileInputStream(file);
+		}
+		return new BufferedInputStream(new FileInputStream(file));
 	}
 
 	/**
@@ -537,7 +846,28 @@ public final class FeedDoc implements Serializable {
 	 *             if the URL cannot be parsed into a Entry element.
 	 */
 	public Entry readEntryToBean(URL url) throws Exception {
-		return readEntryToBean(url.openStream());
+		return readEntryToBean(url, null);
+	}
+
+	/**
+	 * This method reads the entry with the given atom:id out of an atom file
+	 * from a URL. The download stops as soon as the entry has been read.
+	 * 
+	 * @param url
+	 *            the Internet network location of an atom file.
+	 * @param atomId
+	 *            the atom:id of the entry or null for the first entry.
+	 * @return the atom Entry element or null if there is no such entry.
+	 * @throws Exception
+	 *             if the URL cannot be parsed into a Entry element.
+	 */
+	public Entry readEntryToBean(URL url, String atomId) throws Exception {
+		InputStream inputStream = url.openStream();
+		try {
+			return readEntryToBean(inputStream, atomId);
+		} finally {
+			inputStream.close();
+		}
 	}
 
 	/**
@@ -550,30 +880,535 @@ public final class FeedDoc implements Serializable {
 	 *             if the URL cannot be parsed into a Feed element.
 	 */
 	public Feed readFeedToBean(InputStream inputStream) throws Exception {
-		XMLStreamReader reader = inputFactory.createXMLStreamReader(
-				inputStream, encoding);
-		return new FeedReader(this).readFeed(reader);
+		return readFeed(inputStream);
+	}
+
+	/**
+	 * This method reads an atom file from an input stream into a Feed element
+	 * reading no further than the options allow. The input stream is not
+	 * closed. If the maximum number of entries stopped the read before any
+	 * entry was read, the Feed has an empty entry list.
+	 *
+	 * @param inputStream
+	 *            the input stream containing an atom file.
+	 * @param options
+	 *            the options that limit how much of the document is read.
+	 * @return the atom Feed element.
+	 * @throws Exception
+	 *             if the input stream cannot be parsed into a Feed element.
+	 */
+	public Feed readFeedToBean(InputStream inputStream, ReadOptions options)
+			throws Exception {
+		InputStream document = Compression.decompress(inputStream);
+		try {
+			XMLStreamReader reader = createXMLStreamReader(document);
+			try {
+				return new FeedReader(this, options).readFeed(reader);
+			} finally {
+				reader.close();
+			}
+		} finally {
+			document.close();
+		}
+	}
+
+	/**
+	 * This method reads an xml File object into a Feed element reading no
+	 * further than the options allow.
+	 *
+	 * @param file
+	 *            the file object representing an atom file.
+	 * @param options
+	 *            the options that limit how much of the document is read.
+	 * @return the atom Feed element.
+	 * @throws Exception
+	 *             if the file cannot be parsed into a Feed element.
+	 */
+	public Feed readFeedToBean(File file, ReadOptions options)
+			throws Exception {
+		InputStream inputStream = openFile(file);
+		try {
+			return readFeedToBean(inputStream, options);
+		} finally {
+			inputStream.close();
+		}
+	}
+
+	/**
+	 * This method reads the remaining bytes of a buffer into a Feed element
+	 * parsing runs of entries on the executor while the calling thread reads
+	 * the feed level elements. The result is the same as from
+	 * <code>readFeedToBean(buffer)</code>. Documents in an encoding other than
+	 * an ASCII compatible one (such as UTF-16) are read on the calling thread.
+	 * The position of the buffer is not changed.
+	 * 
+	 * @param buffer
+	 *            the buffer containing an atom document.
+	 * @param executor
+	 *            the executor to parse the entries on. A thread pool with one
+	 *            thread per processor works well.
+	 * @return the atom Feed element
+	 * @throws Exception
+	 *             if the bytes cannot be parsed into a Feed element.
+	 */
+	public Feed readFeedToBean(ByteBuffer buffer, Executor executor)
+			throws Exception {
+		return new ParallelFeedReader(this, buffer).readFeed(executor);
+	}
+
+	/**
+	 * This method memory maps an atom file and reads it into a Feed element
+	 * parsing runs of entries on the executor.
+	 * 
+	 * @param file
+	 *            the file object representing an atom file.
+	 * @param executor
+	 *            the executor to parse the entries on.
+	 * @return the atom Feed element
+	 * @throws Exception
+	 *             if the file cannot be parsed into a Feed element.
+	 * @see #readFeedToBean(ByteBuffer, Executor)
+	 */
+	public Feed readFeedToBean(File file, Executor executor) throws Exception {
+		if (file.length() > Integer.MAX_VALUE) {
+			// a single buffer cannot hold it.
+			return readFeedToBean(file);
+		}
+		FileInputStream inputStream = new FileInputStream(file);
+		try {
+			FileChannel channel = inputStream.getChannel();
+			return readFeedToBean(channel.map(FileChannel.MapMode.READ_ONLY,
+					0, channel.size()), executor);
+		} finally {
+			inputStream.close();
+		}
+	}
+
+	/**
+	 * This method reads an atom file from a URL into a Feed element reading
+	 * no further than the options allow. The connection is closed as soon as
+	 * reading stops.
+	 *
+	 * @param url
+	 *            the Internet network location of an atom file.
+	 * @param options
+	 *            the options that limit how much of the document is read.
+	 * @return the atom Feed element.
+	 * @throws Exception
+	 *             if the URL cannot be parsed into a Feed element.
+	 */
+	public Feed readFeedToBean(URL url, ReadOptions options) throws Exception {
+		InputStream inputStream = url.openStream();
+		try {
+			return readFeedToBean(inputStream, options);
+		} finally {
+			inputStream.close();
+		}
+	}
+
+	/**
+	 * This method reads an atom file from an input stream into a Feed element
+	 * and returns it with the encoding, xml version and processing
+	 * instructions of the document. The input stream is not closed.
+	 *
+	 * @param inputStream
+	 *            the input stream containing an atom file.
+	 * @return the atom Feed element and its xml prolog.
+	 * @throws Exception
+	 *             if the input stream cannot be parsed into a Feed element.
+	 */
+	public AtomDocument<Feed> readFeedDocument(InputStream inputStream)
+			throws Exception {
+		InputStream document = Compression.decompress(inputStream);
+		try {
+			XMLStreamReader reader = createXMLStreamReader(document);
+			try {
+				FeedReader feedReader = new FeedReader(this);
+				return feedReader.toDocument(feedReader.readFeed(reader));
+			} finally {
+				reader.close();
+			}
+		} finally {
+			document.close();
+		}
+	}
+
+	/**
+	 * This method reads an xml File object into a Feed element and returns it
+	 * with the encoding, xml version and processing instructions of the
+	 * document.
+	 *
+	 * @param file
+	 *            the file object representing an atom file.
+	 * @return the atom Feed element and its xml prolog.
+	 * @throws Exception
+	 *             if the file cannot be parsed into a Feed element.
+	 */
+	public AtomDocument<Feed> readFeedDocument(File file) throws Exception {
+		InputStream inputStream = openFile(file);
+		try {
+			return readFeedDocument(inputStream);
+		} finally {
+			inputStream.close();
+		}
+	}
+
+	/**
+	 * This method reads an atom file from a URL into a Feed element and
+	 * returns it with the encoding, xml version and processing instructions
+	 * of the document.
+	 *
+	 * @param url
+	 *            the Internet network location of an atom file.
+	 * @return the atom Feed element and its xml prolog.
+	 * @throws Exception
+	 *             if the URL cannot be parsed into a Feed element.
+	 */
+	public AtomDocument<Feed> readFeedDocument(URL url) throws Exception {
+		InputStream inputStream = url.openStream();
+		try {
+			return readFeedDocument(inputStream);
+		} finally {
+			inputStream.close();
+		}
 	}
 
 	/**
 	 * This method reads an atom file from an input stream into a Entry element.
+	 * The first entry of a feed or the sole entry of an entry document is
+	 * read and the rest of the stream is left unread. The stream is not
+	 * closed.
 	 * 
 	 * @param inputStream
 	 *            the input stream containing an atom file.
-	 * @return the atom Entry element.
+	 * @return the atom Entry element or null if the feed has no entries.
 	 * @throws Exception
 	 *             if the URL cannot be parsed into a Feed element.
 	 */
 	public Entry readEntryToBean(InputStream inputStream) throws Exception {
-		XMLStreamReader reader = inputFactory.createXMLStreamReader(
-				inputStream, encoding);
-		Feed feed = new FeedReader(this).readFeed(reader);
-		// readEntry() reads the first entry from a feed or the sole entry if it
-		// is the root element.
-		// so if the string contains more than one entry, only the first gets
-		// returned.
-		List<Entry> entries = feed.getEntries();
-		return entries == null ? null : entries.get(0);
+		return readEntryToBean(inputStream, null);
+	}
+
+	/**
+	 * This method reads the entry with the given atom:id out of an atom file
+	 * from an input stream. The entries in front of it are skipped as soon as
+	 * their id has been read, without being built or validated, and neither
+	 * the feed nor the entries after it are read. The input stream is not
+	 * closed.
+	 * 
+	 * @param inputStream
+	 *            the input stream containing an atom file.
+	 * @param atomId
+	 *            the atom:id of the entry or null for the first entry.
+	 * @return the atom Entry element or null if there is no such entry.
+	 * @throws Exception
+	 *             if the input stream cannot be parsed into an Entry element.
+	 */
+	public Entry readEntryToBean(InputStream inputStream, String atomId)
+			throws Exception {
+		InputStream document = Compression.decompress(inputStream);
+		try {
+			XMLStreamReader reader = createXMLStreamReader(document);
+			try {
+				return new FeedReader(this).findEntry(reader, atomId);
+			} finally {
+				reader.close();
+			}
+		} finally {
+			document.close();
+		}
+	}
+
+	/**
+	 * This method returns an iterator over the entry elements of an atom
+	 * document read from an input stream. Each entry is parsed on demand so
+	 * the memory used does not grow with the size of the document. The input
+	 * stream is not closed by the iterator.
+	 *
+	 * @param inputStream
+	 *            the input stream containing an atom file.
+	 * @return an iterator over the atom Entry elements in document order.
+	 * @throws Exception
+	 *             if the input stream cannot be read.
+	 */
+	public EntryIterator readEntries(InputStream inputStream) throws Exception {
+		return readEntries(inputStream, ReadOptions.DEFAULTS);
+	}
+
+	/**
+	 * This method returns an iterator over the entry elements of an atom
+	 * document read from an input stream. The iteration ends early when the
+	 * watermark in the options is reached. The input stream is not closed by
+	 * the iterator.
+	 *
+	 * @param inputStream
+	 *            the input stream containing an atom file.
+	 * @param options
+	 *            the options controlling which parts of the entries are read.
+	 * @return an iterator over the atom Entry elements in document order.
+	 * @throws Exception
+	 *             if the input stream cannot be read.
+	 */
+	public EntryIterator readEntries(InputStream inputStream,
+			ReadOptions options) throws Exception {
+		InputStream document = Compression.decompress(inputStream);
+		try {
+			return new EntryIterator(new FeedReader(this, options),
+					createXMLStreamReader(document), document, null);
+		} catch (Exception e) {
+			document.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * This method returns an iterator over the entry elements of an atom
+	 * file. The file is closed when the last entry has been read or when the
+	 * iterator is closed.
+	 *
+	 * @param file
+	 *            the file object representing an atom file.
+	 * @return an iterator over the atom Entry elements in document order.
+	 * @throws Exception
+	 *             if the file cannot be read.
+	 */
+	public EntryIterator readEntries(File file) throws Exception {
+		InputStream inputStream = openFile(file);
+		try {
+			InputStream document = Compression.decompress(inputStream);
+			try {
+				return new EntryIterator(new FeedReader(this),
+						createXMLStreamReader(document), document, inputStream);
+			} catch (Exception e) {
+				document.close();
+				throw e;
+			}
+		} catch (Exception e) {
+			inputStream.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * This method returns an iterator over the entry elements of an atom file
+	 * located at a URL. The connection is closed when the last entry has been
+	 * read or when the iterator is closed.
+	 *
+	 * @param url
+	 *            the Internet network location of an atom file.
+	 * @return an iterator over the atom Entry elements in document order.
+	 * @throws Exception
+	 *             if the URL cannot be read.
+	 */
+	public EntryIterator readEntries(URL url) throws Exception {
+		InputStream inputStream = url.openStream();
+		try {
+			InputStream document = Compression.decompress(inputStream);
+			try {
+				return new EntryIterator(new FeedReader(this),
+						createXMLStreamReader(document), document, inputStream);
+			} catch (Exception e) {
+				document.close();
+				throw e;
+			}
+		} catch (Exception e) {
+			inputStream.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * This method reads an atom file from an input stream and passes the feed
+	 * header, entries and extensions to the handler as they are read instead
+	 * of building a Feed element. The input stream is not closed.
+	 *
+	 * @param inputStream
+	 *            the input stream containing an atom file.
+	 * @param handler
+	 *            the callback to notify.
+	 * @throws Exception
+	 *             if the input stream cannot be parsed or the handler throws
+	 *             an exception.
+	 */
+	public void readFeedToHandler(InputStream inputStream, FeedHandler handler)
+			throws Exception {
+		InputStream document = Compression.decompress(inputStream);
+		try {
+			XMLStreamReader reader = createXMLStreamReader(document);
+			try {
+				new FeedReader(this).readFeed(reader, handler);
+			} finally {
+				reader.close();
+			}
+		} finally {
+			document.close();
+		}
+	}
+
+	/**
+	 * This method reads an xml File object and passes the feed header, entries
+	 * and extensions to the handler as they are read.
+	 *
+	 * @param file
+	 *            the file object representing an atom file.
+	 * @param handler
+	 *            the callback to notify.
+	 * @throws Exception
+	 *             if the file cannot be parsed or the handler throws an
+	 *             exception.
+	 */
+	public void readFeedToHandler(File file, FeedHandler handler)
+			throws Exception {
+		InputStream inputStream = openFile(file);
+		try {
+			readFeedToHandler(inputStream, handler);
+		} finally {
+			inputStream.close();
+		}
+	}
+
+	/**
+	 * This method reads an atom file from a URL and passes the feed header,
+	 * entries and extensions to the handler as they are read.
+	 *
+	 * @param url
+	 *            the Internet network location of an atom file.
+	 * @param handler
+	 *            the callback to notify.
+	 * @throws Exception
+	 *             if the URL cannot be parsed or the handler throws an
+	 *             exception.
+	 */
+	public void readFeedToHandler(URL url, FeedHandler handler)
+			throws Exception {
+		InputStream inputStream = url.openStream();
+		try {
+			readFeedToHandler(inputStream, handler);
+		} finally {
+			inputStream.close();
+		}
+	}
+
+	/**
+	 * This method reads a batch of atom feeds on a thread pool with one
+	 * thread per processor. The pool is shut down once every feed has been
+	 * read.
+	 * 
+	 * @param sources
+	 *            the File, URL, InputStream or ByteBuffer objects to read.
+	 * @return one result per source in the order of the collection.
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting.
+	 * @see #readFeeds(Collection, Executor)
+	 */
+	public List<FeedResult> readFeeds(Collection<?> sources)
+			throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(Runtime
+				.getRuntime().availableProcessors());
+		try {
+			return readFeeds(sources, executor);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * This method reads a batch of atom feeds with each source read as a
+	 * separate task on the executor. A source that cannot be read does not
+	 * stop the others: its result holds the exception instead of a Feed.
+	 * Input streams are not closed and the position of a ByteBuffer is not
+	 * changed.
+	 * 
+	 * @param sources
+	 *            the File, URL, InputStream or ByteBuffer objects to read.
+	 * @param executor
+	 *            the executor to run the tasks on.
+	 * @return one result per source in the order of the collection.
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting.
+	 */
+	public List<FeedResult> readFeeds(Collection<?> sources,
+			Executor executor) throws InterruptedException {
+		for (Object source : sources) {
+			if (!(source instanceof File || source instanceof URL
+					|| source instanceof InputStream || source instanceof ByteBuffer)) {
+				throw new IllegalArgumentException(
+						"the feed sources must be File, URL, InputStream or ByteBuffer objects: "
+								+ source);
+			}
+		}
+
+		List<FutureTask<Feed>> tasks = new ArrayList<FutureTask<Feed>>(
+				sources.size());
+		for (final Object source : sources) {
+			FutureTask<Feed> task = new FutureTask<Feed>(new Callable<Feed>() {
+				public Feed call() throws Exception {
+					return readSource(source);
+				}
+			});
+			tasks.add(task);
+			executor.execute(task);
+		}
+
+		List<FeedResult> results = new ArrayList<FeedResult>(sources.size());
+		Iterator<?> sourceIterator = sources.iterator();
+		for (FutureTask<Feed> task : tasks) {
+			Object source = sourceIterator.next();
+			try {
+				results.add(new FeedResult(source, task.get(), null));
+			} catch (ExecutionException e) {
+				if (!(e.getCause() instanceof Exception)) {
+					throw (Error) e.getCause();
+				}
+				results.add(new FeedResult(source, null, (Exception) e
+						.getCause()));
+			}
+		}
+		return results;
+	}
+
+	private Feed readSource(Object source) throws Exception {
+		if (source instanceof File) {
+			return readFeedToBean((File) source);
+		}
+		if (source instanceof ByteBuffer) {
+			return readFeedToBean((ByteBuffer) source);
+		}
+		if (source instanceof InputStream) {
+			return readFeedToBean((InputStream) source);
+		}
+		InputStream inputStream = ((URL) source).openStream();
+		try {
+			return readFeedToBean(inputStream);
+		} finally {
+			inputStream.close();
+		}
+	}
+
+	/**
+	 * This method returns a parser that is given the bytes of an atom
+	 * document as they arrive instead of reading them from a stream. The feed
+	 * header, extensions and entries are passed to the handler as soon as the
+	 * bytes completing them have been fed to the parser, and the parser never
+	 * waits for more input.
+	 *
+	 * @param handler
+	 *            the callback to notify.
+	 * @return a new push parser for one document.
+	 */
+	public FeedPushParser newPushParser(FeedHandler handler) {
+		return new FeedPushParser(this, handler);
+	}
+
+	// reads an uncompressed document in the encoding its first bytes name.
+	XMLStreamReader createXMLStreamReader(InputStream inputStream)
+			throws IOException, XMLStreamException {
+		EncodingDetector document = EncodingDetector.detect(inputStream);
+		if (document.getCharset() == null) {
+			return inputFactory().createXMLStreamReader(document.getInput());
+		}
+		return inputFactory().createXMLStreamReader(document.getInput(),
+				document.getCharset());
 	}
 
 	/**
@@ -633,6 +1468,22 @@ public final class FeedDoc implements Serializable {
 				feed.getIcon(), feed.getLogo(), feed.getEntries());
 	}
 
+	/**
+	 * @return an empty builder for a Feed.
+	 */
+	public FeedBuilder newFeedBuilder() {
+		return new FeedBuilder();
+	}
+
+	/**
+	 * @param feed
+	 *            the feed whose elements the builder starts with.
+	 * @return a builder holding the elements of the feed.
+	 */
+	public FeedBuilder newFeedBuilder(Feed feed) {
+		return new FeedBuilder(feed);
+	}
+
 	/**
 	 * 
 	 * @param name
@@ -790,6 +1641,22 @@ public final class FeedDoc implements Serializable {
 		return new Entry(entry);
 	}
 
+	/**
+	 * @return an empty builder for an Entry.
+	 */
+	public EntryBuilder newEntryBuilder() {
+		return new EntryBuilder();
+	}
+
+	/**
+	 * @param entry
+	 *            the entry whose elements the builder starts with.
+	 * @return a builder holding the elements of the entry.
+	 */
+	public EntryBuilder newEntryBuilder(Entry entry) {
+		return new EntryBuilder(entry);
+	}
+
 	/**
 	 * 
 	 * @param elementName
@@ -974,6 +1841,22 @@ public final class FeedDoc implements Serializable {
 				subtitle, icon, logo);
 	}
 
+	/**
+	 * @return an empty builder for a Source.
+	 */
+	public SourceBuilder newSourceBuilder() {
+		return new SourceBuilder();
+	}
+
+	/**
+	 * @param source
+	 *            the source whose elements the builder starts with.
+	 * @return a builder holding the elements of the source.
+	 */
+	public SourceBuilder newSourceBuilder(Source source) {
+		return new SourceBuilder(source);
+	}
+
 	/**
 	 * 
 	 * @param subtitle
@@ -1045,7 +1928,9 @@ public final class FeedDoc implements Serializable {
 
 	// used to write feed output for several feed writing methods.
 	private void writeFeedOutput(Feed feed, XMLStreamWriter writer,
-			String encoding, String version) throws Exception {
+			String encoding, String version,
+			List<ProcessingInstruction> processingInstructions)
+			throws Exception {
 
 		if (feed == null) {
 			throw new AtomSpecException("The atom feed object cannot be null.");
@@ -1053,34 +1938,30 @@ public final class FeedDoc implements Serializable {
 		// make sure the feed is sorted before it is written out to the file.
 		// this prevents the client code from having to
 		// maintain the sorting during usage
-		feed = checkForAndApplyExtension(
-				feed,
+		FeedBuilder builder = newFeedBuilder(feed);
+		boolean changed = checkForAndApplyExtension(
+				builder,
 				buildAttribute("xmlns:sort",
 						"http://www.colorfulsoftware.com/projects/atomsphere/extension/sort/1.0"));
 
 		// add atom base and xml_language to the entry if they are not there.
-		List<Attribute> attributes = feed.getAttributes();
-
-		if (attributes == null) {
-			attributes = new LinkedList<Attribute>();
-		}
 		if (feed.getAttribute("xmlns") == null) {
-			attributes.add(getAtomBase());
+			builder.addAttribute(getAtomBase());
+			changed = true;
 		}
 		if (feed.getAttribute("xml:lang") == null) {
-			attributes.add(getLangEn());
+			builder.addAttribute(getLangEn());
+			changed = true;
+		}
+		// rebuild the feed once with the sorted entries and the updated
+		// attributes.
+		if (changed) {
+			feed = builder.build();
 		}
-		// rebuild the feed with the updated attributes
-		// and atomsphere generator element
-		feed = buildFeed(feed.getId(), feed.getTitle(), feed.getUpdated(),
-				feed.getRights(), feed.getAuthors(), feed.getCategories(),
-				feed.getContributors(), feed.getLinks(), attributes,
-				feed.getExtensions(), feed.getGenerator(), feed.getSubtitle(),
-				feed.getIcon(), feed.getLogo(), feed.getEntries());
 		// write the xml header.
 		writer.writeStartDocument(encoding, version);
-		if (this.processingInstructions != null) {
-			for (ProcessingInstruction pi : this.processingInstructions) {
+		if (processingInstructions != null) {
+			for (ProcessingInstruction pi : processingInstructions) {
 				writer.writeProcessingInstruction(pi.getTarget(), pi.getData());
 			}
 		}
@@ -1112,6 +1993,16 @@ public final class FeedDoc implements Serializable {
 	 */
 	public Feed sortEntries(Feed feed, Class<?> elementClass, String ascDesc)
 			throws AtomSpecException {
+		FeedBuilder builder = newFeedBuilder(feed);
+		// return the feed in the original order if there was nothing to sort.
+		return sortEntries(builder, elementClass, ascDesc) ? builder.build()
+				: feed;
+	}
+
+	// sorts the entries of the builder and records the sort in its
+	// attributes and extensions. returns false if there was nothing to sort.
+	boolean sortEntries(FeedBuilder feed, Class<?> elementClass,
+			String ascDesc) throws AtomSpecException {
 
 		// short circuit if we are asked to sort an invalid element type
 		if (!elementClass.getSimpleName().equals("Updated")
@@ -1206,22 +2097,31 @@ public final class FeedDoc implements Serializable {
 				localFeedExtensions.add(sortExtension);
 			}
 
-			// this is an immutable sorted copy of the feed.
-			return buildFeed(feed.getId(), feed.getTitle(), feed.getUpdated(),
-					feed.getRights(), feed.getAuthors(), feed.getCategories(),
-					feed.getContributors(), feed.getLinks(), feedAttrs,
-					localFeedExtensions, feed.getGenerator(),
-					feed.getSubtitle(), feed.getIcon(), feed.getLogo(),
-					new LinkedList<Entry>(resortedEntries.values()));
+			feed.setAttributes(feedAttrs);
+			feed.setExtensions(localFeedExtensions);
+			feed.setEntries(new LinkedList<Entry>(resortedEntries.values()));
+			return true;
 		}
-		// return the feed in the original order.
-		return feed;
+		return false;
+	}
+
+	// applies the extensions to the elements read by the FeedReader and
+	// builds the feed once. because the sort extension does not enforce
+	// placement of the element this is done after all of them are read.
+	Feed buildSortedFeed(FeedBuilder feed) throws AtomSpecException {
+		checkForAndApplyExtension(
+				feed,
+				buildAttribute("xmlns:sort",
+						"http://www.colorfulsoftware.com/projects/atomsphere/extension/sort/1.0"));
+		return feed.build();
 	}
 
 	// Checks the xmlns (namespace) argument and applies the extension
-	// to the feed argument if it is recognized by the atomsphere library.
+	// to the feed builder if it is recognized by the atomsphere library.
+	// returns true if the builder was changed.
 	// used by FeedReader and FeedWriter
-	Feed checkForAndApplyExtension(Feed feed, Attribute xmlns) throws Exception {
+	boolean checkForAndApplyExtension(FeedBuilder feed, Attribute xmlns)
+			throws AtomSpecException {
 
 		// check for the first supported extension
 		// currently only sort is implemented.
@@ -1230,11 +2130,11 @@ public final class FeedDoc implements Serializable {
 			return applySort(feed);
 		}
 
-		return feed;
+		return false;
 	}
 
 	// check for and apply the first sort extension.
-	private Feed applySort(Feed feed) throws AtomSpecException {
+	private boolean applySort(FeedBuilder feed) throws AtomSpecException {
 		// only do the work if there are extensions.
 		// look for the first extension element if the namespace exists.
 		Extension sortAsc = feed.getExtension("sort:asc");
@@ -1263,7 +2163,7 @@ public final class FeedDoc implements Serializable {
 		}
 
 		// if we made it here, there was not sort found.
-		return feed;
+		return false;
 	}
 
 	/**
@@ -1282,8 +2182,9 @@ public final class FeedDoc implements Serializable {
 	}
 
 	/**
-	 * @return the default encoding for the library is
-	 *         System.getProperty("file.encoding").
+	 * @return the default encoding for the library "UTF-8". Documents that
+	 *         are read are decoded in the encoding they declare instead and
+	 *         <code>readFeedDocumentToString</code> writes them in it again.
 	 */
 	public String getEncoding() {
 		return encoding;
@@ -1296,17 +2197,12 @@ public final class FeedDoc implements Serializable {
 		return xmlVersion;
 	}
 
-	void setEncoding(String encoding) {
-		this.encoding = encoding;
-	}
-
-	void setXmlVersion(String xmlVersion) {
-		this.xmlVersion = xmlVersion;
-	}
-
-	void setProcessingInstructions(
-			List<ProcessingInstruction> processingInstructions) {
-		this.processingInstructions = processingInstructions;
+	/**
+	 * @return the StAX implementation and parser settings documents are read
+	 *         with.
+	 */
+	public ParserProfile getParserProfile() {
+		return profile;
 	}
 
 }
@@ -0,0 +1,75 @@
+/**
+ * Copyright 2011 Bill Brown
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.colorfulsoftware.atom;
+
+/**
+ * This interface receives the parts of an atom feed document as the FeedReader
+ * walks through it, without a Feed bean being built. Each callback returns
+ * true to continue reading or false to stop the parse early.
+ *
+ * The feed header is reported once, when the first entry element is reached
+ * (or at the end of the document if there are no entries). Feed level
+ * elements that appear after the first entry are not part of the header.
+ * Feed level extension elements are reported exactly once, through
+ * <code>onExtension</code> as soon as each one is read wherever it appears,
+ * and are never part of the header.
+ *
+ * @see FeedDoc#readFeedToHandler(java.io.InputStream, FeedHandler)
+ * @author Bill Brown
+ *
+ */
+public interface FeedHandler {
+
+	/**
+	 * @param header
+	 *            the feed level elements read before the first entry, other
+	 *            than the extension elements, in the form of a source
+	 *            element.
+	 * @return true to continue reading the document or false to stop.
+	 * @throws Exception
+	 *             to abort the parse.
+	 */
+	boolean onFeedHeader(Source header) throws Exception;
+
+	/**
+	 * @param entry
+	 *            the entry element that was just read.
+	 * @return true to continue reading the document or false to stop.
+	 * @throws Exception
+	 *             to abort the parse.
+	 */
+	boolean onEntry(Entry entry) throws Exception;
+
+	/**
+	 * @param extension
+	 *            a feed level extension element that was just read. An
+	 *            element named entry in a namespace other than atom is an
+	 *            extension.
+	 * @return true to continue reading the document or false to stop.
+	 * @throws Exception
+	 *             to abort the parse.
+	 */
+	boolean onExtension(Extension extension) throws Exception;
+
+	/**
+	 * called once when the parse is finished, either at the end of the
+	 * document or because one of the callbacks asked to stop.
+	 *
+	 * @throws Exception
+	 *             to abort the parse.
+	 */
+	void onEnd() throws Exception;
+}
@@ -0,0 +1,304 @@
+/**
+ * Copyright 2011 Bill Brown
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.colorfulsoftware.atom;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * This class reads an atom document from byte chunks as they arrive and passes
+ * the feed header, the feed level extensions read before the first entry and
+ * each entry to a FeedHandler as soon as they are complete. It never waits for
+ * input: <code>feed</code> returns as soon as the bytes given to it have been
+ * looked at, so it can be driven from a selector or an asynchronous http
+ * client.
+ *
+ * Entries are cut from the byte stream at their start and end tags and each one
+ * is parsed on its own together with the xml prolog and the root start tag, so
+ * the namespace declarations, xml:base and xml:lang of the root element still
+ * apply to it. The document must use an encoding where the xml markup
+ * characters are single ASCII bytes, such as UTF-8 or ISO-8859-1.
+ *
+ * Instances are not thread safe.
+ *
+ * @see FeedDoc#newPushParser(FeedHandler)
+ * @author Bill Brown
+ *
+ */
+public final class FeedPushParser {
+
+	private final FeedDoc feedDoc;
+	private final FeedHandler handler;
+	private final FeedReader feedReader;
+	private final EntryBoundaryScanner scanner;
+
+	private byte[] buffer = new byte[8192];
+	private ByteBuffer scanned = ByteBuffer.wrap(buffer);
+	private int length;
+
+	// copied out of the buffer once the root start tag has been seen.
+	private byte[] prolog;
+	private byte[] rootStartTag;
+	private byte[] rootEndTag;
+	private boolean rootIsEntry;
+
+	// the buffer offsets still needed or -1.
+	private int headerStart = -1;
+	private int entryStart = -1;
+
+	private boolean headerSent;
+	private boolean done;
+
+	// use the FeedDoc newPushParser method.
+	FeedPushParser(FeedDoc feedDoc, FeedHandler handler) {
+		this.feedDoc = feedDoc;
+		this.handler = handler;
+		this.feedReader = new FeedReader(feedDoc);
+		this.scanner = new EntryBoundaryScanner(new Boundaries());
+	}
+
+	/**
+	 * passes the next chunk of the document to the parser. The handler is
+	 * notified of everything completed by this chunk before the method
+	 * returns. Chunks passed after the document has ended or after the handler
+	 * asked to stop are ignored.
+	 *
+	 * @param chunk
+	 *            the next bytes of the document.
+	 * @throws Exception
+	 *             if a completed part of the document cannot be parsed or the
+	 *             handler throws an exception.
+	 */
+	public void feed(byte[] chunk) throws Exception {
+		feed(chunk, 0, chunk.length);
+	}
+
+	/**
+	 * passes the next chunk of the document to the parser.
+	 *
+	 * @param chunk
+	 *            the array holding the next bytes of the document.
+	 * @param offset
+	 *            the offset of the first byte in the array.
+	 * @param count
+	 *            the number of bytes to use.
+	 * @throws Exception
+	 *             if a completed part of the document cannot be parsed or the
+	 *             handler throws an exception.
+	 * @see #feed(byte[])
+	 */
+	public void feed(byte[] chunk, int offset, int count) throws Exception {
+		if (done || count == 0) {
+			return;
+		}
+		if (length + count > buffer.length) {
+			compact();
+			if (length + count > buffer.length) {
+				buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2,
+						length + count));
+				scanned = ByteBuffer.wrap(buffer);
+			}
+		}
+		System.arraycopy(chunk, offset, buffer, length, count);
+		length += count;
+		if (prolog == null && !EntryBoundaryScanner.canScan(scanned, length)) {
+			// the scanner reads '<' as a single byte.
+			done = true;
+			throw new XMLStreamException(
+					"the push parser only reads documents in an ASCII compatible encoding such as UTF-8.");
+		}
+		scanner.scan(scanned, length);
+	}
+
+	/**
+	 * tells the parser that there are no more bytes to come.
+	 *
+	 * @throws Exception
+	 *             if the document ended before the root element was closed.
+	 */
+	public void endOfInput() throws Exception {
+		if (!done) {
+			done = true;
+			throw new XMLStreamException(
+					"the atom document ended before the root element was closed.");
+		}
+	}
+
+	/**
+	 * @return true if the root element has been closed or the handler asked
+	 *         to stop, after which the remaining bytes can be discarded.
+	 */
+	public boolean isDone() {
+		return done;
+	}
+
+	// drops the bytes in front of the oldest offset still needed.
+	private void compact() {
+		if (prolog == null) {
+			// the prolog is copied out together with the root start tag.
+			return;
+		}
+		int keep = scanner.getPending();
+		if (headerStart != -1) {
+			keep = Math.min(keep, headerStart);
+		}
+		if (entryStart != -1) {
+			keep = Math.min(keep, entryStart);
+		}
+		if (keep > 0) {
+			System.arraycopy(buffer, keep, buffer, 0, length - keep);
+			length -= keep;
+			if (headerStart != -1) {
+				headerStart -= keep;
+			}
+			if (entryStart != -1) {
+				entryStart -= keep;
+			}
+			scanner.shift(keep);
+		}
+	}
+
+	// parses the bytes between start and end of the buffer as the only child
+	// of the root element.
+	private XMLStreamReader wrap(int start, int end) throws Exception {
+		InputStream body = new ByteArrayInputStream(buffer, start, end - start);
+		InputStream document;
+		if (rootIsEntry) {
+			document = new SequenceInputStream(new ByteArrayInputStream(prolog),
+					body);
+		} else {
+			document = new SequenceInputStream(Collections
+					.enumeration(Arrays.asList(new ByteArrayInputStream(
+							prolog), new ByteArrayInputStream(rootStartTag),
+							body, new ByteArrayInputStream(rootEndTag))));
+		}
+		return feedDoc.createXMLStreamReader(document);
+	}
+
+	private void sendHeader(int end) throws Exception {
+		headerSent = true;
+		XMLStreamReader reader = wrap(headerStart, end);
+		headerStart = -1;
+		HeaderHandler header = new HeaderHandler();
+		try {
+			feedReader.readFeed(reader, header);
+		} finally {
+			reader.close();
+		}
+		if (header.stopped) {
+			stop();
+		}
+	}
+
+	private void sendEntry(int end) throws Exception {
+		XMLStreamReader reader = wrap(entryStart, end);
+		entryStart = -1;
+		try {
+			Entry entry = feedReader.readNextEntry(reader);
+			if (entry != null && !handler.onEntry(entry)) {
+				stop();
+			}
+		} finally {
+			reader.close();
+		}
+	}
+
+	private void stop() throws Exception {
+		done = true;
+		scanner.finish();
+		handler.onEnd();
+	}
+
+	// turns the offsets found by the scanner into handler callbacks.
+	private class Boundaries implements EntryBoundaryScanner.Listener {
+
+		public void rootStart(int start, int end, int nameEnd)
+				throws Exception {
+			prolog = Arrays.copyOfRange(buffer, 0, start);
+			rootStartTag = Arrays.copyOfRange(buffer, start, end);
+			rootEndTag = new byte[nameEnd - start + 2];
+			rootEndTag[0] = '<';
+			rootEndTag[1] = '/';
+			System.arraycopy(buffer, start + 1, rootEndTag, 2, nameEnd - start
+					- 1);
+			rootEndTag[rootEndTag.length - 1] = '>';
+			String name = new String(rootStartTag, 1, nameEnd - start - 1,
+					"ISO-8859-1");
+			rootIsEntry = name.equals("entry") || name.endsWith(":entry");
+			if (rootIsEntry) {
+				// the whole document is the one entry.
+				headerSent = true;
+				entryStart = start;
+			} else {
+				headerStart = end;
+			}
+		}
+
+		public void entryStart(int start) throws Exception {
+			if (!headerSent) {
+				sendHeader(start);
+			}
+			if (!done) {
+				entryStart = start;
+			}
+		}
+
+		public void entryEnd(int end) throws Exception {
+			sendEntry(end);
+		}
+
+		public void rootEnd(int start, int end) throws Exception {
+			if (rootIsEntry) {
+				sendEntry(end);
+			} else if (!headerSent) {
+				sendHeader(start);
+			}
+			if (!done) {
+				stop();
+			}
+		}
+	}
+
+	// reports the header and the extensions in front of the first entry but
+	// leaves the end of the parse to the push parser.
+	private class HeaderHandler implements FeedHandler {
+		private boolean stopped;
+
+		public boolean onFeedHeader(Source header) throws Exception {
+			stopped = !handler.onFeedHeader(header);
+			return !stopped;
+		}
+
+		public boolean onEntry(Entry entry) {
+			return true;
+		}
+
+		public boolean onExtension(Extension extension) throws Exception {
+			stopped = !handler.onExtension(extension);
+			return !stopped;
+		}
+
+		public void onEnd() {
+		}
+	}
+}
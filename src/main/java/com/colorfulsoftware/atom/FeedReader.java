@@ -21,8 +21,13 @@
 package com.colorfulsoftware.atom;
 
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamReader;
@@ -37,10 +42,77 @@ class FeedReader implements Serializable {
 
 	private static final long serialVersionUID = -2510954590037544812L;
 
+	private static final String ATOM_NAMESPACE = "http://www.w3.org/2005/Atom";
+
+	// the attributes whose values repeat throughout a document.
+	private static final Set<String> SYMBOL_ATTRIBUTES = new HashSet<String>(
+			Arrays.asList("rel", "type", "term", "scheme", "xml:lang"));
+
+	// the elements defined by the atom specification keyed by their local
+	// name. everything else is read as an extension.
+	private enum Element {
+		AUTHOR("author"), CATEGORY("category"), CONTENT("content"), CONTRIBUTOR(
+				"contributor"), EMAIL("email"), ENTRY("entry"), FEED("feed"), GENERATOR(
+				"generator"), ICON("icon"), ID("id"), LINK("link"), LOGO("logo"), NAME(
+				"name"), PUBLISHED("published"), RIGHTS("rights"), SOURCE(
+				"source"), SUBTITLE("subtitle"), SUMMARY("summary"), TITLE(
+				"title"), UPDATED("updated"), URI("uri"), EXTENSION(null);
+
+		private static final Map<String, Element> BY_LOCAL_NAME = new HashMap<String, Element>();
+		static {
+			for (Element element : values()) {
+				if (element.localName != null) {
+					BY_LOCAL_NAME.put(element.localName, element);
+				}
+			}
+		}
+
+		private final String localName;
+
+		private Element(String localName) {
+			this.localName = localName;
+		}
+
+		// parsers hand back interned local names so the lookup does not
+		// allocate.
+		static Element forLocalName(String localName) {
+			Element element = BY_LOCAL_NAME.get(localName);
+			return (element == null) ? EXTENSION : element;
+		}
+	}
+
 	FeedDoc feedDoc;
 
+	private final ReadOptions options;
+
+	// keeps one copy of the strings that repeat throughout the document.
+	private final SymbolTable symbols;
+
+	// set when the last entry read was at the watermark in the options.
+	private boolean watermarkReached;
+
+	// the atom:id of the entry findEntry() is looking for or null.
+	private String selectedId;
+
+	// the parser wrapped to enforce the limits in the options and the number
+	// of entries started so far.
+	private transient LimitedStreamReader limitedReader;
+	private int entriesStarted;
+
+	// the xml prolog of the document being read.
+	private String encoding;
+	private String xmlVersion;
+	private List<FeedDoc.ProcessingInstruction> processingInstructions;
+
 	public FeedReader(FeedDoc feedDoc) {
+		this(feedDoc, ReadOptions.DEFAULTS);
+	}
+
+	FeedReader(FeedDoc feedDoc, ReadOptions options) {
 		this.feedDoc = feedDoc;
+		this.options = options;
+		this.symbols = (options.getSymbolTable() == null) ? SymbolTable
+				.forDocument() : options.getSymbolTable();
 	}
 
 	/**
@@ -53,6 +125,43 @@ class FeedReader implements Serializable {
 	 *             if the stream cannot be parsed.
 	 */
 	Feed readFeed(XMLStreamReader reader) throws Exception {
+		return readFeed(reader, null);
+	}
+
+	/**
+	 * This method walks an xml stream and either builds a Feed bean or, if a
+	 * handler is given, passes the header, entries and extensions to it as
+	 * they are read without building a Feed bean.
+	 * 
+	 * @param reader
+	 *            the object containing the atom data
+	 * @param handler
+	 *            the callback to notify or null to build a Feed bean.
+	 * @return the atom Feed bean or null if a handler was given.
+	 * @throws Exception
+	 *             if the stream cannot be parsed.
+	 */
+	Feed readFeed(XMLStreamReader reader, FeedHandler handler)
+			throws Exception {
+		FeedBuilder feed = readFeedBuilder(reader, handler);
+		return (feed == null) ? null : feedDoc.buildSortedFeed(feed);
+	}
+
+	/**
+	 * This method walks an xml stream like readFeed() but hands back the
+	 * elements it read without checking them or building a Feed bean.
+	 * 
+	 * @param reader
+	 *            the object containing the atom data
+	 * @param handler
+	 *            the callback to notify or null to collect the elements.
+	 * @return the elements of the feed or null if a handler was given.
+	 * @throws Exception
+	 *             if the stream cannot be parsed.
+	 */
+	FeedBuilder readFeedBuilder(XMLStreamReader reader, FeedHandler handler)
+			throws Exception {
+		reader = limit(reader);
 		List<Attribute> attributes = getAttributes(reader);
 		List<Author> authors = null;
 		List<Category> categories = null;
@@ -68,42 +177,106 @@ class FeedReader implements Serializable {
 		Title title = null;
 		Updated updated = null;
 		List<Entry> entries = null;
+		Element element = null;
 		String elementName = null;
+		int entryCount = 0;
+		boolean headerSent = false;
+		boolean breakOut = false;
 
 		while (reader.hasNext()) {
 			switch (reader.next()) {
 
 			case XMLStreamConstants.START_ELEMENT:
-				elementName = getElementName(reader);
-
-				if (elementName.equals("author")) {
-					authors = readAuthor(reader, authors);
-				} else if (elementName.equals("category")) {
-					categories = readCategory(reader, categories);
-				} else if (elementName.equals("contributor")) {
-					contributors = readContributor(reader, contributors);
-				} else if (elementName.equals("generator")) {
-					generator = readGenerator(reader);
-				} else if (elementName.equals("icon")) {
-					icon = readIcon(reader);
-				} else if (elementName.equals("id")) {
-					id = readId(reader);
-				} else if (elementName.equals("link")) {
-					links = readLink(reader, links);
-				} else if (elementName.equals("logo")) {
-					logo = readLogo(reader);
-				} else if (elementName.equals("rights")) {
-					rights = readRights(reader);
-				} else if (elementName.equals("subtitle")) {
-					subtitle = readSubtitle(reader);
-				} else if (elementName.equals("title")) {
-					title = readTitle(reader);
-				} else if (elementName.equals("updated")) {
-					updated = readUpdated(reader);
-				} else if (elementName.equals("entry")) {
-					entries = readEntry(reader, entries);
-				} else {// extension
-					extensions = readExtension(reader, extensions, elementName);
+				element = getElement(reader);
+				elementName = getElementName(reader, element);
+
+				if (element == Element.ENTRY
+						&& !options.acceptsEntry(entryCount)) {
+					// stop pulling from the stream once the limit is reached.
+					// an empty list marks that the entries were left unread.
+					if (handler == null) {
+						if (entries == null) {
+							entries = new LinkedList<Entry>();
+						}
+					} else if (!headerSent) {
+						headerSent = true;
+						handler.onFeedHeader(buildFeedHeader(id, title,
+								updated, rights, authors, categories,
+								contributors, links, attributes, extensions,
+								generator, subtitle, icon, logo));
+					}
+					breakOut = true;
+				} else if (handler != null && element == Element.ENTRY) {
+					entryCount++;
+					if (!headerSent) {
+						headerSent = true;
+						breakOut = !handler.onFeedHeader(buildFeedHeader(id,
+								title, updated, rights, authors, categories,
+								contributors, links, attributes, extensions,
+								generator, subtitle, icon, logo));
+					}
+					if (!breakOut) {
+						// readEntry() only reads at most one entry.
+						List<Entry> entry = readEntry(reader, null);
+						breakOut = watermarkReached
+								|| !handler.onEntry(entry.get(0));
+					}
+				} else if (element != Element.ENTRY
+						&& !options.readsFeedElement(elementName)) {
+					skipElement(reader);
+				} else {
+					switch (element) {
+					case AUTHOR:
+						authors = readAuthor(reader, authors);
+						break;
+					case CATEGORY:
+						categories = readCategory(reader, categories);
+						break;
+					case CONTRIBUTOR:
+						contributors = readContributor(reader, contributors);
+						break;
+					case GENERATOR:
+						generator = readGenerator(reader);
+						break;
+					case ICON:
+						icon = readIcon(reader);
+						break;
+					case ID:
+						id = readId(reader);
+						break;
+					case LINK:
+						links = readLink(reader, links);
+						break;
+					case LOGO:
+						logo = readLogo(reader);
+						break;
+					case RIGHTS:
+						rights = readRights(reader);
+						break;
+					case SUBTITLE:
+						subtitle = readSubtitle(reader);
+						break;
+					case TITLE:
+						title = readTitle(reader);
+						break;
+					case UPDATED:
+						updated = readUpdated(reader);
+						break;
+					case ENTRY:
+						entryCount++;
+						entries = readEntry(reader, entries);
+						breakOut = watermarkReached;
+						break;
+					default:// extension
+						if (handler == null) {
+							extensions = readExtension(reader, extensions,
+									elementName);
+						} else {
+							// reported once here and not in the header.
+							breakOut = !handler.onExtension(readExtension(
+									reader, null, elementName).get(0));
+						}
+					}
 				}
 				break;
 
@@ -127,19 +300,152 @@ class FeedReader implements Serializable {
 			default:
 				break;
 			}
+			if (breakOut) {
+				break;
+			}
 		}
 
-		// because the sort extension does not enforce placement of the element
-		// do a check after the feed is built to determine if it needs to be
-		// sorted.
-		return feedDoc
-				.buildFeed(feedDoc.checkForAndApplyExtension(
-						feedDoc.buildFeed(id, title, updated, rights, authors,
-								categories, contributors, links, attributes,
-								extensions, generator, subtitle, icon, logo,
-								entries),
-						feedDoc.buildAttribute("xmlns:sort",
-								"http://www.colorfulsoftware.com/projects/atomsphere/extension/sort/1.0")));
+		if (handler != null) {
+			if (!headerSent && !breakOut) {
+				handler.onFeedHeader(buildFeedHeader(id, title, updated,
+						rights, authors, categories, contributors, links,
+						attributes, extensions, generator, subtitle, icon,
+						logo));
+			}
+			handler.onEnd();
+			return null;
+		}
+
+		// the lists were made here so they are handed over without copying.
+		return new FeedBuilder(id, title, updated, rights, authors,
+				categories, contributors, links, attributes, extensions,
+				generator, subtitle, icon, logo, entries);
+	}
+
+	// the feed header is handed to a FeedHandler as a source element which
+	// does not check for the elements that are required for a feed.
+	private Source buildFeedHeader(Id id, Title title, Updated updated,
+			Rights rights, List<Author> authors, List<Category> categories,
+			List<Contributor> contributors, List<Link> links,
+			List<Attribute> attributes, List<Extension> extensions,
+			Generator generator, Subtitle subtitle, Icon icon, Logo logo)
+			throws AtomSpecException {
+		if (id == null) {
+			throw new AtomSpecException(
+					"atom:feed elements MUST contain exactly one atom:id element.");
+		}
+		if (title == null) {
+			throw new AtomSpecException(
+					"atom:feed elements MUST contain exactly one atom:title element.");
+		}
+		if (updated == null) {
+			throw new AtomSpecException(
+					"atom:feed elements MUST contain exactly one atom:updated element.");
+		}
+		return feedDoc.buildSource(id, title, updated, rights, authors,
+				categories, contributors, links, attributes, extensions,
+				generator, subtitle, icon, logo);
+	}
+
+	// wraps the root element with the xml prolog read from the document.
+	<T> AtomDocument<T> toDocument(T root) {
+		return new AtomDocument<T>(root, encoding, xmlVersion,
+				processingInstructions);
+	}
+
+	/**
+	 * This method advances the stream to the next entry element and reads it
+	 * into an Entry bean. Feed level elements are skipped without being read.
+	 *
+	 * @param reader
+	 *            the object containing the atom data
+	 * @return the next Entry bean or null if the end of the document has been
+	 *         reached.
+	 * @throws Exception
+	 *             if the stream cannot be parsed.
+	 */
+	Entry readNextEntry(XMLStreamReader reader) throws Exception {
+		reader = limit(reader);
+		while (reader.hasNext()) {
+			if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+				Element element = getElement(reader);
+				if (element == Element.ENTRY) {
+					// readEntry() only reads at most one entry and none if
+					// it is not the selected one.
+					List<Entry> entry = readEntry(reader, null);
+					if (watermarkReached) {
+						return null;
+					}
+					if (!entry.isEmpty()) {
+						return entry.get(0);
+					}
+				} else if (element != Element.FEED) {
+					skipElement(reader);
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * This method reads the first entry element of a feed or entry document,
+	 * or the first one with the given atom:id, and leaves the rest of the
+	 * stream unread. The entries in front of it are skipped as soon as their
+	 * id has been read, without being built or validated.
+	 *
+	 * @param reader
+	 *            the object containing the atom data
+	 * @param atomId
+	 *            the atom:id of the entry to read or null for the first one.
+	 * @return the Entry bean or null if there is no such entry.
+	 * @throws Exception
+	 *             if the stream cannot be parsed.
+	 */
+	Entry findEntry(XMLStreamReader reader, String atomId) throws Exception {
+		selectedId = (atomId == null) ? null : atomId.trim();
+		try {
+			return readNextEntry(reader);
+		} finally {
+			selectedId = null;
+		}
+	}
+
+	// true unless findEntry() is looking for an entry with another id.
+	private boolean isSelected(Id id) {
+		return selectedId == null
+				|| (id != null && id.getAtomUri() != null && id.getAtomUri()
+						.trim().equals(selectedId));
+	}
+
+	// reads through a LimitedStreamReader if the options limit the parser
+	// events. the same one is used for as long as the parser is.
+	private XMLStreamReader limit(XMLStreamReader reader)
+			throws ReadLimitException {
+		if (!options.limitsEvents() || reader == limitedReader) {
+			return reader;
+		}
+		if (limitedReader == null || limitedReader.getParent() != reader) {
+			limitedReader = new LimitedStreamReader(reader, options);
+		}
+		return limitedReader;
+	}
+
+	// skips past the end of the current element including all of its
+	// children.
+	private void skipElement(XMLStreamReader reader) throws Exception {
+		int depth = 1;
+		while (depth > 0 && reader.hasNext()) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				depth++;
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				depth--;
+				break;
+			default:
+				break;
+			}
+		}
 	}
 
 	private List<Attribute> getAttributes(XMLStreamReader reader)
@@ -149,13 +455,13 @@ class FeedReader implements Serializable {
 		// this is here to accommodate initially calling sub elements from the
 		// FeedReader
 		if (reader.getEventType() == XMLStreamConstants.START_DOCUMENT) {
-			feedDoc.setEncoding(reader.getEncoding());
-			feedDoc.setXmlVersion(reader.getVersion());
+			encoding = reader.getEncoding();
+			xmlVersion = reader.getVersion();
 			reader.next();
 		}
 
 		// make sure all the attribute values are properly xml encoded/escaped
-		// with value.replaceAll("&amp;","&").replaceAll("&", "&amp;")
+		// with XMLEscaper.escapeAttribute()
 
 		// add the processing instructions for now.
 		List<FeedDoc.ProcessingInstruction> processingInstructions = null;
@@ -167,14 +473,14 @@ class FeedReader implements Serializable {
 					processingInstructions = new LinkedList<FeedDoc.ProcessingInstruction>();
 				}
 				processingInstructions
-						.add(new FeedDoc().new ProcessingInstruction(reader
+						.add(new FeedDoc.ProcessingInstruction(reader
 								.getPITarget(), reader.getPIData()));
 			}
 			reader.next();
 		}
 
 		if (processingInstructions != null) {
-			feedDoc.setProcessingInstructions(processingInstructions);
+			this.processingInstructions = processingInstructions;
 		}
 
 		// add the namespace attributes.
@@ -186,9 +492,9 @@ class FeedReader implements Serializable {
 			}
 
 			if (reader.getNamespaceURI(i) != null) {
-				attributes.add(feedDoc.buildAttribute(attrName, reader
-						.getNamespaceURI(i).replaceAll("&amp;", "&")
-						.replaceAll("&", "&amp;")));
+				attributes.add(feedDoc.buildAttribute(symbols.intern(attrName),
+						symbols.intern(XMLEscaper.escapeAttribute(reader
+								.getNamespaceURI(i)))));
 			}
 
 		}
@@ -202,9 +508,14 @@ class FeedReader implements Serializable {
 				attrName = reader.getAttributeName(i).getLocalPart();
 			}
 
-			attributes.add(feedDoc.buildAttribute(attrName,
-					reader.getAttributeValue(i).replaceAll("&amp;", "&")
-							.replaceAll("&", "&amp;")));
+			attrName = symbols.intern(attrName);
+
+			String attrValue = XMLEscaper.escapeAttribute(reader
+					.getAttributeValue(i));
+			if (SYMBOL_ATTRIBUTES.contains(attrName)) {
+				attrValue = symbols.intern(attrValue);
+			}
+			attributes.add(feedDoc.buildAttribute(attrName, attrValue));
 		}
 
 		// return null if no attributes were created.
@@ -217,24 +528,23 @@ class FeedReader implements Serializable {
 			extensions = new LinkedList<Extension>();
 		}
 
-		StringBuilder extText = new StringBuilder();
+		String extText = null;
 		List<Attribute> attributes = getAttributes(reader);
 
 		// if this is a top level extension and it is has type of xhtml then
 		// treat it as such.
 		if (containsXHTML(reader, elementName)) {
-			extText.append(readXHTML(reader, elementName, true));
+			extText = readXHTML(reader, elementName, true);
 
 		} else {
-
+			int start = markup.length();
 			boolean breakOut = false;
 			while (reader.hasNext()) {
 				switch (reader.next()) {
 				case XMLStreamConstants.START_ELEMENT:
 					String elementNameStart = getElementName(reader);
 					if (!elementNameStart.equals(elementName)) {
-						extText.append(readSubExtension(reader,
-								elementNameStart, attributes));
+						readSubExtension(reader, elementNameStart);
 					}
 					break;
 
@@ -246,33 +556,27 @@ class FeedReader implements Serializable {
 					break;
 
 				default:
-					extText.append(reader.getText());
+					appendText(reader, false, false);
 					break;
 				}
 				if (breakOut) {
 					break;
 				}
 			}
+			extText = takeMarkup(start);
 		}
 
 		extensions.add(feedDoc.buildExtension(elementName, attributes,
-				extText.toString()));
+				extText));
 		return extensions;
 	}
 
-	private String readSubExtension(XMLStreamReader reader, String elementName,
-			List<Attribute> parentAttributes) throws Exception {
-
-		StringBuffer xhtml = new StringBuffer("<" + elementName);
+	// appends the nested extension element to the markup.
+	private void readSubExtension(XMLStreamReader reader, String elementName)
+			throws Exception {
 
-		List<Attribute> attributes = getAttributes(reader);
-		// add the attributes
-		if (attributes != null && attributes.size() > 0) {
-			for (Attribute attr : attributes) {
-				xhtml.append(" " + attr.getName() + "=\"" + attr.getValue()
-						+ "\"");
-			}
-		}
+		markup.append('<').append(elementName);
+		appendAttributes(getAttributes(reader));
 		boolean openElementClosed = false;
 		String elementNameStart = elementName;
 
@@ -285,8 +589,7 @@ class FeedReader implements Serializable {
 			case XMLStreamConstants.START_ELEMENT:
 				elementNameStart = getElementName(reader);
 				if (!elementNameStart.equals(elementName)) {
-					xhtml.append(readSubExtension(reader, elementNameStart,
-							attributes));
+					readSubExtension(reader, elementNameStart);
 				}
 				break;
 
@@ -297,9 +600,9 @@ class FeedReader implements Serializable {
 				}
 
 				if (openElementClosed) {
-					xhtml.append("</" + elementName + ">");
+					markup.append("</").append(elementName).append('>');
 				} else {
-					xhtml.append(" />");
+					markup.append(" />");
 				}
 
 				break;
@@ -313,22 +616,21 @@ class FeedReader implements Serializable {
 			default:
 				// close the open element if we get here
 				if (elementNameStart.equals(elementName)) {
-					xhtml.append(" >");
+					markup.append(" >");
 					openElementClosed = true;
 				}
-				xhtml.append(reader.getText());
+				appendText(reader, false, false);
 			}
 			if (breakOut) {
 				break;
 			}
 		}
-		return xhtml.toString();
 	}
 
 	private String readXHTML(XMLStreamReader reader, String parentElement,
 			boolean escapeHTML) throws Exception {
 		String parentNamespaceURI = namespaceURI;
-		StringBuffer xhtml = new StringBuffer();
+		int start = markup.length();
 		String elementName = null;
 		boolean justReadStart = false;
 
@@ -338,24 +640,22 @@ class FeedReader implements Serializable {
 			switch (reader.next()) {
 
 			case XMLStreamConstants.START_ELEMENT:
-				elementName = getElementName(reader);
 				// if we read 2 start elements in a row, we need to close the
 				// first start element.
 				if (justReadStart) {
-					xhtml.append(">");
+					markup.append('>');
 				}
 
-				xhtml.append("<" + elementName);
-
-				List<Attribute> attributes = getAttributes(reader);
-				// add the attributes
-				if (attributes != null && attributes.size() > 0) {
-					for (Attribute attr : attributes) {
-						String attrVal = attr.getValue();
-						xhtml.append(" " + attr.getName() + "=\"" + attrVal
-								+ "\"");
-					}
+				markup.append('<');
+				String prefix = reader.getPrefix();
+				if (prefix != null && prefix.length() > 0) {
+					markup.append(prefix).append(':');
 				}
+				markup.append(reader.getLocalName());
+				namespaceURI = (reader.getNamespaceURI() == null) ? ATOM_NAMESPACE
+						: reader.getNamespaceURI();
+
+				appendAttributes(getAttributes(reader));
 				justReadStart = true;
 
 				break;
@@ -369,9 +669,9 @@ class FeedReader implements Serializable {
 					breakOut = true;
 				} else {
 					if (justReadStart) {
-						xhtml.append(" />");
+						markup.append(" />");
 					} else {
-						xhtml.append("</" + elementName + ">");
+						markup.append("</").append(elementName).append('>');
 					}
 					justReadStart = false;
 				}
@@ -385,37 +685,82 @@ class FeedReader implements Serializable {
 
 			default:
 				if (justReadStart) {
-					xhtml.append(">");
+					markup.append('>');
 					justReadStart = false;
 				}
-				// if this is html, escape the markup.
-				if (escapeHTML) {
-					String text = reader.getText();
-					// if the feed we are reading has invalid escaping the text
-					// will be null which results in a skipping of the malformed
-					// character.
-					if (text != null) {
-						xhtml.append(text.replaceAll("&", "&amp;")
-								.replaceAll("<", "&lt;")
-								.replaceAll(">", "&gt;"));
-					}
-				} else {
-					String text = reader.getText();
-					// escape the sole '&lt;' and '&amp;' sole characters.
-					xhtml.append(text.replaceAll("&", "&amp;").replaceAll("<",
-							"&lt;"));
-				}
+				// if this is html, escape the markup. otherwise escape the
+				// sole '&lt;' and '&amp;' characters. if the feed we are
+				// reading has invalid escaping the text will be null which
+				// results in a skipping of the malformed character.
+				appendText(reader, true, escapeHTML);
 			}
 			if (breakOut) {
 				break;
 			}
 		}
-		return xhtml.toString();
+		return takeMarkup(start);
+	}
+
+	// the markup of the xhtml and extension elements being read. nested
+	// elements append to the same builder so it is reused for the whole
+	// parse.
+	private final StringBuilder markup = new StringBuilder();
+
+	// removes and returns the markup appended since start.
+	private String takeMarkup(int start) {
+		String text = markup.substring(start);
+		markup.setLength(start);
+		return text;
+	}
+
+	private void appendAttributes(List<Attribute> attributes) {
+		if (attributes != null) {
+			for (Attribute attr : attributes) {
+				markup.append(' ').append(attr.getName()).append("=\"")
+						.append(attr.getValue()).append('"');
+			}
+		}
+	}
+
+	// appends the text of the current event to the markup. the characters
+	// are copied straight out of the parser's buffer when it exposes one.
+	private void appendText(XMLStreamReader reader, boolean escape,
+			boolean escapeGreaterThan) {
+		switch (reader.getEventType()) {
+		case XMLStreamConstants.CHARACTERS:
+		case XMLStreamConstants.CDATA:
+		case XMLStreamConstants.SPACE:
+		case XMLStreamConstants.COMMENT:
+			char[] text = reader.getTextCharacters();
+			int start = reader.getTextStart();
+			int end = start + reader.getTextLength();
+			if (escape) {
+				XMLEscaper.appendEscapedText(markup, text, start, end,
+						escapeGreaterThan);
+			} else {
+				markup.append(text, start, end - start);
+			}
+			break;
+		default:
+			String other = reader.getText();
+			if (other != null) {
+				markup.append(escape ? XMLEscaper.escapeText(other,
+						escapeGreaterThan) : other);
+			}
+		}
 	}
 
 	List<Entry> readEntry(XMLStreamReader reader, List<Entry> entries)
 			throws Exception {
 
+		entriesStarted++;
+		if (options.getMaxEntriesAllowed() != ReadOptions.UNLIMITED
+				&& entriesStarted > options.getMaxEntriesAllowed()) {
+			throw new ReadLimitException("The document has more than "
+					+ options.getMaxEntriesAllowed() + " entries.", reader
+					.getLocation());
+		}
+
 		if (entries == null) {
 			entries = new LinkedList<Entry>();
 		}
@@ -434,6 +779,7 @@ class FeedReader implements Serializable {
 		Published published = null;
 		Summary summary = null;
 		Source source = null;
+		Element element = null;
 		String elementName = null;
 
 		while (reader.hasNext()) {
@@ -441,39 +787,68 @@ class FeedReader implements Serializable {
 			switch (reader.next()) {
 
 			case XMLStreamConstants.START_ELEMENT:
-				elementName = getElementName(reader);
-				if (elementName.equals("id")) {
+				element = getElement(reader);
+				elementName = getElementName(reader, element);
+				if (!options.readsEntryElement(elementName)) {
+					skipElement(reader);
+					break;
+				}
+				switch (element) {
+				case ID:
 					id = readId(reader);
-				} else if (elementName.equals("author")) {
+					watermarkReached = options.isWatermark(id);
+					if (!isSelected(id)) {
+						// not the entry findEntry() is looking for.
+						skipElement(reader);
+						return entries;
+					}
+					break;
+				case AUTHOR:
 					authors = readAuthor(reader, authors);
-				} else if (elementName.equals("category")) {
+					break;
+				case CATEGORY:
 					categories = readCategory(reader, categories);
-				} else if (elementName.equals("contributor")) {
+					break;
+				case CONTRIBUTOR:
 					contributors = readContributor(reader, contributors);
-				} else if (elementName.equals("content")) {
+					break;
+				case CONTENT:
 					content = readContent(reader);
-				} else if (elementName.equals("link")) {
+					break;
+				case LINK:
 					links = readLink(reader, links);
-				} else if (elementName.equals("published")) {
+					break;
+				case PUBLISHED:
 					published = readPublished(reader);
-				} else if (elementName.equals("rights")) {
+					break;
+				case RIGHTS:
 					rights = readRights(reader);
-				} else if (elementName.equals("source")) {
+					break;
+				case SOURCE:
 					source = readSource(reader);
-				} else if (elementName.equals("summary")) {
+					break;
+				case SUMMARY:
 					summary = readSummary(reader);
-				} else if (elementName.equals("title")) {
+					break;
+				case TITLE:
 					title = readTitle(reader);
-				} else if (elementName.equals("updated")) {
+					break;
+				case UPDATED:
 					updated = readUpdated(reader);
-				} else {// extension
+					watermarkReached = options.isWatermark(updated);
+					break;
+				default:// extension
 					extensions = readExtension(reader, extensions, elementName);
 				}
+				// the entry has already been seen so leave the rest unread.
+				if (watermarkReached) {
+					skipElement(reader);
+					return entries;
+				}
 				break;
 
 			case XMLStreamConstants.END_ELEMENT:
-				elementName = getElementName(reader);
-				if (elementName.equals("entry")) {
+				if (getElement(reader) == Element.ENTRY) {
 					breakOut = true;
 				}
 				break;
@@ -483,6 +858,11 @@ class FeedReader implements Serializable {
 			}
 		}
 
+		// an entry without an id cannot be the selected one.
+		if (!isSelected(id)) {
+			return entries;
+		}
+
 		// throw an error if the updated entry is not available here.
 		if (updated == null) {
 			throw new AtomSpecException(
@@ -496,7 +876,29 @@ class FeedReader implements Serializable {
 	}
 
 	// set the current namespace.
-	private String namespaceURI = "http://www.w3.org/2005/Atom";
+	private String namespaceURI = ATOM_NAMESPACE;
+
+	// resolves the current element from its namespace uri and local name
+	// without building its prefixed name.
+	private Element getElement(XMLStreamReader reader) {
+		String uri = reader.getNamespaceURI();
+		if (uri == null || uri.length() == 0) {
+			namespaceURI = ATOM_NAMESPACE;
+		} else {
+			namespaceURI = uri;
+			if (!uri.equals(ATOM_NAMESPACE)) {
+				return Element.EXTENSION;
+			}
+		}
+		return Element.forLocalName(reader.getLocalName());
+	}
+
+	// atom elements are named by their local name. only extension elements
+	// need their prefixed name to be built.
+	private String getElementName(XMLStreamReader reader, Element element) {
+		return (element == Element.EXTENSION) ? getElementName(reader)
+				: element.localName;
+	}
 
 	private String getElementName(XMLStreamReader reader) {
 		String elementName = null;
@@ -510,7 +912,7 @@ class FeedReader implements Serializable {
 			elementName = reader.getLocalName();
 		}
 		// set the current namespace prefix:
-		namespaceURI = (reader.getNamespaceURI() == null) ? "http://www.w3.org/2005/Atom"
+		namespaceURI = (reader.getNamespaceURI() == null) ? ATOM_NAMESPACE
 				: reader.getNamespaceURI();
 		return elementName;
 	}
@@ -585,6 +987,7 @@ class FeedReader implements Serializable {
 		Subtitle subtitle = null;
 		Title title = null;
 		Updated updated = null;
+		Element element = null;
 		String elementName = null;
 
 		attributes = getAttributes(reader);
@@ -593,40 +996,57 @@ class FeedReader implements Serializable {
 			switch (reader.next()) {
 
 			case XMLStreamConstants.START_ELEMENT:
-				elementName = getElementName(reader);
+				element = getElement(reader);
+				elementName = getElementName(reader, element);
 				// call each feed elements read method depending on the name
-				if (elementName.equals("author")) {
+				if (!options.readsSourceElement(elementName)) {
+					skipElement(reader);
+					break;
+				}
+				switch (element) {
+				case AUTHOR:
 					authors = readAuthor(reader, authors);
-				} else if (elementName.equals("category")) {
+					break;
+				case CATEGORY:
 					categories = readCategory(reader, categories);
-				} else if (elementName.equals("contributor")) {
+					break;
+				case CONTRIBUTOR:
 					contributors = readContributor(reader, contributors);
-				} else if (elementName.equals("generator")) {
+					break;
+				case GENERATOR:
 					generator = readGenerator(reader);
-				} else if (elementName.equals("icon")) {
+					break;
+				case ICON:
 					icon = readIcon(reader);
-				} else if (elementName.equals("id")) {
+					break;
+				case ID:
 					id = readId(reader);
-				} else if (elementName.equals("link")) {
+					break;
+				case LINK:
 					links = readLink(reader, links);
-				} else if (elementName.equals("logo")) {
+					break;
+				case LOGO:
 					logo = readLogo(reader);
-				} else if (elementName.equals("rights")) {
+					break;
+				case RIGHTS:
 					rights = readRights(reader);
-				} else if (elementName.equals("subtitle")) {
+					break;
+				case SUBTITLE:
 					subtitle = readSubtitle(reader);
-				} else if (elementName.equals("title")) {
+					break;
+				case TITLE:
 					title = readTitle(reader);
-				} else if (elementName.equals("updated")) {
+					break;
+				case UPDATED:
 					updated = readUpdated(reader);
-				} else {// extension
+					break;
+				default:// extension
 					extensions = readExtension(reader, extensions, elementName);
 				}
 				break;
 
 			case XMLStreamConstants.END_ELEMENT:
-				elementName = getElementName(reader);
-				if (elementName.equals("source")) {
+				if (getElement(reader) == Element.SOURCE) {
 					breakOut = true;
 				}
 				break;
@@ -781,29 +1201,32 @@ class FeedReader implements Serializable {
 		URI uri = null;
 		Email email = null;
 		List<Extension> extensions = null;
-		String elementName = null;
+		Element personElement = Element.forLocalName(personType);
+		Element element = null;
 
 		while (reader.hasNext()) {
 			switch (reader.next()) {
 			case XMLStreamConstants.START_ELEMENT:
-				elementName = getElementName(reader);
-				if (elementName.equals("name")) {
-					name = feedDoc.buildName(reader.getElementText());
-				} else if (elementName.equals("uri")) {
+				element = getElement(reader);
+				if (element == Element.NAME) {
+					name = feedDoc.buildName(symbols.intern(reader
+							.getElementText()));
+				} else if (element == Element.URI) {
 					uri = feedDoc.buildURI(reader.getElementText());
-				} else if (elementName.equals("email")) {
-					email = feedDoc.buildEmail(reader.getElementText());
+				} else if (element == Element.EMAIL) {
+					email = feedDoc.buildEmail(symbols.intern(reader
+							.getElementText()));
 				} else {
 					if (extensions == null) {
 						extensions = new LinkedList<Extension>();
 					}
-					extensions = readExtension(reader, extensions, elementName);
+					extensions = readExtension(reader, extensions,
+							getElementName(reader, element));
 				}
 				break;
 
 			case XMLStreamConstants.END_ELEMENT:
-				elementName = getElementName(reader);
-				if (elementName.equals(personType)) {
+				if (getElement(reader) == personElement) {
 					breakOut = true;
 				}
 				break;
@@ -0,0 +1,70 @@
+/**
+ * Copyright 2011 Bill Brown
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.colorfulsoftware.atom;
+
+/**
+ * This class holds the outcome of reading one source of a batch: either the
+ * Feed that was read or the exception that stopped it. A source that fails
+ * does not affect the others in the batch.
+ *
+ * @see FeedDoc#readFeeds(java.util.Collection, java.util.concurrent.Executor)
+ * @author Bill Brown
+ *
+ */
+public final class FeedResult {
+
+	private final Object source;
+	private final Feed feed;
+	private final Exception exception;
+
+	// use the FeedDoc readFeeds methods.
+	FeedResult(Object source, Feed feed, Exception exception) {
+		this.source = source;
+		this.feed = feed;
+		this.exception = exception;
+	}
+
+	/**
+	 * @return the File, URL, InputStream or ByteBuffer the feed was read
+	 *         from.
+	 */
+	public Object getSource() {
+		return source;
+	}
+
+	/**
+	 * @return the feed or null if it could not be read.
+	 */
+	public Feed getFeed() {
+		return feed;
+	}
+
+	/**
+	 * @return the exception that stopped the feed from being read, usually an
+	 *         AtomSpecException or an XMLStreamException, or null if it was
+	 *         read.
+	 */
+	public Exception getException() {
+		return exception;
+	}
+
+	/**
+	 * @return true if the feed was read.
+	 */
+	public boolean isRead() {
+		return exception == null;
+	}
+}
@@ -291,8 +291,7 @@ class FeedWriter implements Serializable {
 			String rawText;
 
 			// prepare the markup to be written.
-			text = text.replaceAll("&amp;", "&").replaceAll("&lt;", "<")
-					.replaceAll("&gt;", ">");
+			text = XMLEscaper.unescapeMarkup(text);
 
 			// we are now at a start element,
 			// or an empty element
@@ -19,7 +19,6 @@
 package com.colorfulsoftware.atom;
 
 import java.io.Serializable;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -44,7 +43,7 @@ public class Generator implements Serializable {
 	 * 
 	 */
 	private static final long serialVersionUID = 6555330269825432901L;
-	private final List<Attribute> attributes;
+	private final AttributeList attributes;
 	private final Attribute uri;
 	private final Attribute version;
 	private final String text;
@@ -53,20 +52,17 @@ public class Generator implements Serializable {
 	// use the factory method in the FeedDoc.
 	Generator(List<Attribute> attributes, String text) throws AtomSpecException {
 
-		this.unboundPrefixes = new LinkedList<String>();
-
 		if (attributes == null) {
 			this.attributes = null;
 		} else {
-			this.attributes = new LinkedList<Attribute>();
-			for (Attribute attr : attributes) {
+			this.attributes = AttributeList.of(attributes);
+			for (Attribute attr : this.attributes) {
 				// check for unsupported attribute.
 				if (!new AttributeSupport(attr).verify(this)) {
 					throw new AtomSpecException("Unsupported attribute "
 							+ attr.getName()
 							+ " in the atom:generator element.");
 				}
-				this.attributes.add(new Attribute(attr));
 				// check for unbound attribute prefixes
 				if (attr.getName().indexOf(":") != -1
 						&& !attr.getName().equals("xml:lang")
@@ -75,15 +71,14 @@ public class Generator implements Serializable {
 						&& getAttribute("xmlns:"
 								+ attr.getName().substring(0,
 										attr.getName().indexOf(":"))) == null) {
-					this.unboundPrefixes.add(attr.getName().substring(0,
-							attr.getName().indexOf(":")));
+					this.unboundPrefixes = UnboundPrefixes.add(
+							this.unboundPrefixes,
+							attr.getName().substring(0,
+									attr.getName().indexOf(":")));
 				}
 			}
 		}
 
-		this.unboundPrefixes = (this.unboundPrefixes.size() == 0) ? null
-				: this.unboundPrefixes;
-
 		this.uri = getAttribute("uri");
 
 		this.version = getAttribute("version");
@@ -98,7 +93,7 @@ public class Generator implements Serializable {
 	}
 
 	Generator(Generator generator) {
-		this.attributes = generator.getAttributes();
+		this.attributes = generator.attributes;
 		this.uri = generator.getUri();
 		this.version = generator.getVersion();
 		this.text = generator.text;
@@ -109,14 +104,7 @@ public class Generator implements Serializable {
 	 * @return the category attribute list.
 	 */
 	public List<Attribute> getAttributes() {
-
-		List<Attribute> attrsCopy = new LinkedList<Attribute>();
-		if (this.attributes != null) {
-			for (Attribute attr : this.attributes) {
-				attrsCopy.add(new Attribute(attr));
-			}
-		}
-		return (this.attributes == null) ? null : attrsCopy;
+		return attributes;
 	}
 
 	/**
@@ -124,7 +112,7 @@ public class Generator implements Serializable {
 	 * @return the label attribute
 	 */
 	public Attribute getUri() {
-		return (uri == null) ? null : new Attribute(uri);
+		return uri;
 	}
 
 	/**
@@ -132,7 +120,7 @@ public class Generator implements Serializable {
 	 * @return the scheme attribute
 	 */
 	public Attribute getVersion() {
-		return (version == null) ? null : new Attribute(version);
+		return version;
 	}
 
 	/**
@@ -149,14 +137,8 @@ public class Generator implements Serializable {
 	 * @return the Attribute object if attrName matches or null if not found.
 	 */
 	public Attribute getAttribute(String attrName) {
-		if (this.attributes != null) {
-			for (Attribute attribute : this.attributes) {
-				if (attribute.getName().equals(attrName)) {
-					return new Attribute(attribute);
-				}
-			}
-		}
-		return null;
+		return (attributes == null) ? null : attributes
+				.getAttribute(attrName);
 	}
 
 	/**
@@ -0,0 +1,175 @@
+/**
+ * Copyright 2011 Bill Brown
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.colorfulsoftware.atom;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+
+/**
+ * This class checks every event the FeedReader pulls from the parser against
+ * the element depth, text length and total character limits of the
+ * ReadOptions, so a hostile document is rejected while it is being read
+ * instead of after it has been turned into markup strings. It is only put in
+ * front of the parser when one of those limits is set.
+ *
+ * @author Bill Brown
+ *
+ */
+class LimitedStreamReader extends StreamReaderDelegate {
+
+	private final ReadOptions options;
+	private int depth;
+	// the characters of text since the last start or end tag.
+	private long textLength;
+	private long characters;
+
+	/**
+	 * @param reader
+	 *            the parser to read from.
+	 * @param options
+	 *            the options with the limits to enforce.
+	 * @throws ReadLimitException
+	 *             if the attributes of the element the parser is on already
+	 *             go over the character limit.
+	 */
+	LimitedStreamReader(XMLStreamReader reader, ReadOptions options)
+			throws ReadLimitException {
+		super(reader);
+		this.options = options;
+		if (reader.getEventType() == XMLStreamConstants.START_ELEMENT) {
+			// the element the parser is on has been read already.
+			depth = 1;
+			countAttributes();
+		}
+	}
+
+	@Override
+	public int next() throws XMLStreamException {
+		int event = super.next();
+		switch (event) {
+		case XMLStreamConstants.START_ELEMENT:
+			textLength = 0;
+			depth++;
+			if (options.getMaxDepth() != ReadOptions.UNLIMITED
+					&& depth > options.getMaxDepth()) {
+				throw new ReadLimitException(
+						"The document nests elements deeper than "
+								+ options.getMaxDepth() + " levels.",
+						getLocation());
+			}
+			countAttributes();
+			break;
+		case XMLStreamConstants.END_ELEMENT:
+			textLength = 0;
+			depth--;
+			break;
+		case XMLStreamConstants.CHARACTERS:
+		case XMLStreamConstants.CDATA:
+		case XMLStreamConstants.SPACE:
+			textLength += getTextLength();
+			if (options.getMaxTextLength() != ReadOptions.UNLIMITED
+					&& textLength > options.getMaxTextLength()) {
+				throw new ReadLimitException(
+						"The document has an element with more than "
+								+ options.getMaxTextLength()
+								+ " characters of text.", getLocation());
+			}
+			countCharacters(getTextLength());
+			break;
+		case XMLStreamConstants.COMMENT:
+			countCharacters(getTextLength());
+			break;
+		default:
+			break;
+		}
+		return event;
+	}
+
+	private void countAttributes() throws ReadLimitException {
+		for (int i = 0; i < getAttributeCount(); i++) {
+			countCharacters(getAttributeValue(i).length());
+		}
+	}
+
+	private void countCharacters(int count) throws ReadLimitException {
+		characters += count;
+		if (options.getMaxCharacters() != ReadOptions.UNLIMITED
+				&& characters > options.getMaxCharacters()) {
+			throw new ReadLimitException("The document has more than "
+					+ options.getMaxCharacters() + " characters.",
+					getLocation());
+		}
+	}
+
+	// reads the text through next() so it is counted as it is read.
+	@Override
+	public String getElementText() throws XMLStreamException {
+		if (getEventType() != XMLStreamConstants.START_ELEMENT) {
+			throw new XMLStreamException(
+					"parser must be on START_ELEMENT to read next text",
+					getLocation());
+		}
+		StringBuilder text = new StringBuilder();
+		int event = next();
+		while (event != XMLStreamConstants.END_ELEMENT) {
+			switch (event) {
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.CDATA:
+			case XMLStreamConstants.SPACE:
+			case XMLStreamConstants.ENTITY_REFERENCE:
+				text.append(getTextCharacters(), getTextStart(),
+						getTextLength());
+				break;
+			case XMLStreamConstants.PROCESSING_INSTRUCTION:
+			case XMLStreamConstants.COMMENT:
+				break;
+			case XMLStreamConstants.END_DOCUMENT:
+				throw new XMLStreamException(
+						"unexpected end of document when reading element text content",
+						getLocation());
+			case XMLStreamConstants.START_ELEMENT:
+				throw new XMLStreamException(
+						"element text content may not contain START_ELEMENT",
+						getLocation());
+			default:
+				throw new XMLStreamException("Unexpected event type " + event,
+						getLocation());
+			}
+			event = next();
+		}
+		return text.toString();
+	}
+
+	@Override
+	public int nextTag() throws XMLStreamException {
+		int event = next();
+		while ((event == XMLStreamConstants.CHARACTERS && isWhiteSpace())
+				|| (event == XMLStreamConstants.CDATA && isWhiteSpace())
+				|| event == XMLStreamConstants.SPACE
+				|| event == XMLStreamConstants.PROCESSING_INSTRUCTION
+				|| event == XMLStreamConstants.COMMENT) {
+			event = next();
+		}
+		if (event != XMLStreamConstants.START_ELEMENT
+				&& event != XMLStreamConstants.END_ELEMENT) {
+			throw new XMLStreamException("expected start or end tag",
+					getLocation());
+		}
+		return event;
+	}
+}
@@ -21,7 +21,6 @@
 package com.colorfulsoftware.atom;
 
 import java.io.Serializable;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -52,7 +51,7 @@ public class Link implements Serializable {
 	 * 
 	 */
 	private static final long serialVersionUID = -7730515433344653457L;
-	private final List<Attribute> attributes;
+	private final AttributeList attributes;
 	private final Attribute href;
 	private final Attribute rel;
 	private final Attribute type;
@@ -65,20 +64,17 @@ public class Link implements Serializable {
 	// use the factory method in the FeedDoc.
 	Link(List<Attribute> attributes, String content) throws AtomSpecException {
 
-		this.unboundPrefixes = new LinkedList<String>();
-
 		if (attributes == null) {
 			throw new AtomSpecException(
 					"atom:link elements MUST have an href attribute, whose value MUST be a IRI reference.");
 		} else {
-			this.attributes = new LinkedList<Attribute>();
-			for (Attribute attr : attributes) {
+			this.attributes = AttributeList.of(attributes);
+			for (Attribute attr : this.attributes) {
 				// check for unsupported attribute.
 				if (!new AttributeSupport(attr).verify(this)) {
 					throw new AtomSpecException("Unsupported attribute "
 							+ attr.getName() + " for this link element.");
 				}
-				this.attributes.add(new Attribute(attr));
 				// check for unbound attribute prefixes
 				if (attr.getName().indexOf(":") != -1
 						&& !attr.getName().equals("xml:lang")
@@ -87,15 +83,14 @@ public class Link implements Serializable {
 						&& getAttribute("xmlns:"
 								+ attr.getName().substring(0,
 										attr.getName().indexOf(":"))) == null) {
-					this.unboundPrefixes.add(attr.getName().substring(0,
-							attr.getName().indexOf(":")));
+					this.unboundPrefixes = UnboundPrefixes.add(
+							this.unboundPrefixes,
+							attr.getName().substring(0,
+									attr.getName().indexOf(":")));
 				}
 			}
 		}
 
-		this.unboundPrefixes = (this.unboundPrefixes.size() == 0) ? null
-				: this.unboundPrefixes;
-
 		if ((this.href = getAttribute("href")) == null) {
 			throw new AtomSpecException(
 					"atom:link elements MUST have an href attribute, whose value MUST be a IRI reference.");
@@ -119,7 +114,7 @@ public class Link implements Serializable {
 	}
 
 	Link(Link link) {
-		this.attributes = link.getAttributes();
+		this.attributes = link.attributes;
 		this.href = link.getHref();
 		this.rel = link.getRel();
 		this.type = link.getType();
@@ -134,12 +129,7 @@ public class Link implements Serializable {
 	 * @return the category attribute list.
 	 */
 	public List<Attribute> getAttributes() {
-
-		List<Attribute> attrsCopy = new LinkedList<Attribute>();
-		for (Attribute attr : this.attributes) {
-			attrsCopy.add(new Attribute(attr));
-		}
-		return attrsCopy;
+		return attributes;
 	}
 
 	/**
@@ -147,7 +137,7 @@ public class Link implements Serializable {
 	 * @return the href contains the link's IRI
 	 */
 	public Attribute getHref() {
-		return new Attribute(href);
+		return href;
 	}
 
 	/**
@@ -156,7 +146,7 @@ public class Link implements Serializable {
 	 *         the href attribute.
 	 */
 	public Attribute getHreflang() {
-		return (hreflang == null) ? null : new Attribute(hreflang);
+		return hreflang;
 	}
 
 	/**
@@ -165,7 +155,7 @@ public class Link implements Serializable {
 	 *         octets.
 	 */
 	public Attribute getLength() {
-		return (length == null) ? null : new Attribute(length);
+		return length;
 	}
 
 	/**
@@ -174,7 +164,7 @@ public class Link implements Serializable {
 	 *         production in [RFC3987]
 	 */
 	public Attribute getRel() {
-		return (rel == null) ? null : new Attribute(rel);
+		return rel;
 	}
 
 	/**
@@ -182,7 +172,7 @@ public class Link implements Serializable {
 	 * @return the title conveys human-readable information about the link.
 	 */
 	public Attribute getTitle() {
-		return (title == null) ? null : new Attribute(title);
+		return title;
 	}
 
 	/**
@@ -190,7 +180,7 @@ public class Link implements Serializable {
 	 * @return the type which is an advisory media type.
 	 */
 	public Attribute getType() {
-		return (type == null) ? null : new Attribute(type);
+		return type;
 	}
 
 	/**
@@ -207,12 +197,7 @@ public class Link implements Serializable {
 	 * @return the Attribute object if attrName matches or null if not found.
 	 */
 	public Attribute getAttribute(String attrName) {
-		for (Attribute attribute : this.attributes) {
-			if (attribute.getName().equals(attrName)) {
-				return new Attribute(attribute);
-			}
-		}
-		return null;
+		return attributes.getAttribute(attrName);
 	}
 
 	/**
@@ -0,0 +1,87 @@
+/**
+ * Copyright 2011 Bill Brown
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.colorfulsoftware.atom;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * This class reads a local file through memory mapped windows of its
+ * content so the parser reads straight from the page cache. Files larger than
+ * a window are mapped one window at a time as the parser reaches them. The
+ * file is closed by <code>close</code>; the mapped windows are released by the
+ * garbage collector once they are no longer referenced.
+ *
+ * @author Bill Brown
+ *
+ */
+class MappedFileInputStream extends ByteBufferInputStream {
+
+	// the largest part of the file mapped at once.
+	static final long WINDOW_SIZE = 64L * 1024 * 1024;
+
+	private final FileInputStream file;
+	private final FileChannel channel;
+	private final long size;
+	private final long windowSize;
+	private long position;
+
+	/**
+	 * @param file
+	 *            the file to read.
+	 * @throws IOException
+	 *             if the file cannot be opened.
+	 */
+	MappedFileInputStream(File file) throws IOException {
+		this(file, WINDOW_SIZE);
+	}
+
+	/**
+	 * @param file
+	 *            the file to read.
+	 * @param windowSize
+	 *            the largest part of the file to map at once.
+	 * @throws IOException
+	 *             if the file cannot be opened.
+	 */
+	MappedFileInputStream(File file, long windowSize) throws IOException {
+		super(null);
+		this.file = new FileInputStream(file);
+		this.channel = this.file.getChannel();
+		this.size = channel.size();
+		this.windowSize = windowSize;
+	}
+
+	@Override
+	ByteBuffer nextBuffer() throws IOException {
+		if (position >= size) {
+			return null;
+		}
+		long length = Math.min(windowSize, size - position);
+		ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY,
+				position, length);
+		position += length;
+		return window;
+	}
+
+	@Override
+	public void close() throws IOException {
+		file.close();
+	}
+}
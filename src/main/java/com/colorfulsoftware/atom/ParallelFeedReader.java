@@ -0,0 +1,260 @@
+/**
+ * Copyright 2011 Bill Brown
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.colorfulsoftware.atom;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * This class reads one large atom feed document on several threads. The bytes
+ * are scanned for the top level entry elements first, then runs of entries are
+ * parsed as tasks on the executor while the calling thread reads the feed
+ * level elements. Every task parses its bytes together with the xml prolog and
+ * the root start tag so the namespace declarations, xml:base and xml:lang of
+ * the feed element still apply. The entries are put back together in document
+ * order so the result is the same Feed that the FeedReader would build.
+ *
+ * @author Bill Brown
+ *
+ */
+class ParallelFeedReader implements EntryBoundaryScanner.Listener {
+
+	// the smallest number of bytes worth handing to another thread.
+	static final int TASK_SIZE = 256 * 1024;
+
+	private final FeedDoc feedDoc;
+	private final ByteBuffer buffer;
+
+	// the readers of the header and of the entries share one symbol table.
+	private final ReadOptions options = ReadOptions
+			.symbolTable(new SymbolTable());
+
+	private int rootStart = -1;
+	private int rootStartEnd;
+	private int rootNameEnd;
+	private int rootEnd = -1;
+	private boolean rootIsEntry;
+
+	// the start and end offset of each entry.
+	private int[] entries = new int[256];
+	private int entryCount;
+
+	/**
+	 * @param feedDoc
+	 *            the FeedDoc to build the beans with.
+	 * @param buffer
+	 *            the whole document from its position to its limit.
+	 */
+	ParallelFeedReader(FeedDoc feedDoc, ByteBuffer buffer) {
+		this.feedDoc = feedDoc;
+		this.buffer = buffer.slice();
+	}
+
+	/**
+	 * reads the document using the executor for the entries.
+	 *
+	 * @param executor
+	 *            the executor to run the entry tasks on.
+	 * @return the atom Feed bean.
+	 * @throws Exception
+	 *             if the document cannot be parsed.
+	 */
+	Feed readFeed(Executor executor) throws Exception {
+		int limit = buffer.limit();
+		if (EntryBoundaryScanner.canScan(buffer, limit)
+				&& !(limit >= 2 && Compression.isCompressed(buffer.get(0),
+						buffer.get(1)))) {
+			new EntryBoundaryScanner(this).scan(buffer, limit);
+		}
+		if (rootEnd == -1 || rootIsEntry
+				|| buffer.get(rootStartEnd - 2) == '/') {
+			// compressed documents end up here as well as the ones the
+			// FeedReader has to report a problem with.
+			return feedDoc.readFeedToBean(buffer);
+		}
+
+		byte[] prolog = copy(0, rootStart);
+		byte[] rootStartTag = copy(rootStart, rootStartEnd);
+		byte[] rootName = copy(rootStart + 1, rootNameEnd);
+		byte[] rootEndTag = new byte[rootName.length + 3];
+		rootEndTag[0] = '<';
+		rootEndTag[1] = '/';
+		System.arraycopy(rootName, 0, rootEndTag, 2, rootName.length);
+		rootEndTag[rootEndTag.length - 1] = '>';
+
+		// group the entries into tasks of at least TASK_SIZE bytes.
+		List<FutureTask<List<Entry>>> tasks = new ArrayList<FutureTask<List<Entry>>>();
+		int first = 0;
+		for (int i = 0; i < entryCount; i++) {
+			if (i == entryCount - 1
+					|| entries[i * 2 + 1] - entries[first * 2] >= TASK_SIZE) {
+				FutureTask<List<Entry>> task = new FutureTask<List<Entry>>(
+						new EntriesTask(prolog, rootStartTag, rootEndTag,
+								entries[first * 2], entries[i * 2 + 1], i
+										- first + 1));
+				tasks.add(task);
+				executor.execute(task);
+				first = i + 1;
+			}
+		}
+
+		try {
+			// the feed level elements are whatever is left between the
+			// entries.
+			List<InputStream> header = new ArrayList<InputStream>();
+			header.add(new ByteArrayInputStream(prolog));
+			header.add(new ByteArrayInputStream(rootStartTag));
+			int start = rootStartEnd;
+			for (int i = 0; i < entryCount; i++) {
+				header.add(slice(start, entries[i * 2]));
+				start = entries[i * 2 + 1];
+			}
+			header.add(slice(start, rootEnd));
+			header.add(new ByteArrayInputStream(rootEndTag));
+			XMLStreamReader reader = feedDoc
+					.createXMLStreamReader(new SequenceInputStream(Collections
+							.enumeration(header)));
+			FeedBuilder feed;
+			try {
+				feed = new FeedReader(feedDoc, options).readFeedBuilder(reader,
+						null);
+			} finally {
+				reader.close();
+			}
+
+			if (entryCount > 0) {
+				List<Entry> allEntries = new ArrayList<Entry>(entryCount);
+				for (FutureTask<List<Entry>> task : tasks) {
+					// runs the task here if no thread of the executor has
+					// started it, so a busy or single thread pool (including
+					// one this reader is running on) cannot leave it waiting.
+					task.run();
+					allEntries.addAll(task.get());
+				}
+				feed.setEntries(allEntries);
+			}
+			// the feed is checked and built once with all of its entries.
+			return feedDoc.buildSortedFeed(feed);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+			throw (Error) cause;
+		} finally {
+			for (FutureTask<List<Entry>> task : tasks) {
+				task.cancel(false);
+			}
+		}
+	}
+
+	private byte[] copy(int start, int end) {
+		byte[] bytes = new byte[end - start];
+		ByteBuffer source = buffer.duplicate();
+		source.position(start);
+		source.get(bytes);
+		return bytes;
+	}
+
+	private InputStream slice(int start, int end) {
+		ByteBuffer slice = buffer.duplicate();
+		slice.position(start);
+		slice.limit(end);
+		return new ByteBufferInputStream(slice);
+	}
+
+	public void rootStart(int start, int end, int nameEnd) {
+		rootStart = start;
+		rootStartEnd = end;
+		rootNameEnd = nameEnd;
+		// the name is either entry or ends in :entry.
+		int name = nameEnd - 5;
+		rootIsEntry = name > start
+				&& (buffer.get(name - 1) == '<' || buffer.get(name - 1) == ':')
+				&& buffer.get(name) == 'e' && buffer.get(name + 1) == 'n'
+				&& buffer.get(name + 2) == 't' && buffer.get(name + 3) == 'r'
+				&& buffer.get(name + 4) == 'y';
+	}
+
+	public void entryStart(int start) {
+		if (entryCount * 2 == entries.length) {
+			entries = Arrays.copyOf(entries, entries.length * 2);
+		}
+		entries[entryCount * 2] = start;
+	}
+
+	public void entryEnd(int end) {
+		entries[entryCount * 2 + 1] = end;
+		entryCount++;
+	}
+
+	public void rootEnd(int start, int end) {
+		rootEnd = start;
+	}
+
+	// parses a run of entries wrapped in the root element.
+	private class EntriesTask implements Callable<List<Entry>> {
+		private final byte[] prolog;
+		private final byte[] rootStartTag;
+		private final byte[] rootEndTag;
+		private final int start;
+		private final int end;
+		private final int count;
+
+		EntriesTask(byte[] prolog, byte[] rootStartTag, byte[] rootEndTag,
+				int start, int end, int count) {
+			this.prolog = prolog;
+			this.rootStartTag = rootStartTag;
+			this.rootEndTag = rootEndTag;
+			this.start = start;
+			this.end = end;
+			this.count = count;
+		}
+
+		public List<Entry> call() throws Exception {
+			XMLStreamReader reader = feedDoc
+					.createXMLStreamReader(new SequenceInputStream(Collections
+							.enumeration(Arrays.asList(
+									new ByteArrayInputStream(prolog),
+									new ByteArrayInputStream(rootStartTag),
+									slice(start, end),
+									new ByteArrayInputStream(rootEndTag)))));
+			try {
+				FeedReader feedReader = new FeedReader(feedDoc, options);
+				List<Entry> read = new ArrayList<Entry>(count);
+				Entry entry;
+				while ((entry = feedReader.readNextEntry(reader)) != null) {
+					read.add(entry);
+				}
+				return read;
+			} finally {
+				reader.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,270 @@
+/**
+ * Copyright 2011 Bill Brown
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.colorfulsoftware.atom;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+
+import javax.xml.stream.XMLInputFactory;
+
+/**
+ * This class chooses the StAX implementation a FeedDoc reads documents with
+ * and how its parser factory is configured. Instances are immutable; use the
+ * static factory methods to pick an implementation and the <code>with</code>
+ * methods to derive a changed copy. Settings that are not given are left at
+ * the default of the implementation.
+ *
+ * The StAX implementations are all optional: Woodstox and Aalto are only
+ * available when their jars are on the classpath, which
+ * <code>isAvailable</code> tells.
+ *
+ * @see FeedDoc#FeedDoc(java.util.List, ParserProfile)
+ * @author Bill Brown
+ *
+ */
+public final class ParserProfile implements Serializable {
+
+	private static final long serialVersionUID = -3709541862285096716L;
+
+	// the implementation found by XMLInputFactory.newInstance().
+	static final ParserProfile DEFAULTS = new ParserProfile("default", null,
+			null, null, null, null);
+
+	private static final String JDK_FACTORY = "com.sun.xml.internal.stream.XMLInputFactoryImpl";
+	private static final String WOODSTOX_FACTORY = "com.ctc.wstx.stax.WstxInputFactory";
+	private static final String AALTO_FACTORY = "com.fasterxml.aalto.stax.InputFactoryImpl";
+
+	// the Stax2 properties Woodstox and Aalto use for interning.
+	private static final String INTERN_NAMES = "org.codehaus.stax2.internNames";
+	private static final String INTERN_NS_URIS = "org.codehaus.stax2.internNsUris";
+
+	private final String name;
+	private final String factoryClass;
+	private final Boolean coalescing;
+	private final Boolean interning;
+	private final Boolean dtdSupport;
+	private final Boolean externalEntities;
+
+	private ParserProfile(String name, String factoryClass,
+			Boolean coalescing, Boolean interning, Boolean dtdSupport,
+			Boolean externalEntities) {
+		this.name = name;
+		this.factoryClass = factoryClass;
+		this.coalescing = coalescing;
+		this.interning = interning;
+		this.dtdSupport = dtdSupport;
+		this.externalEntities = externalEntities;
+	}
+
+	/**
+	 * @return the profile of the implementation XMLInputFactory.newInstance()
+	 *         finds through the javax.xml.stream.XMLInputFactory system
+	 *         property and the service providers on the classpath.
+	 */
+	public static ParserProfile defaults() {
+		return DEFAULTS;
+	}
+
+	/**
+	 * @return the profile of the StAX implementation built into the JDK.
+	 */
+	public static ParserProfile jdk() {
+		return new ParserProfile("jdk", JDK_FACTORY, null, null, null, null);
+	}
+
+	/**
+	 * @return the profile of the Woodstox StAX implementation.
+	 */
+	public static ParserProfile woodstox() {
+		return new ParserProfile("woodstox", WOODSTOX_FACTORY, null, null,
+				null, null);
+	}
+
+	/**
+	 * @return the profile of the Aalto StAX implementation.
+	 */
+	public static ParserProfile aalto() {
+		return new ParserProfile("aalto", AALTO_FACTORY, null, null, null,
+				null);
+	}
+
+	/**
+	 * @param coalescing
+	 *            true to have adjacent text and CDATA sections reported as
+	 *            one piece of text.
+	 * @return a copy of this profile with the given coalescing setting.
+	 */
+	public ParserProfile withCoalescing(boolean coalescing) {
+		return new ParserProfile(name, factoryClass, coalescing, interning,
+				dtdSupport, externalEntities);
+	}
+
+	/**
+	 * Interned element names and namespace URIs are compared and looked up
+	 * without comparing their characters. The JDK implementation always
+	 * interns them and has no setting for it.
+	 *
+	 * @param interning
+	 *            true to have the parser intern element names and namespace
+	 *            URIs.
+	 * @return a copy of this profile with the given interning setting.
+	 */
+	public ParserProfile withInterning(boolean interning) {
+		return new ParserProfile(name, factoryClass, coalescing, interning,
+				dtdSupport, externalEntities);
+	}
+
+	/**
+	 * @param dtdSupport
+	 *            false to have the parser skip the document type declaration.
+	 * @return a copy of this profile with the given DTD setting.
+	 */
+	public ParserProfile withDtdSupport(boolean dtdSupport) {
+		return new ParserProfile(name, factoryClass, coalescing, interning,
+				dtdSupport, externalEntities);
+	}
+
+	/**
+	 * @param externalEntities
+	 *            false to keep the parser from loading external entities,
+	 *            which documents from untrusted sources should not be allowed
+	 *            to do.
+	 * @return a copy of this profile with the given external entity setting.
+	 */
+	public ParserProfile withExternalEntities(boolean externalEntities) {
+		return new ParserProfile(name, factoryClass, coalescing, interning,
+				dtdSupport, externalEntities);
+	}
+
+	/**
+	 * @return the name of the implementation: default, jdk, woodstox or
+	 *         aalto.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the coalescing setting or null for the implementation default.
+	 */
+	public Boolean getCoalescing() {
+		return coalescing;
+	}
+
+	/**
+	 * @return the interning setting or null for the implementation default.
+	 */
+	public Boolean getInterning() {
+		return interning;
+	}
+
+	/**
+	 * @return the DTD setting or null for the implementation default.
+	 */
+	public Boolean getDtdSupport() {
+		return dtdSupport;
+	}
+
+	/**
+	 * @return the external entity setting or null for the implementation
+	 *         default.
+	 */
+	public Boolean getExternalEntities() {
+		return externalEntities;
+	}
+
+	/**
+	 * @return true if the implementation can be loaded.
+	 */
+	public boolean isAvailable() {
+		try {
+			newFactory();
+			return true;
+		} catch (Exception e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @return a new factory configured with this profile.
+	 * @throws IllegalStateException
+	 *             if the implementation is not available.
+	 */
+	XMLInputFactory newInputFactory() {
+		XMLInputFactory inputFactory;
+		try {
+			inputFactory = newFactory();
+		} catch (Exception e) {
+			throw new IllegalStateException("The " + name
+					+ " StAX implementation is not available.", e);
+		}
+		// this is done to help for parsing documents that have undeclared
+		// and unescaped html or xhtml entities.
+		inputFactory.setProperty(
+				"javax.xml.stream.isReplacingEntityReferences", Boolean.FALSE);
+		if (coalescing != null) {
+			inputFactory.setProperty(XMLInputFactory.IS_COALESCING,
+					coalescing);
+		}
+		if (dtdSupport != null) {
+			inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, dtdSupport);
+		}
+		if (externalEntities != null) {
+			inputFactory.setProperty(
+					XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES,
+					externalEntities);
+		}
+		if (interning != null) {
+			if (inputFactory.isPropertySupported(INTERN_NAMES)) {
+				inputFactory.setProperty(INTERN_NAMES, interning);
+			}
+			if (inputFactory.isPropertySupported(INTERN_NS_URIS)) {
+				inputFactory.setProperty(INTERN_NS_URIS, interning);
+			}
+		}
+		return inputFactory;
+	}
+
+	private XMLInputFactory newFactory() throws Exception {
+		if (factoryClass == null) {
+			return XMLInputFactory.newInstance();
+		}
+		if (factoryClass.equals(JDK_FACTORY)) {
+			// the JDK implementation is not exported from java 9 on, where
+			// newDefaultFactory() returns it instead.
+			try {
+				Method newDefaultFactory = XMLInputFactory.class
+						.getMethod("newDefaultFactory");
+				return (XMLInputFactory) newDefaultFactory.invoke(null);
+			} catch (NoSuchMethodException e) {
+				// java 8 and earlier.
+			}
+		}
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		if (loader == null) {
+			loader = ParserProfile.class.getClassLoader();
+		}
+		return (XMLInputFactory) Class.forName(factoryClass, true, loader)
+				.getConstructor().newInstance();
+	}
+
+	@Override
+	public String toString() {
+		return name + " coalescing=" + coalescing + " interning=" + interning
+				+ " dtdSupport=" + dtdSupport + " externalEntities="
+				+ externalEntities;
+	}
+}
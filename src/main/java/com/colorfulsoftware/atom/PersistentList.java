@@ -0,0 +1,283 @@
+/**
+ * Copyright 2011 Bill Brown
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.colorfulsoftware.atom;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * This class is an immutable list that shares its structure with the lists
+ * it was derived from. The elements are kept in a balanced (AVL) tree ordered
+ * by position, so getting, appending and removing an element take O(log n)
+ * time and only create the O(log n) nodes on the path to it. The Feed keeps
+ * its entries in one so a feed with one more or one less entry reuses the
+ * nodes of all of the others.
+ *
+ * The methods of java.util.List that change the list throw an
+ * UnsupportedOperationException; use <code>plus</code> and
+ * <code>minus</code> to derive a changed list.
+ *
+ * @author Bill Brown
+ *
+ */
+final class PersistentList<E> extends AbstractList<E> implements RandomAccess,
+		Serializable {
+
+	private static final long serialVersionUID = -6218640541352087531L;
+
+	@SuppressWarnings("rawtypes")
+	private static final PersistentList EMPTY = new PersistentList<Object>(
+			null);
+
+	private transient Node<E> root;
+
+	private PersistentList(Node<E> root) {
+		this.root = root;
+	}
+
+	/**
+	 * @return the empty list.
+	 */
+	@SuppressWarnings("unchecked")
+	static <E> PersistentList<E> empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * @param elements
+	 *            the elements of the list in order.
+	 * @return a list of the elements, built in O(n) time.
+	 */
+	@SuppressWarnings("unchecked")
+	static <E> PersistentList<E> of(Collection<? extends E> elements) {
+		if (elements instanceof PersistentList) {
+			return (PersistentList<E>) elements;
+		}
+		Object[] array = elements.toArray();
+		return (array.length == 0) ? PersistentList.<E> empty()
+				: new PersistentList<E>(PersistentList.<E> build(array, 0,
+						array.length));
+	}
+
+	@Override
+	public E get(int index) {
+		if (index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: "
+					+ size());
+		}
+		Node<E> node = root;
+		while (true) {
+			int leftSize = size(node.left);
+			if (index < leftSize) {
+				node = node.left;
+			} else if (index > leftSize) {
+				index -= leftSize + 1;
+				node = node.right;
+			} else {
+				return node.value;
+			}
+		}
+	}
+
+	@Override
+	public int size() {
+		return size(root);
+	}
+
+	/**
+	 * @param element
+	 *            the element to append.
+	 * @return a list with the element after the elements of this one.
+	 */
+	PersistentList<E> plus(E element) {
+		return new PersistentList<E>(append(root, element));
+	}
+
+	/**
+	 * @param index
+	 *            the position of the element to take out.
+	 * @return a list without the element at the index.
+	 */
+	PersistentList<E> minus(int index) {
+		if (index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: "
+					+ size());
+		}
+		Node<E> removed = remove(root, index);
+		return (removed == null) ? PersistentList.<E> empty()
+				: new PersistentList<E>(removed);
+	}
+
+	// walks the tree in order instead of looking up every index.
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+			@SuppressWarnings({ "unchecked", "rawtypes" })
+			private final Node<E>[] stack = new Node[height(root)];
+			private int depth;
+			{
+				pushLeft(root);
+			}
+
+			private void pushLeft(Node<E> node) {
+				while (node != null) {
+					stack[depth++] = node;
+					node = node.left;
+				}
+			}
+
+			public boolean hasNext() {
+				return depth > 0;
+			}
+
+			public E next() {
+				if (depth == 0) {
+					throw new NoSuchElementException();
+				}
+				Node<E> node = stack[--depth];
+				pushLeft(node.right);
+				return node.value;
+			}
+
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	private static final class Node<E> {
+		private final E value;
+		private final Node<E> left;
+		private final Node<E> right;
+		private final int size;
+		private final int height;
+
+		Node(E value, Node<E> left, Node<E> right) {
+			this.value = value;
+			this.left = left;
+			this.right = right;
+			this.size = size(left) + size(right) + 1;
+			this.height = Math.max(height(left), height(right)) + 1;
+		}
+	}
+
+	private static int size(Node<?> node) {
+		return (node == null) ? 0 : node.size;
+	}
+
+	private static int height(Node<?> node) {
+		return (node == null) ? 0 : node.height;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <E> Node<E> build(Object[] array, int from, int to) {
+		if (from == to) {
+			return null;
+		}
+		int middle = (from + to) >>> 1;
+		return new Node<E>((E) array[middle],
+				PersistentList.<E> build(array, from, middle),
+				PersistentList.<E> build(array, middle + 1, to));
+	}
+
+	private static <E> Node<E> append(Node<E> node, E element) {
+		if (node == null) {
+			return new Node<E>(element, null, null);
+		}
+		return balance(node.value, node.left, append(node.right, element));
+	}
+
+	private static <E> Node<E> remove(Node<E> node, int index) {
+		int leftSize = size(node.left);
+		if (index < leftSize) {
+			return balance(node.value, remove(node.left, index), node.right);
+		}
+		if (index > leftSize) {
+			return balance(node.value, node.left, remove(node.right, index
+					- leftSize - 1));
+		}
+		if (node.left == null) {
+			return node.right;
+		}
+		if (node.right == null) {
+			return node.left;
+		}
+		// the first element on the right takes the place of the removed one.
+		Node<E> first = node.right;
+		while (first.left != null) {
+			first = first.left;
+		}
+		return balance(first.value, node.left, remove(node.right, 0));
+	}
+
+	// builds a node, rotating when one side is two levels higher.
+	private static <E> Node<E> balance(E value, Node<E> left, Node<E> right) {
+		int leftHeight = height(left);
+		int rightHeight = height(right);
+		if (leftHeight > rightHeight + 1) {
+			if (height(left.left) >= height(left.right)) {
+				return new Node<E>(left.value, left.left, new Node<E>(value,
+						left.right, right));
+			}
+			Node<E> middle = left.right;
+			return new Node<E>(middle.value, new Node<E>(left.value,
+					left.left, middle.left), new Node<E>(value, middle.right,
+					right));
+		}
+		if (rightHeight > leftHeight + 1) {
+			if (height(right.right) >= height(right.left)) {
+				return new Node<E>(right.value, new Node<E>(value, left,
+						right.left), right.right);
+			}
+			Node<E> middle = right.left;
+			return new Node<E>(middle.value, new Node<E>(value, left,
+					middle.left), new Node<E>(right.value, middle.right,
+					right.right));
+		}
+		return new Node<E>(value, left, right);
+	}
+
+	// the elements are written in order instead of as a tree.
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(size());
+		for (E element : this) {
+			out.writeObject(element);
+		}
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException,
+			ClassNotFoundException {
+		in.defaultReadObject();
+		Object[] array = new Object[in.readInt()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = in.readObject();
+		}
+		root = PersistentList.<E> build(array, 0, array.length);
+	}
+
+	// keeps the shared empty list after deserialization.
+	private Object readResolve() {
+		return (root == null) ? EMPTY : this;
+	}
+}
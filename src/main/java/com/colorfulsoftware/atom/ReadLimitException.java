@@ -0,0 +1,43 @@
+/**
+ * Copyright 2011 Bill Brown
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.colorfulsoftware.atom;
+
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * This is an exception for a document that goes over one of the resource
+ * limits of the ReadOptions it is read with. Reading stops as soon as the
+ * limit is passed.
+ *
+ * @see ReadOptions
+ * @author Bill Brown
+ *
+ */
+public class ReadLimitException extends XMLStreamException {
+
+	private static final long serialVersionUID = 6307424791617826514L;
+
+	/**
+	 * @param message
+	 *            information about the limit that was passed.
+	 * @param location
+	 *            where in the document the limit was passed.
+	 */
+	public ReadLimitException(String message, Location location) {
+		super(message, location);
+	}
+}
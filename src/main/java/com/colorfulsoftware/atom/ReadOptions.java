@@ -0,0 +1,489 @@
+/**
+ * Copyright 2011 Bill Brown
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.colorfulsoftware.atom;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * This class holds the options that control how much of an atom document the
+ * FeedReader reads and the resource limits a document has to stay within.
+ * Instances are immutable; use the static factory methods to obtain one and
+ * the <code>with</code> methods to derive a changed copy.
+ *
+ * @author Bill Brown
+ *
+ */
+public final class ReadOptions implements Serializable {
+
+	private static final long serialVersionUID = 2811467031209622398L;
+
+	/**
+	 * the value used to indicate that there is no limit on the entries read.
+	 */
+	public static final int UNLIMITED = -1;
+
+	// read the whole document.
+	static final ReadOptions DEFAULTS = new ReadOptions(UNLIMITED, null, null,
+			null, null, null, UNLIMITED, UNLIMITED, UNLIMITED, UNLIMITED, null);
+
+	// the elements the beans cannot be built without.
+	private static final Set<String> REQUIRED_ELEMENTS = Collections
+			.unmodifiableSet(new HashSet<String>(Arrays.asList("id", "title",
+					"updated", "author")));
+
+	private final int maxEntries;
+	private final Set<String> feedElements;
+	private final Set<String> entryElements;
+	private final Set<String> sourceElements;
+	private final Set<String> knownIds;
+	private final Date lastUpdated;
+	private final int maxDepth;
+	private final int maxTextLength;
+	private final int maxEntriesAllowed;
+	private final long maxCharacters;
+	private final SymbolTable symbolTable;
+
+	private ReadOptions(int maxEntries, Set<String> feedElements,
+			Set<String> entryElements, Set<String> sourceElements,
+			Set<String> knownIds, Date lastUpdated, int maxDepth,
+			int maxTextLength, int maxEntriesAllowed, long maxCharacters,
+			SymbolTable symbolTable) {
+		this.maxEntries = maxEntries;
+		this.feedElements = feedElements;
+		this.entryElements = entryElements;
+		this.sourceElements = sourceElements;
+		this.knownIds = knownIds;
+		this.lastUpdated = lastUpdated;
+		this.maxDepth = maxDepth;
+		this.maxTextLength = maxTextLength;
+		this.maxEntriesAllowed = maxEntriesAllowed;
+		this.maxCharacters = maxCharacters;
+		this.symbolTable = symbolTable;
+	}
+
+	/**
+	 * @return options that read the whole document.
+	 */
+	public static ReadOptions defaults() {
+		return DEFAULTS;
+	}
+
+	/**
+	 * @param maxEntries
+	 *            the maximum number of entries to read. Reading stops at the
+	 *            next entry element once this many have been read.
+	 * @return options that stop reading after the given number of entries.
+	 * @throws IllegalArgumentException
+	 *             if maxEntries is negative.
+	 */
+	public static ReadOptions maxEntries(int maxEntries) {
+		return DEFAULTS.withMaxEntries(maxEntries);
+	}
+
+	/**
+	 * @return options that stop reading at the first entry element so only
+	 *         the feed level elements are read.
+	 */
+	public static ReadOptions headerOnly() {
+		return maxEntries(0);
+	}
+
+	/**
+	 * @param feedElements
+	 *            the names of the feed child elements to read or null for all
+	 *            of them.
+	 * @param entryElements
+	 *            the names of the entry child elements to read or null for all
+	 *            of them.
+	 * @param sourceElements
+	 *            the names of the source child elements to read or null for
+	 *            all of them.
+	 * @return options that only read the given elements. See
+	 *         <code>withProjection</code>.
+	 */
+	public static ReadOptions projection(Set<String> feedElements,
+			Set<String> entryElements, Set<String> sourceElements) {
+		return DEFAULTS.withProjection(feedElements, entryElements,
+				sourceElements);
+	}
+
+	/**
+	 * @param knownIds
+	 *            the atom:id values of the entries that have already been
+	 *            seen.
+	 * @return options that stop reading at the first already seen entry. See
+	 *         <code>withWatermark</code>.
+	 */
+	public static ReadOptions watermark(Set<String> knownIds) {
+		return DEFAULTS.withWatermark(knownIds);
+	}
+
+	/**
+	 * @param lastUpdated
+	 *            the atom:updated date of the newest entry already seen.
+	 * @return options that stop reading at the first entry that is not newer
+	 *         than the given date. See <code>withWatermark</code>.
+	 */
+	public static ReadOptions watermark(Date lastUpdated) {
+		return DEFAULTS.withWatermark(lastUpdated);
+	}
+
+	/**
+	 * @param maxDepth
+	 *            the deepest element nesting allowed.
+	 * @param maxTextLength
+	 *            the most characters of text allowed in one element.
+	 * @param maxEntriesAllowed
+	 *            the most entries allowed in the document.
+	 * @param maxCharacters
+	 *            the most characters allowed in the document.
+	 * @return options that reject documents going over any of the limits,
+	 *         each of which may be UNLIMITED. See <code>withMaxDepth</code>,
+	 *         <code>withMaxTextLength</code>,
+	 *         <code>withMaxEntriesAllowed</code> and
+	 *         <code>withMaxCharacters</code>.
+	 * @throws IllegalArgumentException
+	 *             if a limit is neither positive nor UNLIMITED.
+	 */
+	public static ReadOptions limits(int maxDepth, int maxTextLength,
+			int maxEntriesAllowed, long maxCharacters) {
+		return DEFAULTS.withMaxDepth(maxDepth).withMaxTextLength(
+				maxTextLength).withMaxEntriesAllowed(maxEntriesAllowed)
+				.withMaxCharacters(maxCharacters);
+	}
+
+	/**
+	 * @param symbolTable
+	 *            the table to share the repeated strings of the documents
+	 *            through.
+	 * @return options that read the whole document with the given symbol
+	 *         table. See <code>withSymbolTable</code>.
+	 */
+	public static ReadOptions symbolTable(SymbolTable symbolTable) {
+		return DEFAULTS.withSymbolTable(symbolTable);
+	}
+
+	/**
+	 * @param maxEntries
+	 *            the maximum number of entries to read.
+	 * @return a copy of these options that stop reading after the given
+	 *         number of entries.
+	 * @throws IllegalArgumentException
+	 *             if maxEntries is negative.
+	 */
+	public ReadOptions withMaxEntries(int maxEntries) {
+		if (maxEntries < 0) {
+			throw new IllegalArgumentException(
+					"The maximum number of entries cannot be negative.");
+		}
+		return new ReadOptions(maxEntries, feedElements, entryElements,
+				sourceElements, knownIds, lastUpdated, maxDepth,
+				maxTextLength, maxEntriesAllowed, maxCharacters, symbolTable);
+	}
+
+	/**
+	 * Restricts the child elements that are read. Element names are matched
+	 * as they appear in the document, so extension elements are given with
+	 * their prefix (eg "sort:asc"). All other elements are skipped without
+	 * their content being read. The atom:id, atom:title, atom:updated and
+	 * atom:author elements are always read because the beans cannot be built
+	 * without them. Entry elements are not affected by the feed projection.
+	 * 
+	 * @param feedElements
+	 *            the names of the feed child elements to read or null for all
+	 *            of them.
+	 * @param entryElements
+	 *            the names of the entry child elements to read or null for all
+	 *            of them.
+	 * @param sourceElements
+	 *            the names of the source child elements to read or null for
+	 *            all of them.
+	 * @return a copy of these options with the given projection.
+	 */
+	public ReadOptions withProjection(Set<String> feedElements,
+			Set<String> entryElements, Set<String> sourceElements) {
+		return new ReadOptions(maxEntries, copyOf(feedElements),
+				copyOf(entryElements), copyOf(sourceElements), knownIds,
+				lastUpdated, maxDepth, maxTextLength, maxEntriesAllowed,
+				maxCharacters, symbolTable);
+	}
+
+	/**
+	 * Stops reading at the first entry whose atom:id is one of the known ids.
+	 * Publishers usually list the newest entries first, so the entries read
+	 * before it are the new ones. The entry at the watermark is not returned
+	 * and is left unread as soon as its id has been seen.
+	 * 
+	 * @param knownIds
+	 *            the atom:id values of the entries that have already been
+	 *            seen or null for no id watermark.
+	 * @return a copy of these options with the given id watermark.
+	 */
+	public ReadOptions withWatermark(Set<String> knownIds) {
+		return new ReadOptions(maxEntries, feedElements, entryElements,
+				sourceElements, copyOf(knownIds), lastUpdated, maxDepth,
+				maxTextLength, maxEntriesAllowed, maxCharacters, symbolTable);
+	}
+
+	/**
+	 * Stops reading at the first entry whose atom:updated date is at or
+	 * before the given date. The entry at the watermark is not returned and is
+	 * left unread as soon as its updated date has been seen.
+	 * 
+	 * @param lastUpdated
+	 *            the atom:updated date of the newest entry already seen or
+	 *            null for no date watermark.
+	 * @return a copy of these options with the given date watermark.
+	 */
+	public ReadOptions withWatermark(Date lastUpdated) {
+		return new ReadOptions(maxEntries, feedElements, entryElements,
+				sourceElements, knownIds, (lastUpdated == null) ? null
+						: new Date(lastUpdated.getTime()), maxDepth,
+				maxTextLength, maxEntriesAllowed, maxCharacters, symbolTable);
+	}
+
+	/**
+	 * Rejects documents that nest elements deeper than the given number of
+	 * levels, counting the root element as the first level. Deeply nested
+	 * extension and xhtml markup is the usual way for a broken or hostile
+	 * feed to use up the heap.
+	 * 
+	 * @param maxDepth
+	 *            the deepest element nesting allowed or UNLIMITED.
+	 * @return a copy of these options with the given depth limit.
+	 * @throws IllegalArgumentException
+	 *             if maxDepth is neither positive nor UNLIMITED.
+	 */
+	public ReadOptions withMaxDepth(int maxDepth) {
+		checkLimit(maxDepth, "depth");
+		return new ReadOptions(maxEntries, feedElements, entryElements,
+				sourceElements, knownIds, lastUpdated, maxDepth,
+				maxTextLength, maxEntriesAllowed, maxCharacters, symbolTable);
+	}
+
+	/**
+	 * Rejects documents with more than the given number of characters of
+	 * text between two tags.
+	 * 
+	 * @param maxTextLength
+	 *            the most characters of text allowed in one element or
+	 *            UNLIMITED.
+	 * @return a copy of these options with the given text length limit.
+	 * @throws IllegalArgumentException
+	 *             if maxTextLength is neither positive nor UNLIMITED.
+	 */
+	public ReadOptions withMaxTextLength(int maxTextLength) {
+		checkLimit(maxTextLength, "text length");
+		return new ReadOptions(maxEntries, feedElements, entryElements,
+				sourceElements, knownIds, lastUpdated, maxDepth,
+				maxTextLength, maxEntriesAllowed, maxCharacters, symbolTable);
+	}
+
+	/**
+	 * Rejects documents with more than the given number of entries. Unlike
+	 * <code>withMaxEntries</code>, which quietly stops reading, the read
+	 * fails as soon as the entry after the limit starts.
+	 * 
+	 * @param maxEntriesAllowed
+	 *            the most entries allowed in the document or UNLIMITED.
+	 * @return a copy of these options that reject documents with more than
+	 *         the given number of entries.
+	 * @throws IllegalArgumentException
+	 *             if maxEntriesAllowed is neither positive nor UNLIMITED.
+	 */
+	public ReadOptions withMaxEntriesAllowed(int maxEntriesAllowed) {
+		checkLimit(maxEntriesAllowed, "entry");
+		return new ReadOptions(maxEntries, feedElements, entryElements,
+				sourceElements, knownIds, lastUpdated, maxDepth,
+				maxTextLength, maxEntriesAllowed, maxCharacters, symbolTable);
+	}
+
+	/**
+	 * Rejects documents with more than the given number of characters of
+	 * text, comments and attribute values in all.
+	 * 
+	 * @param maxCharacters
+	 *            the most characters allowed in the document or UNLIMITED.
+	 * @return a copy of these options with the given character limit.
+	 * @throws IllegalArgumentException
+	 *             if maxCharacters is neither positive nor UNLIMITED.
+	 */
+	public ReadOptions withMaxCharacters(long maxCharacters) {
+		checkLimit(maxCharacters, "character");
+		return new ReadOptions(maxEntries, feedElements, entryElements,
+				sourceElements, knownIds, lastUpdated, maxDepth,
+				maxTextLength, maxEntriesAllowed, maxCharacters, symbolTable);
+	}
+
+	/**
+	 * Shares the repeated strings of the documents read with these options
+	 * through the given symbol table instead of a new table for each
+	 * document, so that feeds kept in memory together also share them.
+	 * 
+	 * @param symbolTable
+	 *            the table to share the strings through or null for a new
+	 *            table for each document.
+	 * @return a copy of these options with the given symbol table.
+	 */
+	public ReadOptions withSymbolTable(SymbolTable symbolTable) {
+		return new ReadOptions(maxEntries, feedElements, entryElements,
+				sourceElements, knownIds, lastUpdated, maxDepth,
+				maxTextLength, maxEntriesAllowed, maxCharacters, symbolTable);
+	}
+
+	private static void checkLimit(long limit, String name) {
+		if (limit != UNLIMITED && limit <= 0) {
+			throw new IllegalArgumentException("The " + name
+					+ " limit must be positive or UNLIMITED.");
+		}
+	}
+
+	private static Set<String> copyOf(Set<String> elementNames) {
+		return (elementNames == null) ? null : Collections
+				.unmodifiableSet(new HashSet<String>(elementNames));
+	}
+
+	/**
+	 * @return the maximum number of entries to read or UNLIMITED.
+	 */
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	/**
+	 * @return the names of the feed child elements to read or null for all of
+	 *         them.
+	 */
+	public Set<String> getFeedElements() {
+		return feedElements;
+	}
+
+	/**
+	 * @return the names of the entry child elements to read or null for all
+	 *         of them.
+	 */
+	public Set<String> getEntryElements() {
+		return entryElements;
+	}
+
+	/**
+	 * @return the names of the source child elements to read or null for all
+	 *         of them.
+	 */
+	public Set<String> getSourceElements() {
+		return sourceElements;
+	}
+
+	/**
+	 * @return the atom:id values of the entries already seen or null.
+	 */
+	public Set<String> getKnownIds() {
+		return knownIds;
+	}
+
+	/**
+	 * @return the atom:updated date of the newest entry already seen or null.
+	 */
+	public Date getLastUpdated() {
+		return (lastUpdated == null) ? null : new Date(lastUpdated.getTime());
+	}
+
+	/**
+	 * @return the deepest element nesting allowed or UNLIMITED.
+	 */
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * @return the most characters of text allowed in one element or
+	 *         UNLIMITED.
+	 */
+	public int getMaxTextLength() {
+		return maxTextLength;
+	}
+
+	/**
+	 * @return the most entries allowed in the document or UNLIMITED.
+	 */
+	public int getMaxEntriesAllowed() {
+		return maxEntriesAllowed;
+	}
+
+	/**
+	 * @return the most characters allowed in the document or UNLIMITED.
+	 */
+	public long getMaxCharacters() {
+		return maxCharacters;
+	}
+
+	/**
+	 * @return the table the repeated strings are shared through or null for
+	 *         a new table for each document.
+	 */
+	public SymbolTable getSymbolTable() {
+		return symbolTable;
+	}
+
+	// true if the parser events have to be checked against a limit.
+	boolean limitsEvents() {
+		return maxDepth != UNLIMITED || maxTextLength != UNLIMITED
+				|| maxCharacters != UNLIMITED;
+	}
+
+	// true if the entry with this id has already been seen.
+	boolean isWatermark(Id id) {
+		if (knownIds == null || id.getAtomUri() == null) {
+			return false;
+		}
+		return knownIds.contains(id.getAtomUri())
+				|| knownIds.contains(id.getAtomUri().trim());
+	}
+
+	// true if the entry with this updated date is not newer than the last one
+	// seen.
+	boolean isWatermark(Updated updated) {
+		return lastUpdated != null
+				&& !updated.getDateTime().after(lastUpdated);
+	}
+
+	boolean readsFeedElement(String elementName) {
+		return reads(feedElements, elementName);
+	}
+
+	boolean readsEntryElement(String elementName) {
+		return reads(entryElements, elementName);
+	}
+
+	boolean readsSourceElement(String elementName) {
+		return reads(sourceElements, elementName);
+	}
+
+	private static boolean reads(Set<String> elementNames, String elementName) {
+		return elementNames == null || elementNames.contains(elementName)
+				|| REQUIRED_ELEMENTS.contains(elementName);
+	}
+
+	// true if another entry may be read after count entries have been read.
+	boolean acceptsEntry(int count) {
+		return maxEntries == UNLIMITED || count < maxEntries;
+	}
+}
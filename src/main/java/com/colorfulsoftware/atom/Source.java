@@ -21,11 +21,12 @@
 package com.colorfulsoftware.atom;
 
 import java.io.Serializable;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
- * This class represents an Atom 1.0 source element.
+ * This class represents an Atom 1.0 source element. The source is immutable, so
+ * its getters hand out the elements it was built with instead of copies and
+ * its lists are unmodifiable views.
  * 
  * @see <a
  *      href="http://www.atomenabled.org/developers/syndication/atom-format-spec.php">Atom
@@ -75,22 +76,22 @@ public class Source implements Serializable {
 		this.sourceAdaptor = new AtomEntrySourceAdaptor(id, title, updated,
 				rights, authors, categories, contributors, links, attributes,
 				extensions);
-		this.generator = (generator == null) ? null : new Generator(generator);
-		this.subtitle = (subtitle == null) ? null : new Subtitle(subtitle);
-		this.icon = (icon == null) ? null : new Icon(icon);
-		this.logo = (logo == null) ? null : new Logo(logo);
-
-		this.unboundPrefixes = new LinkedList<String>();
+		this.generator = generator;
+		this.subtitle = subtitle;
+		this.icon = icon;
+		this.logo = logo;
 
 		// check that the extension prefixes are bound to a namespace
 		if (sourceAdaptor.getUnboundPrefixes() != null) {
-			this.unboundPrefixes.addAll(sourceAdaptor.getUnboundPrefixes());
+			this.unboundPrefixes = UnboundPrefixes.addAll(
+					this.unboundPrefixes, sourceAdaptor.getUnboundPrefixes());
 		}
 
 		if (generator != null && generator.getUnboundPrefixes() != null) {
 			for (String unboundPrefix : generator.getUnboundPrefixes()) {
 				if (getAttribute("xmlns:" + unboundPrefix) == null) {
-					this.unboundPrefixes.add(unboundPrefix);
+					this.unboundPrefixes = UnboundPrefixes.add(
+							this.unboundPrefixes, unboundPrefix);
 				}
 			}
 		}
@@ -98,7 +99,8 @@ public class Source implements Serializable {
 		if (subtitle != null && subtitle.getUnboundPrefixes() != null) {
 			for (String unboundPrefix : subtitle.getUnboundPrefixes()) {
 				if (getAttribute("xmlns:" + unboundPrefix) == null) {
-					this.unboundPrefixes.add(unboundPrefix);
+					this.unboundPrefixes = UnboundPrefixes.add(
+							this.unboundPrefixes, unboundPrefix);
 				}
 			}
 		}
@@ -106,7 +108,8 @@ public class Source implements Serializable {
 		if (icon != null && icon.getUnboundPrefixes() != null) {
 			for (String unboundPrefix : icon.getUnboundPrefixes()) {
 				if (getAttribute("xmlns:" + unboundPrefix) == null) {
-					this.unboundPrefixes.add(unboundPrefix);
+					this.unboundPrefixes = UnboundPrefixes.add(
+							this.unboundPrefixes, unboundPrefix);
 				}
 			}
 		}
@@ -114,7 +117,8 @@ public class Source implements Serializable {
 		if (logo != null && logo.getUnboundPrefixes() != null) {
 			for (String unboundPrefix : logo.getUnboundPrefixes()) {
 				if (getAttribute("xmlns:" + unboundPrefix) == null) {
-					this.unboundPrefixes.add(unboundPrefix);
+					this.unboundPrefixes = UnboundPrefixes.add(
+							this.unboundPrefixes, unboundPrefix);
 				}
 			}
 		}
@@ -122,7 +126,7 @@ public class Source implements Serializable {
 	}
 
 	Source(Source source) {
-		this.sourceAdaptor = new AtomEntrySourceAdaptor(source.sourceAdaptor);
+		this.sourceAdaptor = source.sourceAdaptor;
 		this.generator = source.getGenerator();
 		this.icon = source.getIcon();
 		this.logo = source.getLogo();
@@ -135,7 +139,7 @@ public class Source implements Serializable {
 	 * @return the generator for this element.
 	 */
 	public Generator getGenerator() {
-		return (generator == null) ? null : new Generator(generator);
+		return generator;
 	}
 
 	/**
@@ -143,7 +147,7 @@ public class Source implements Serializable {
 	 * @return the icon for this element.
 	 */
 	public Icon getIcon() {
-		return (icon == null) ? null : new Icon(icon);
+		return icon;
 	}
 
 	/**
@@ -151,7 +155,7 @@ public class Source implements Serializable {
 	 * @return the logo for this element.
 	 */
 	public Logo getLogo() {
-		return (logo == null) ? null : new Logo(logo);
+		return logo;
 	}
 
 	/**
@@ -159,7 +163,7 @@ public class Source implements Serializable {
 	 * @return the subtitle for this element.
 	 */
 	public Subtitle getSubtitle() {
-		return (subtitle == null) ? null : new Subtitle(subtitle);
+		return subtitle;
 	}
 
 	/**
@@ -0,0 +1,283 @@
+/**
+ * Copyright 2011 Bill Brown
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.colorfulsoftware.atom;
+
+import java.util.List;
+
+/**
+ * This class collects the elements of a Source and checks them against the
+ * specification once, when the Source is built. A builder is not thread safe
+ * and can be used to build more than one Source.
+ *
+ * @see FeedDoc#newSourceBuilder()
+ * @see FeedDoc#newSourceBuilder(Source)
+ * @author Bill Brown
+ *
+ */
+public final class SourceBuilder {
+
+	private Id id;
+	private Title title;
+	private Updated updated;
+	private Rights rights;
+	private List<Author> authors;
+	private List<Category> categories;
+	private List<Contributor> contributors;
+	private List<Link> links;
+	private List<Attribute> attributes;
+	private List<Extension> extensions;
+	private Generator generator;
+	private Subtitle subtitle;
+	private Icon icon;
+	private Logo logo;
+
+	// use the factory method in the FeedDoc.
+	SourceBuilder() {
+	}
+
+	// use the factory method in the FeedDoc.
+	SourceBuilder(Source source) {
+		this.id = source.getId();
+		this.title = source.getTitle();
+		this.updated = source.getUpdated();
+		this.rights = source.getRights();
+		this.authors = FeedBuilder.copy(source.getAuthors());
+		this.categories = FeedBuilder.copy(source.getCategories());
+		this.contributors = FeedBuilder.copy(source.getContributors());
+		this.links = FeedBuilder.copy(source.getLinks());
+		this.attributes = FeedBuilder.copy(source.getAttributes());
+		this.extensions = FeedBuilder.copy(source.getExtensions());
+		this.generator = source.getGenerator();
+		this.subtitle = source.getSubtitle();
+		this.icon = source.getIcon();
+		this.logo = source.getLogo();
+	}
+
+	/**
+	 * @param id
+	 *            the unique id element (optional)
+	 * @return this builder.
+	 */
+	public SourceBuilder setId(Id id) {
+		this.id = id;
+		return this;
+	}
+
+	/**
+	 * @param title
+	 *            the title element (optional)
+	 * @return this builder.
+	 */
+	public SourceBuilder setTitle(Title title) {
+		this.title = title;
+		return this;
+	}
+
+	/**
+	 * @param updated
+	 *            the updated element (optional)
+	 * @return this builder.
+	 */
+	public SourceBuilder setUpdated(Updated updated) {
+		this.updated = updated;
+		return this;
+	}
+
+	/**
+	 * @param rights
+	 *            the rights element (optional)
+	 * @return this builder.
+	 */
+	public SourceBuilder setRights(Rights rights) {
+		this.rights = rights;
+		return this;
+	}
+
+	/**
+	 * @param authors
+	 *            a list of author elements (optional)
+	 * @return this builder.
+	 */
+	public SourceBuilder setAuthors(List<Author> authors) {
+		this.authors = FeedBuilder.copy(authors);
+		return this;
+	}
+
+	/**
+	 * @param author
+	 *            an author element to add.
+	 * @return this builder.
+	 */
+	public SourceBuilder addAuthor(Author author) {
+		this.authors = FeedBuilder.add(this.authors, author);
+		return this;
+	}
+
+	/**
+	 * @param categories
+	 *            a list of category elements (optional)
+	 * @return this builder.
+	 */
+	public SourceBuilder setCategories(List<Category> categories) {
+		this.categories = FeedBuilder.copy(categories);
+		return this;
+	}
+
+	/**
+	 * @param category
+	 *            a category element to add.
+	 * @return this builder.
+	 */
+	public SourceBuilder addCategory(Category category) {
+		this.categories = FeedBuilder.add(this.categories, category);
+		return this;
+	}
+
+	/**
+	 * @param contributors
+	 *            a list of contributor elements (optional)
+	 * @return this builder.
+	 */
+	public SourceBuilder setContributors(List<Contributor> contributors) {
+		this.contributors = FeedBuilder.copy(contributors);
+		return this;
+	}
+
+	/**
+	 * @param contributor
+	 *            a contributor element to add.
+	 * @return this builder.
+	 */
+	public SourceBuilder addContributor(Contributor contributor) {
+		this.contributors = FeedBuilder.add(this.contributors, contributor);
+		return this;
+	}
+
+	/**
+	 * @param links
+	 *            a list of link elements (optional)
+	 * @return this builder.
+	 */
+	public SourceBuilder setLinks(List<Link> links) {
+		this.links = FeedBuilder.copy(links);
+		return this;
+	}
+
+	/**
+	 * @param link
+	 *            a link element to add.
+	 * @return this builder.
+	 */
+	public SourceBuilder addLink(Link link) {
+		this.links = FeedBuilder.add(this.links, link);
+		return this;
+	}
+
+	/**
+	 * @param attributes
+	 *            additional attributes (optional)
+	 * @return this builder.
+	 */
+	public SourceBuilder setAttributes(List<Attribute> attributes) {
+		this.attributes = FeedBuilder.copy(attributes);
+		return this;
+	}
+
+	/**
+	 * @param attribute
+	 *            an attribute to add.
+	 * @return this builder.
+	 */
+	public SourceBuilder addAttribute(Attribute attribute) {
+		this.attributes = FeedBuilder.add(this.attributes, attribute);
+		return this;
+	}
+
+	/**
+	 * @param extensions
+	 *            a list of extension elements (optional)
+	 * @return this builder.
+	 */
+	public SourceBuilder setExtensions(List<Extension> extensions) {
+		this.extensions = FeedBuilder.copy(extensions);
+		return this;
+	}
+
+	/**
+	 * @param extension
+	 *            an extension element to add.
+	 * @return this builder.
+	 */
+	public SourceBuilder addExtension(Extension extension) {
+		this.extensions = FeedBuilder.add(this.extensions, extension);
+		return this;
+	}
+
+	/**
+	 * @param generator
+	 *            the generator element (optional)
+	 * @return this builder.
+	 */
+	public SourceBuilder setGenerator(Generator generator) {
+		this.generator = generator;
+		return this;
+	}
+
+	/**
+	 * @param subtitle
+	 *            the subtitle element (optional)
+	 * @return this builder.
+	 */
+	public SourceBuilder setSubtitle(Subtitle subtitle) {
+		this.subtitle = subtitle;
+		return this;
+	}
+
+	/**
+	 * @param icon
+	 *            the icon element (optional)
+	 * @return this builder.
+	 */
+	public SourceBuilder setIcon(Icon icon) {
+		this.icon = icon;
+		return this;
+	}
+
+	/**
+	 * @param logo
+	 *            the logo element (optional)
+	 * @return this builder.
+	 */
+	public SourceBuilder setLogo(Logo logo) {
+		this.logo = logo;
+		return this;
+	}
+
+	/**
+	 * checks the elements against the specification and builds the Source.
+	 *
+	 * @return an immutable Source object.
+	 * @throws AtomSpecException
+	 *             if the data violates the <a href=
+	 *             "http://atomenabled.org/developers/syndication/atom-format-spec.php"
+	 *             >specification</a>.
+	 */
+	public Source build() throws AtomSpecException {
+		return new Source(id, title, updated, rights, authors, categories,
+				contributors, links, attributes, extensions, generator,
+				subtitle, icon, logo);
+	}
+}
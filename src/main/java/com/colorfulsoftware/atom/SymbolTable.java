@@ -0,0 +1,144 @@
+/**
+ * Copyright 2011 Bill Brown
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.colorfulsoftware.atom;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class keeps one copy of the strings that repeat throughout an atom
+ * document: attribute names, namespace URIs, the rel, type, term, scheme and
+ * xml:lang attribute values and the author and contributor names and
+ * emails. A feed read with it holds a single "alternate" or "text/html"
+ * string for all of its links instead of one for each.
+ *
+ * The FeedReader uses a new table for every document unless the ReadOptions
+ * give one, in which case the strings are shared by all of the documents
+ * read with it. A table made with one of the constructors is safe to use from
+ * several threads, while the FeedReader's own table is only used by the
+ * thread reading its document and is a plain hash map. Either kind stops
+ * taking new strings once it holds its maximum number of them, so a long
+ * running reader cannot be made to grow it without bound.
+ *
+ * @see ReadOptions#withSymbolTable(SymbolTable)
+ * @author Bill Brown
+ *
+ */
+public final class SymbolTable implements Serializable {
+
+	private static final long serialVersionUID = -5147260328627213541L;
+
+	/**
+	 * the number of strings a table holds unless another is given.
+	 */
+	public static final int DEFAULT_MAX_SYMBOLS = 4096;
+
+	// longer strings are unlikely to repeat and are kept as they are.
+	private static final int MAX_LENGTH = 256;
+
+	private final int maxSymbols;
+	// a ConcurrentMap if the table is shared between threads.
+	private final Map<String, String> symbols;
+	// the map is only added to while it has room so the count is only
+	// changed up to maxSymbols times.
+	private final AtomicInteger count = new AtomicInteger();
+
+	/**
+	 * creates a table that holds up to DEFAULT_MAX_SYMBOLS strings.
+	 */
+	public SymbolTable() {
+		this(DEFAULT_MAX_SYMBOLS);
+	}
+
+	/**
+	 * @param maxSymbols
+	 *            the most strings the table holds.
+	 * @throws IllegalArgumentException
+	 *             if maxSymbols is not positive.
+	 */
+	public SymbolTable(int maxSymbols) {
+		if (maxSymbols <= 0) {
+			throw new IllegalArgumentException(
+					"The maximum number of symbols must be positive.");
+		}
+		this.maxSymbols = maxSymbols;
+		this.symbols = new ConcurrentHashMap<String, String>();
+	}
+
+	// a table for the FeedReader reading one document on one thread.
+	private SymbolTable(int maxSymbols, Map<String, String> symbols) {
+		this.maxSymbols = maxSymbols;
+		this.symbols = symbols;
+	}
+
+	/**
+	 * @return a table holding up to DEFAULT_MAX_SYMBOLS strings that is not
+	 *         safe to share between threads.
+	 */
+	static SymbolTable forDocument() {
+		return new SymbolTable(DEFAULT_MAX_SYMBOLS,
+				new HashMap<String, String>());
+	}
+
+	/**
+	 * @return the number of strings in the table.
+	 */
+	public int size() {
+		return count.get();
+	}
+
+	/**
+	 * @return the most strings the table holds.
+	 */
+	public int getMaxSymbols() {
+		return maxSymbols;
+	}
+
+	/**
+	 * @param value
+	 *            the string to look up.
+	 * @return the copy of the string in the table, the string itself if it
+	 *         has been added now or if it cannot be added, or null if it is
+	 *         null.
+	 */
+	String intern(String value) {
+		if (value == null || value.length() > MAX_LENGTH) {
+			return value;
+		}
+		String symbol = symbols.get(value);
+		if (symbol != null) {
+			return symbol;
+		}
+		if (count.get() >= maxSymbols) {
+			return value;
+		}
+		if (symbols instanceof ConcurrentMap<?, ?>) {
+			symbol = ((ConcurrentMap<String, String>) symbols).putIfAbsent(
+					value, value);
+			if (symbol != null) {
+				return symbol;
+			}
+		} else {
+			symbols.put(value, value);
+		}
+		count.incrementAndGet();
+		return value;
+	}
+}
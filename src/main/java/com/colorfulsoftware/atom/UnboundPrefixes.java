@@ -0,0 +1,67 @@
+/**
+ * Copyright 2011 Bill Brown
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.colorfulsoftware.atom;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class collects the namespace prefixes a construct uses without
+ * declaring them. The list is only made once there is a prefix to put in it,
+ * so the constructs that have none, which are nearly all of them, keep null
+ * and allocate nothing.
+ *
+ * @author Bill Brown
+ *
+ */
+final class UnboundPrefixes {
+
+	private UnboundPrefixes() {
+	}
+
+	/**
+	 * @param prefixes
+	 *            the prefixes so far or null.
+	 * @param prefix
+	 *            the prefix to add.
+	 * @return the prefixes with the prefix added.
+	 */
+	static List<String> add(List<String> prefixes, String prefix) {
+		if (prefixes == null) {
+			prefixes = new ArrayList<String>(2);
+		}
+		prefixes.add(prefix);
+		return prefixes;
+	}
+
+	/**
+	 * @param prefixes
+	 *            the prefixes so far or null.
+	 * @param more
+	 *            the prefixes to add.
+	 * @return the prefixes with the others added.
+	 */
+	static List<String> addAll(List<String> prefixes, List<String> more) {
+		if (more.isEmpty()) {
+			return prefixes;
+		}
+		if (prefixes == null) {
+			prefixes = new ArrayList<String>(more.size());
+		}
+		prefixes.addAll(more);
+		return prefixes;
+	}
+}
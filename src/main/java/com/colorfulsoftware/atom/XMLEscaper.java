@@ -0,0 +1,173 @@
+/**
+ * Copyright 2011 Bill Brown
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.colorfulsoftware.atom;
+
+/**
+ * This class escapes and unescapes the xml markup characters for the
+ * FeedReader and FeedWriter. Each method makes a single pass over the text and
+ * returns the text itself when there is nothing to replace.
+ *
+ * @author Bill Brown
+ *
+ */
+final class XMLEscaper {
+
+	private XMLEscaper() {
+	}
+
+	/**
+	 * escapes the '&amp;' characters of an attribute value that are not
+	 * already escaped. The same as
+	 * <code>value.replaceAll("&amp;amp;","&amp;").replaceAll("&amp;", "&amp;amp;")</code>
+	 *
+	 * @param value
+	 *            the attribute value.
+	 * @return the escaped value.
+	 */
+	static String escapeAttribute(String value) {
+		int index = (value == null) ? -1 : value.indexOf('&');
+		if (index == -1) {
+			return value;
+		}
+		StringBuilder escaped = new StringBuilder(value.length() + 8);
+		escaped.append(value, 0, index);
+		for (int i = index; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '&') {
+				escaped.append("&amp;");
+				if (value.startsWith("amp;", i + 1)) {
+					i += 4;
+				}
+			} else {
+				escaped.append(c);
+			}
+		}
+		return escaped.toString();
+	}
+
+	/**
+	 * escapes the '&amp;' and '&lt;' characters (and optionally the '&gt;'
+	 * characters) of text content.
+	 *
+	 * @param text
+	 *            the text content.
+	 * @param escapeGreaterThan
+	 *            true to escape the '&gt;' characters as well.
+	 * @return the escaped text.
+	 */
+	static String escapeText(String text, boolean escapeGreaterThan) {
+		if (text == null) {
+			return null;
+		}
+		int index = 0;
+		while (index < text.length()
+				&& !isEscaped(text.charAt(index), escapeGreaterThan)) {
+			index++;
+		}
+		if (index == text.length()) {
+			return text;
+		}
+		StringBuilder escaped = new StringBuilder(text.length() + 16);
+		escaped.append(text, 0, index);
+		appendEscapedText(escaped, text, index, text.length(),
+				escapeGreaterThan);
+		return escaped.toString();
+	}
+
+	// appends the characters between start and end escaping them on the way.
+	static void appendEscapedText(StringBuilder escaped, CharSequence text,
+			int start, int end, boolean escapeGreaterThan) {
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			if (c == '&') {
+				escaped.append("&amp;");
+			} else if (c == '<') {
+				escaped.append("&lt;");
+			} else if (c == '>' && escapeGreaterThan) {
+				escaped.append("&gt;");
+			} else {
+				escaped.append(c);
+			}
+		}
+	}
+
+	// appends the characters between start and end of the array escaping
+	// them on the way.
+	static void appendEscapedText(StringBuilder escaped, char[] text,
+			int start, int end, boolean escapeGreaterThan) {
+		int plain = start;
+		for (int i = start; i < end; i++) {
+			char c = text[i];
+			if (isEscaped(c, escapeGreaterThan)) {
+				escaped.append(text, plain, i - plain);
+				escaped.append((c == '&') ? "&amp;" : (c == '<') ? "&lt;"
+						: "&gt;");
+				plain = i + 1;
+			}
+		}
+		escaped.append(text, plain, end - plain);
+	}
+
+	private static boolean isEscaped(char c, boolean escapeGreaterThan) {
+		return c == '&' || c == '<' || (c == '>' && escapeGreaterThan);
+	}
+
+	/**
+	 * turns the escaped '&amp;amp;', '&amp;lt;' and '&amp;gt;' entities back
+	 * into markup characters. The same as
+	 * <code>text.replaceAll("&amp;amp;", "&amp;").replaceAll("&amp;lt;", "&lt;").replaceAll("&amp;gt;", "&gt;")</code>
+	 * so an escaped '&amp;amp;lt;' becomes '&lt;' as well.
+	 *
+	 * @param text
+	 *            the escaped markup.
+	 * @return the unescaped markup.
+	 */
+	static String unescapeMarkup(String text) {
+		int index = (text == null) ? -1 : text.indexOf('&');
+		if (index == -1) {
+			return text;
+		}
+		StringBuilder unescaped = new StringBuilder(text.length());
+		unescaped.append(text, 0, index);
+		for (int i = index; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c != '&') {
+				unescaped.append(c);
+			} else if (text.startsWith("amp;", i + 1)) {
+				i += 4;
+				// the '&' left behind can start another entity.
+				if (text.startsWith("lt;", i + 1)) {
+					unescaped.append('<');
+					i += 3;
+				} else if (text.startsWith("gt;", i + 1)) {
+					unescaped.append('>');
+					i += 3;
+				} else {
+					unescaped.append('&');
+				}
+			} else if (text.startsWith("lt;", i + 1)) {
+				unescaped.append('<');
+				i += 3;
+			} else if (text.startsWith("gt;", i + 1)) {
+				unescaped.append('>');
+				i += 3;
+			} else {
+				unescaped.append(c);
+			}
+		}
+		return unescaped.toString();
+	}
+}
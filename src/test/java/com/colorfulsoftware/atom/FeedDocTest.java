@@ -18,23 +18,48 @@ package com.colorfulsoftware.atom;
 import static org.junit.Assert.*;
 
 import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
 import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Serializable;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.XMLStreamWriter;
 
@@ -792,7 +817,7 @@ public class FeedDocTest implements Serializable {
 			FeedDoc feedDoc2 = null;
 			List<FeedDoc.ProcessingInstruction> insts = new LinkedList<FeedDoc.ProcessingInstruction>();
 			insts
-					.add(new FeedDoc().new ProcessingInstruction(
+					.add(new FeedDoc.ProcessingInstruction(
 							"xml-stylesheet",
 							"href=\"http://www.blogger.com/styles/atom.css\" type=\"text/css\""));
 			feedDoc2 = new FeedDoc(insts);
@@ -1024,7 +1049,7 @@ public class FeedDocTest implements Serializable {
 					.getAuthors(), ent.getCategories(), ent.getContributors(),
 					ent.getLinks(), ent.getAttributes(), extns, ent
 							.getPublished(), ent.getSummary(), ent.getSource());
-			List<Entry> entries = feed1.getEntries();
+			List<Entry> entries = new LinkedList<Entry>(feed1.getEntries());
 			for (int i = 0; i < entries.size(); i++) {
 				if (entries.get(i).getTitle().getText().equals(
 						"Atom-Powered Robots Run Amok")) {
@@ -1186,7 +1211,7 @@ public class FeedDocTest implements Serializable {
 		// test extension namespaces
 		try {
 			feed1 = feedDoc.readFeedToBean(basicFeed4);
-			List<Author> auths = feed1.getAuthors();
+			List<Author> auths = new LinkedList<Author>(feed1.getAuthors());
 			Author author = auths.remove(0);
 			List<Extension> extns = new LinkedList<Extension>();
 			extns.add(feedDoc.buildExtension("whats:up", null,
@@ -1211,12 +1236,13 @@ public class FeedDocTest implements Serializable {
 
 		try {
 			feed1 = feedDoc.readFeedToBean(basicFeed4);
-			List<Author> auths = feed1.getAuthors();
+			List<Author> auths = new LinkedList<Author>(feed1.getAuthors());
 			Author author = auths.remove(0);
 			List<Extension> extns = new LinkedList<Extension>();
 			extns.add(feedDoc.buildExtension("whats:up", null,
 					"nothing special"));
-			List<Attribute> attrs = feed1.getAttributes();
+			List<Attribute> attrs = new LinkedList<Attribute>(feed1
+					.getAttributes());
 			attrs.add(feedDoc.buildAttribute("xmlns:whats",
 					"http://www.yyy.zzz"));
 			auths.add(feedDoc.buildAuthor(author.getName(), author.getUri(),
@@ -2089,7 +2115,7 @@ public class FeedDocTest implements Serializable {
 			for (Entry entry : feed1.getEntries()) {
 				assertNotNull(entry);
 			}
-			List<Entry> entries2 = feed1.getEntries();
+			List<Entry> entries2 = new LinkedList<Entry>(feed1.getEntries());
 
 			assertNotNull(feed1.getEntry(entryStr1));
 			assertNull(feed1.getEntry(entryStr1 + "bunk"));
@@ -2103,7 +2129,7 @@ public class FeedDocTest implements Serializable {
 			for (Entry entry : feed1.getEntries()) {
 				assertNotNull(entry);
 			}
-			entries2 = feed1.getEntries();
+			entries2 = new LinkedList<Entry>(feed1.getEntries());
 
 			assertEquals(entries2.get(0).getTitle().getText(), entryStr3);
 			entries2.remove(entries2.get(0));
@@ -2137,4 +2163,1425 @@ public class FeedDocTest implements Serializable {
 		}
 	}
 
+	/**
+	 * test iterating over the entries of a document.
+	 */
+	@Test
+	public void testReadEntries() {
+		try {
+			Feed feed = feedDoc.readFeedToBean(new File(
+					"src/test/resources/flat.xml"));
+			EntryIterator entries = feedDoc.readEntries(new File(
+					"src/test/resources/flat.xml"));
+			int count = 0;
+			while (entries.hasNext()) {
+				assertEquals(entries.next(), feed.getEntries().get(count++));
+			}
+			assertEquals(count, 4);
+			assertFalse(entries.hasNext());
+			entries.close();
+
+			// a document with an entry root element.
+			entries = feedDoc.readEntries(new File(
+					"src/test/resources/expectedEntry1.xml"));
+			assertTrue(entries.hasNext());
+			assertNotNull(entries.next());
+			assertFalse(entries.hasNext());
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail("this shouldn't happen");
+		}
+
+		try {
+			EntryIterator entries = feedDoc.readEntries(new File(
+					"src/test/resources/flat.xml"));
+			entries.close();
+			assertFalse(entries.hasNext());
+			entries.next();
+			fail("should not get here;");
+		} catch (Exception e) {
+			assertTrue(e instanceof java.util.NoSuchElementException);
+		}
+	}
+
+	/**
+	 * test limiting the number of entries read.
+	 */
+	@Test
+	public void testReadFeedToBeanReadOptions() {
+		try {
+			File flat = new File("src/test/resources/flat.xml");
+			Feed feed = feedDoc.readFeedToBean(flat, ReadOptions.maxEntries(2));
+			assertEquals(feed.getEntries().size(), 2);
+			assertEquals(feed.getEntries().get(1), feedDoc.readFeedToBean(flat)
+					.getEntries().get(1));
+
+			feed = feedDoc.readFeedToBean(flat, ReadOptions.maxEntries(10));
+			assertEquals(feed.getEntries().size(), 4);
+
+			// the input stream is left open as with readFeedToBean(in).
+			FileInputStream in = new FileInputStream(flat);
+			feed = feedDoc.readFeedToBean(in, ReadOptions.maxEntries(1));
+			assertEquals(feed.getEntries().size(), 1);
+			assertTrue(in.getChannel().isOpen());
+			in.close();
+
+			// header only.
+			feed = feedDoc.readFeedToBean(flat, ReadOptions.headerOnly());
+			assertEquals(feed.getEntries().size(), 0);
+			assertEquals(feed.getTitle().getText(), "Atomsphere");
+			assertNotNull(feed.getAuthors());
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail("this shouldn't happen");
+		}
+
+		try {
+			ReadOptions.maxEntries(-1);
+			fail("should not get here;");
+		} catch (Exception e) {
+			assertTrue(e instanceof IllegalArgumentException);
+		}
+	}
+
+	/**
+	 * test rejecting documents that go over the resource limits.
+	 */
+	@Test
+	public void testReadFeedToBeanLimits() {
+		File flat = new File("src/test/resources/flat.xml");
+		StringBuilder nested = new StringBuilder(
+				"<feed xmlns=\"http://www.w3.org/2005/Atom\" xmlns:ext=\"urn:ext\">"
+						+ "<id>urn:feed</id><updated>2011-01-01T00:00:00Z</updated>"
+						+ "<title>nested</title><author><name>Bill</name></author>");
+		for (int i = 0; i < 100; i++) {
+			nested.append("<ext:a>");
+		}
+		for (int i = 0; i < 100; i++) {
+			nested.append("</ext:a>");
+		}
+		nested.append("</feed>");
+		byte[] nestedBytes = nested.toString().getBytes();
+		try {
+			// within the limits.
+			Feed feed = feedDoc.readFeedToBean(flat, ReadOptions.limits(10,
+					10000, 4, 100000));
+			assertEquals(feed, feedDoc.readFeedToBean(flat));
+			assertEquals(feedDoc.readFeedToBean(new ByteArrayInputStream(
+					nestedBytes), ReadOptions.defaults().withMaxDepth(101))
+					.getExtensions().size(), 1);
+
+			// maxEntries stops before maxEntriesAllowed is reached.
+			feed = feedDoc.readFeedToBean(flat, ReadOptions.maxEntries(2)
+					.withMaxEntriesAllowed(2));
+			assertEquals(feed.getEntries().size(), 2);
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail("this shouldn't happen");
+		}
+
+		ReadOptions[] overLimits = {
+				ReadOptions.defaults().withMaxEntriesAllowed(3),
+				ReadOptions.defaults().withMaxTextLength(1000),
+				ReadOptions.defaults().withMaxCharacters(5000),
+				ReadOptions.defaults().withMaxDepth(2) };
+		for (ReadOptions options : overLimits) {
+			try {
+				feedDoc.readFeedToBean(flat, options);
+				fail("should not get here.");
+			} catch (Exception e) {
+				assertTrue(e instanceof ReadLimitException);
+			}
+		}
+		try {
+			feedDoc.readFeedToBean(new ByteArrayInputStream(nestedBytes),
+					ReadOptions.defaults().withMaxDepth(50));
+			fail("should not get here.");
+		} catch (Exception e) {
+			assertTrue(e instanceof ReadLimitException);
+			assertTrue(e.getMessage().indexOf("50 levels") != -1);
+		}
+		// the attributes of the root element count as well.
+		try {
+			StringBuilder base = new StringBuilder(
+					"http://www.colorfulsoftware.com/");
+			while (base.length() < 1000) {
+				base.append("base/");
+			}
+			byte[] bytes = ("<feed xmlns=\"http://www.w3.org/2005/Atom\" xml:base=\""
+					+ base + "\"><id>http://www.colorfulsoftware.com/atom.xml</id>"
+					+ "<updated>2008-01-08T00:00:00.00-06:00</updated>"
+					+ "<title>base</title>"
+					+ "<author><name>Bill Brown</name></author></feed>")
+					.getBytes("UTF-8");
+			ReadOptions options = ReadOptions.defaults().withMaxCharacters(500);
+			try {
+				feedDoc.readFeedToBean(new ByteArrayInputStream(bytes), options);
+				fail("should not get here.");
+			} catch (ReadLimitException e) {
+				assertTrue(e.getMessage().indexOf("500 characters") != -1);
+			}
+			// also when the parser is on the root element already.
+			XMLStreamReader reader = feedDoc
+					.createXMLStreamReader(new ByteArrayInputStream(bytes));
+			reader.nextTag();
+			new LimitedStreamReader(reader, options);
+			fail("should not get here.");
+		} catch (Exception e) {
+			assertTrue(e instanceof ReadLimitException);
+			assertTrue(e.getMessage().indexOf("500 characters") != -1);
+		}
+
+		// the iterator checks the limits as it reads.
+		try {
+			FileInputStream in = new FileInputStream(flat);
+			EntryIterator entries = feedDoc.readEntries(in, ReadOptions
+					.defaults().withMaxEntriesAllowed(1));
+			try {
+				assertTrue(entries.hasNext());
+				entries.next();
+				entries.hasNext();
+				fail("should not get here.");
+			} catch (IllegalStateException e) {
+				assertTrue(e.getCause() instanceof ReadLimitException);
+			} finally {
+				in.close();
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail("this shouldn't happen");
+		}
+
+		try {
+			ReadOptions.defaults().withMaxDepth(0);
+			fail("should not get here;");
+		} catch (Exception e) {
+			assertTrue(e instanceof IllegalArgumentException);
+		}
+	}
+
+	@Test
+	public void testReadFeedToBeanWatermark() {
+		try {
+			File flat = new File("src/test/resources/flat.xml");
+			Set<String> knownIds = new HashSet<String>();
+			knownIds.add("http://colorfulsoftware.localhost/colorfulsoftware/projects/atomsphere/atom.xml#Documentation");
+			Feed feed = feedDoc.readFeedToBean(flat, ReadOptions
+					.watermark(knownIds));
+			assertEquals(feed.getEntries().size(), 1);
+			assertEquals(
+					feed.getEntries().get(0).getId().getAtomUri(),
+					"http://colorfulsoftware.localhost/colorfulsoftware/projects/atomsphere/atom.xml#Examples");
+
+			// the first entry is at the watermark.
+			Date lastUpdated = feedDoc.readFeedToBean(flat).getEntries().get(0)
+					.getUpdated().getDateTime();
+			feed = feedDoc.readFeedToBean(flat, ReadOptions
+					.watermark(lastUpdated));
+			assertEquals(feed.getEntries().size(), 0);
+
+			feed = feedDoc.readFeedToBean(flat, ReadOptions.watermark(new Date(
+					lastUpdated.getTime() - 1)));
+			assertEquals(feed.getEntries().size(), 4);
+
+			// the iterator stops at the watermark too.
+			FileInputStream in = new FileInputStream(flat);
+			EntryIterator entries = feedDoc.readEntries(in, ReadOptions
+					.watermark(knownIds));
+			assertTrue(entries.hasNext());
+			entries.next();
+			assertFalse(entries.hasNext());
+			in.close();
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail("this shouldn't happen");
+		}
+	}
+
+	@Test
+	public void testReadFeedDocument() {
+		try {
+			String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+					+ "<?xml-stylesheet href=\"atom.css\" type=\"text/css\"?>"
+					+ "<feed xmlns=\"http://www.w3.org/2005/Atom\">"
+					+ "<id>http://www.colorfulsoftware.com/atom.xml</id>"
+					+ "<updated>2008-01-08T00:00:00.00-06:00</updated>"
+					+ "<title>test feed</title>"
+					+ "<author><name>Bill Brown</name></author></feed>";
+			String encoding = feedDoc.getEncoding();
+			AtomDocument<Feed> doc = feedDoc
+					.readFeedDocument(new ByteArrayInputStream(xml
+							.getBytes("UTF-8")));
+			assertEquals(doc.getRoot().getTitle().getText(), "test feed");
+			assertEquals(doc.getXmlVersion(), "1.0");
+			assertEquals(doc.getProcessingInstructions().size(), 1);
+			assertEquals(doc.getProcessingInstructions().get(0).getTarget(),
+					"xml-stylesheet");
+			// the prolog is not kept by the FeedDoc.
+			assertEquals(feedDoc.getEncoding(), encoding);
+			assertTrue(feedDoc.readFeedToString(doc.getRoot(), null).indexOf(
+					"xml-stylesheet") == -1);
+			assertEquals(feedDoc.getEncoding(), "UTF-8");
+
+			// but written again from the document.
+			doc = feedDoc.readFeedDocument(new ByteArrayInputStream(xml
+					.replace("UTF-8", "ISO-8859-1").getBytes("ISO-8859-1")));
+			String written = feedDoc.readFeedDocumentToString(doc, null);
+			assertTrue(written.startsWith("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>"));
+			assertTrue(written.indexOf("<?xml-stylesheet href=\"atom.css\"") != -1);
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail("this shouldn't happen");
+		}
+
+		// one instance shared between threads.
+		try {
+			final File flat = new File("src/test/resources/flat.xml");
+			final Feed expected = feedDoc.readFeedToBean(flat);
+			final List<Exception> errors = new LinkedList<Exception>();
+			Thread[] threads = new Thread[4];
+			for (int i = 0; i < threads.length; i++) {
+				threads[i] = new Thread() {
+					public void run() {
+						try {
+							for (int j = 0; j < 10; j++) {
+								Feed feed = feedDoc.readFeedToBean(flat);
+								assertEquals(feed.getEntries(), expected
+										.getEntries());
+							}
+						} catch (Throwable t) {
+							synchronized (errors) {
+								errors.add(new Exception(t));
+							}
+						}
+					}
+				};
+				threads[i].start();
+			}
+			for (Thread thread : threads) {
+				thread.join();
+			}
+			assertTrue(errors.isEmpty());
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail("this shouldn't happen");
+		}
+	}
+
+	@Test
+	public void testReadFeedToBeanMappedFile() {
+		try {
+			// large enough to be memory mapped.
+			File large = new File("target/large.xml");
+			BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+					new FileOutputStream(large), "UTF-8"));
+			out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+					+ "<feed xmlns=\"http://www.w3.org/2005/Atom\">"
+					+ "<id>http://www.colorfulsoftware.com/atom.xml</id>"
+					+ "<updated>2008-01-08T00:00:00.00-06:00</updated>"
+					+ "<title>large feed</title>"
+					+ "<author><name>Bill Brown</name></author>");
+			for (int i = 0; i < 5000; i++) {
+				out.write("<entry><id>http://www.colorfulsoftware.com/atom.xml#"
+						+ i
+						+ "</id><updated>2008-01-08T00:00:00.00-06:00</updated>"
+						+ "<title>entry "
+						+ i
+						+ "</title><summary>a summary long enough to make the"
+						+ " file larger than the mapping threshold.</summary>"
+						+ "</entry>");
+			}
+			out.write("</feed>");
+			out.close();
+			assertTrue(large.length() > 1024 * 1024);
+
+			Feed feed = feedDoc.readFeedToBean(large);
+			assertEquals(feed.getEntries().size(), 5000);
+			// the file is closed once it has been read.
+			assertTrue(large.delete());
+
+			// read across several mapped windows.
+			File flat = new File("src/test/resources/flat.xml");
+			MappedFileInputStream in = new MappedFileInputStream(flat, 7);
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			byte[] buffer = new byte[100];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				bytes.write(buffer, 0, read);
+			}
+			in.close();
+			assertEquals(bytes.size(), flat.length());
+			assertEquals(feedDoc.readFeedToBean(
+					new ByteArrayInputStream(bytes.toByteArray()))
+					.getEntries(), feedDoc.readFeedToBean(flat).getEntries());
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail("this shouldn't happen");
+		}
+	}
+
+	@Test
+	public void testReadFeedToBeanReader() {
+		try {
+			// the declared encoding cannot represent the title.
+			String xml = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>"
+					+ "<feed xmlns=\"http://www.w3.org/2005/Atom\">"
+					+ "<id>http://www.colorfulsoftware.com/atom.xml</id>"
+					+ "<updated>2008-01-08T00:00:00.00-06:00</updated>"
+					+ "<title>\u00e9t\u00e9 \u4e2d\u6587</title>"
+					+ "<author><name>Bill Brown</name></author></feed>";
+			Feed feed = feedDoc.readFeedToBean(xml);
+			assertEquals(feed.getTitle().getText(), "\u00e9t\u00e9 \u4e2d\u6587");
+			feed = feedDoc.readFeedToBean(new StringReader(xml));
+			assertEquals(feed.getTitle().getText(), "\u00e9t\u00e9 \u4e2d\u6587");
+
+			Entry entry = feedDoc.readEntryToBean(new StringReader(
+					expectedEntry1));
+			assertEquals(entry, feedDoc.readEntryToBean(expectedEntry1));
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail("this shouldn't happen");
+		}
+	}
+
+	@Test
+	public void testReadFeedToBeanByteBuffer() {
+		try {
+			String feedXml = "<feed xmlns=\"http://www.w3.org/2005/Atom\">"
+					+ "<id>http://www.colorfulsoftware.com/atom.xml</id>"
+					+ "<updated>2008-01-08T00:00:00.00-06:00</updated>"
+					+ "<title>\u00e9t\u00e9</title>"
+					+ "<author><name>Bill Brown</name></author>"
+					+ "<entry><id>http://www.colorfulsoftware.com/atom.xml#1</id>"
+					+ "<updated>2008-01-08T00:00:00.00-06:00</updated>"
+					+ "<title>entry \u4e2d</title></entry></feed>";
+			String entryXml = "<entry xmlns=\"http://www.w3.org/2005/Atom\">"
+					+ "<id>http://www.colorfulsoftware.com/atom.xml#1</id>"
+					+ "<updated>2008-01-08T00:00:00.00-06:00</updated>"
+					+ "<title>entry \u4e2d</title></entry>";
+			for (String encoding : new String[] { "UTF-8", "UTF-16" }) {
+				String prolog = "<?xml version=\"1.0\" encoding=\"" + encoding
+						+ "\"?>";
+				byte[] feedBytes = (prolog + feedXml).getBytes(encoding);
+				byte[] entryBytes = (prolog + entryXml).getBytes(encoding);
+				ByteBuffer heap = ByteBuffer.wrap(feedBytes);
+				ByteBuffer direct = ByteBuffer.allocateDirect(feedBytes.length);
+				direct.put(feedBytes).flip();
+				for (ByteBuffer buffer : new ByteBuffer[] { heap, direct }) {
+					Feed feed = feedDoc.readFeedToBean(buffer);
+					assertEquals(feed.getTitle().getText(), "\u00e9t\u00e9");
+					assertEquals(feed.getEntries().get(0).getTitle().getText(),
+							"entry \u4e2d");
+					// the buffer can be read again.
+					assertEquals(buffer.remaining(), feedBytes.length);
+				}
+				direct = ByteBuffer.allocateDirect(entryBytes.length);
+				direct.put(entryBytes).flip();
+				assertEquals(feedDoc.readEntryToBean(direct).getTitle()
+						.getText(), "entry \u4e2d");
+				assertEquals(feedDoc.readEntryToBean(ByteBuffer.wrap(entryBytes))
+						.getTitle().getText(), "entry \u4e2d");
+
+				Feed feed = feedDoc.readFeedToBean(Channels
+						.newChannel(new ByteArrayInputStream(feedBytes)));
+				assertEquals(feed.getTitle().getText(), "\u00e9t\u00e9");
+				Entry entry = feedDoc.readEntryToBean(Channels
+						.newChannel(new ByteArrayInputStream(entryBytes)));
+				assertEquals(entry.getTitle().getText(), "entry \u4e2d");
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail("this shouldn't happen");
+		}
+	}
+
+	@Test
+	public void testNewPushParser() {
+		try {
+			File flat = new File("src/test/resources/flat.xml");
+			byte[] flatBytes = new byte[(int) flat.length()];
+			FileInputStream in = new FileInputStream(flat);
+			int read = 0;
+			while (read < flatBytes.length) {
+				read += in.read(flatBytes, read, flatBytes.length - read);
+			}
+			in.close();
+			List<Entry> expected = new LinkedList<Entry>();
+			EntryIterator entries = feedDoc.readEntries(flat);
+			while (entries.hasNext()) {
+				expected.add(entries.next());
+			}
+			Feed feed = feedDoc.readFeedToBean(flat);
+
+			// one byte, random chunks and the whole document at once.
+			Random random = new Random(42);
+			for (int chunk : new int[] { 1, 0, flatBytes.length }) {
+				PushHandler handler = new PushHandler(-1);
+				FeedPushParser parser = feedDoc.newPushParser(handler);
+				for (int i = 0; i < flatBytes.length;) {
+					int count = Math.min(flatBytes.length - i,
+							(chunk == 0) ? random.nextInt(64) + 1 : chunk);
+					parser.feed(flatBytes, i, count);
+					i += count;
+				}
+				parser.endOfInput();
+				assertTrue(parser.isDone());
+				assertTrue(handler.ended);
+				assertEquals(handler.header.getId(), feed.getId());
+				assertEquals(handler.header.getTitle(), feed.getTitle());
+				assertEquals(handler.entries, expected);
+			}
+
+			// markup that looks like an entry inside comments and CDATA, a
+			// prefixed atom namespace declared on the root element and
+			// extensions named entry in other namespaces.
+			String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+					+ "<?xml-stylesheet href=\"atom.xsl\"?>"
+					+ "<!-- <entry> -->"
+					+ "<a:feed xmlns:a=\"http://www.w3.org/2005/Atom\" xmlns:ext=\"http://www.colorfulsoftware.com/ext\">"
+					+ "<a:id>http://www.colorfulsoftware.com/atom.xml</a:id>"
+					+ "<a:updated>2008-01-08T00:00:00.00-06:00</a:updated>"
+					+ "<a:title>push feed</a:title>"
+					+ "<a:author><a:name>Bill Brown</a:name></a:author>"
+					+ "<ext:note title='a > b'>header</ext:note>"
+					+ "<ext:entry>not an entry</ext:entry>"
+					+ "<x:entry xmlns:x=\"urn:other\"><a:entry/></x:entry>"
+					+ "<a:entry><a:id>http://www.colorfulsoftware.com/atom.xml#1</a:id>"
+					+ "<a:updated>2008-01-08T00:00:00.00-06:00</a:updated>"
+					+ "<a:title>\u00e9t\u00e9 \u4e2d\u6587</a:title>"
+					+ "<a:content><![CDATA[</a:entry><a:entry>]]></a:content>"
+					+ "<!-- </a:entry> --></a:entry>"
+					+ "<a:entry><a:id>http://www.colorfulsoftware.com/atom.xml#2</a:id>"
+					+ "<a:updated>2008-01-08T00:00:00.00-06:00</a:updated>"
+					+ "<a:title>entry 2</a:title></a:entry></a:feed>";
+			byte[] bytes = xml.getBytes("UTF-8");
+			feed = feedDoc.readFeedToBean(xml);
+			for (int chunk = 1; chunk < 16; chunk++) {
+				PushHandler handler = new PushHandler(-1);
+				FeedPushParser parser = feedDoc.newPushParser(handler);
+				for (int i = 0; i < bytes.length; i += chunk) {
+					parser.feed(bytes, i, Math.min(chunk, bytes.length - i));
+				}
+				parser.endOfInput();
+				assertEquals(handler.extensions, 3);
+				assertNull(handler.header.getExtensions());
+				assertEquals(handler.entries, feed.getEntries());
+				assertEquals(handler.entries.get(0).getContent().getContent(),
+						"</a:entry><a:entry>");
+			}
+			PushHandler pulled = new PushHandler(-1);
+			feedDoc.readFeedToHandler(new ByteArrayInputStream(bytes), pulled);
+			assertEquals(pulled.extensions, 3);
+			assertNull(pulled.header.getExtensions());
+			assertEquals(pulled.entries, feed.getEntries());
+
+			// stop after the first entry.
+			PushHandler handler = new PushHandler(1);
+			FeedPushParser parser = feedDoc.newPushParser(handler);
+			parser.feed(bytes);
+			assertTrue(parser.isDone());
+			assertTrue(handler.ended);
+			assertEquals(handler.entries.size(), 1);
+
+			// an entry document.
+			handler = new PushHandler(-1);
+			parser = feedDoc.newPushParser(handler);
+			parser.feed(expectedEntry1.getBytes("UTF-8"));
+			parser.endOfInput();
+			assertEquals(handler.entries.get(0), feedDoc
+					.readEntryToBean(expectedEntry1));
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail("this shouldn't happen");
+		}
+
+		try {
+			FeedPushParser parser = feedDoc.newPushParser(new PushHandler(-1));
+			parser.feed("<feed xmlns=\"http://www.w3.org/2005/Atom\"><id>"
+					.getBytes("UTF-8"));
+			parser.endOfInput();
+			fail("should not get here.");
+		} catch (Exception e) {
+			assertTrue(e instanceof XMLStreamException);
+			assertEquals(e.getMessage(),
+					"the atom document ended before the root element was closed.");
+		}
+	}
+
+	@Test
+	public void testReadFeedToBeanExecutor() {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			readFeedToBeanExecutor(executor);
+		} finally {
+			executor.shutdown();
+		}
+
+		// tasks the executor never gets to are run by the calling thread.
+		readFeedToBeanExecutor(new Executor() {
+			public void execute(Runnable command) {
+			}
+		});
+	}
+
+	private void readFeedToBeanExecutor(Executor executor) {
+		try {
+			// enough entries for several tasks and a feed level element
+			// between them.
+			StringBuilder xml = new StringBuilder(
+					"<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+							+ "<a:feed xmlns:a=\"http://www.w3.org/2005/Atom\" xmlns:b=\"urn:other\" xml:lang=\"en-US\">"
+							+ "<a:id>http://www.colorfulsoftware.com/atom.xml</a:id>"
+							+ "<a:updated>2008-01-08T00:00:00.00-06:00</a:updated>"
+							+ "<a:title>parallel feed</a:title>"
+							+ "<a:author><a:name>Bill Brown</a:name></a:author>");
+			for (int i = 0; i < 5000; i++) {
+				xml.append("<a:entry><a:id>http://www.colorfulsoftware.com/atom.xml#")
+						.append(i)
+						.append("</a:id><a:updated>2008-01-08T00:00:00.00-06:00</a:updated>")
+						.append("<a:title>entry \u4e2d ").append(i)
+						.append("</a:title><a:summary><![CDATA[</a:entry>]]>")
+						.append("</a:summary></a:entry><!-- <a:entry> -->");
+				if (i == 2500) {
+					xml.append("<a:link href=\"http://www.colorfulsoftware.com/\"/>");
+				} else if (i == 1000) {
+					// extensions named entry are not entries.
+					xml.append("<b:entry>not an entry</b:entry>")
+							.append("<x:entry xmlns:x=\"urn:other\"><a:entry/></x:entry>");
+				}
+			}
+			xml.append("</a:feed>");
+			byte[] bytes = xml.toString().getBytes("UTF-8");
+			assertTrue(bytes.length > 4 * ParallelFeedReader.TASK_SIZE);
+			Feed expected = feedDoc.readFeedToBean(new ByteArrayInputStream(
+					bytes));
+			Feed feed = feedDoc.readFeedToBean(ByteBuffer.wrap(bytes),
+					executor);
+			assertEquals(feed.getEntries().size(), 5000);
+			assertEquals(feed, expected);
+			assertEquals(feed.getLinks().size(), 1);
+			assertEquals(feed.getExtensions().size(), 2);
+
+			File flat = new File("src/test/resources/flat.xml");
+			assertEquals(feedDoc.readFeedToBean(flat, executor), feedDoc
+					.readFeedToBean(flat));
+
+			// read on the calling thread.
+			String utf16 = "<?xml version=\"1.0\" encoding=\"UTF-16\"?>"
+					+ "<feed xmlns=\"http://www.w3.org/2005/Atom\">"
+					+ "<id>http://www.colorfulsoftware.com/atom.xml</id>"
+					+ "<updated>2008-01-08T00:00:00.00-06:00</updated>"
+					+ "<title>\u00e9t\u00e9</title>"
+					+ "<author><name>Bill Brown</name></author></feed>";
+			assertEquals(feedDoc.readFeedToBean(ByteBuffer.wrap(utf16
+					.getBytes("UTF-16")), executor), feedDoc
+					.readFeedToBean(utf16));
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail("this shouldn't happen");
+		}
+
+		try {
+			// an entry without an id fails the whole feed.
+			feedDoc.readFeedToBean(ByteBuffer.wrap(("<feed xmlns=\"http://www.w3.org/2005/Atom\">"
+					+ "<id>http://www.colorfulsoftware.com/atom.xml</id>"
+					+ "<updated>2008-01-08T00:00:00.00-06:00</updated>"
+					+ "<title>bad feed</title>"
+					+ "<author><name>Bill Brown</name></author>"
+					+ "<entry><updated>2008-01-08T00:00:00.00-06:00</updated>"
+					+ "<title>no id</title></entry></feed>").getBytes("UTF-8")),
+					executor);
+			fail("should not get here.");
+		} catch (Exception e) {
+			assertTrue(e instanceof AtomSpecException);
+			assertEquals(e.getMessage(),
+					"atom:entry elements MUST contain exactly one atom:id element.");
+		}
+	}
+
+	@Test
+	public void testReadFeeds() {
+		try {
+			File flat = new File("src/test/resources/flat.xml");
+			String good = "<feed xmlns=\"http://www.w3.org/2005/Atom\">"
+					+ "<id>http://www.colorfulsoftware.com/atom.xml</id>"
+					+ "<updated>2008-01-08T00:00:00.00-06:00</updated>"
+					+ "<title>good feed</title>"
+					+ "<author><name>Bill Brown</name></author></feed>";
+			// no id and not well formed.
+			String invalid = "<feed xmlns=\"http://www.w3.org/2005/Atom\">"
+					+ "<updated>2008-01-08T00:00:00.00-06:00</updated>"
+					+ "<title>bad feed</title>"
+					+ "<author><name>Bill Brown</name></author></feed>";
+			String broken = "<feed xmlns=\"http://www.w3.org/2005/Atom\"><id>";
+			List<Object> sources = new LinkedList<Object>();
+			sources.add(flat);
+			sources.add(new ByteArrayInputStream(invalid.getBytes("UTF-8")));
+			sources.add(ByteBuffer.wrap(good.getBytes("UTF-8")));
+			sources.add(new ByteArrayInputStream(broken.getBytes("UTF-8")));
+			sources.add(new File("src/test/resources/missing.xml"));
+
+			List<FeedResult> results = feedDoc.readFeeds(sources);
+			assertEquals(results.size(), 5);
+			for (int i = 0; i < results.size(); i++) {
+				assertTrue(results.get(i).getSource() == sources.get(i));
+			}
+			assertEquals(results.get(0).getFeed(), feedDoc
+					.readFeedToBean(flat));
+			assertFalse(results.get(1).isRead());
+			assertNull(results.get(1).getFeed());
+			assertTrue(results.get(1).getException() instanceof AtomSpecException);
+			assertEquals(results.get(2).getFeed().getTitle().getText(),
+					"good feed");
+			assertTrue(results.get(3).getException() instanceof XMLStreamException);
+			assertTrue(results.get(4).getException() instanceof IOException);
+
+			ExecutorService executor = Executors.newFixedThreadPool(2);
+			try {
+				sources.clear();
+				for (int i = 0; i < 100; i++) {
+					sources.add(ByteBuffer.wrap(good.getBytes("UTF-8")));
+				}
+				for (FeedResult result : feedDoc.readFeeds(sources, executor)) {
+					assertTrue(result.isRead());
+				}
+			} finally {
+				executor.shutdown();
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail("this shouldn't happen");
+		}
+
+		try {
+			feedDoc.readFeeds(Collections.singletonList("not a source"));
+			fail("should not get here.");
+		} catch (Exception e) {
+			assertTrue(e instanceof IllegalArgumentException);
+		}
+	}
+
+	@Test
+	public void testCompression() {
+		try {
+			Feed feed = feedDoc.readFeedToBean(new File(
+					"src/test/resources/flat.xml"));
+			ByteArrayOutputStream plain = new ByteArrayOutputStream();
+			feedDoc.writeFeedDoc(plain, feed, "UTF-8", "1.0");
+			// what is read back from the uncompressed document.
+			Feed written = feedDoc.readFeedToBean(new ByteArrayInputStream(
+					plain.toByteArray()));
+			Entry entry = written.getEntries().get(0);
+
+			for (Compression compression : Compression.values()) {
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				feedDoc.writeFeedDoc(out, feed, "UTF-8", "1.0", compression);
+				byte[] bytes = out.toByteArray();
+				assertTrue(bytes.length < plain.size());
+
+				// the same document as the uncompressed one.
+				InputStream in = (compression == Compression.GZIP) ? new GZIPInputStream(
+						new ByteArrayInputStream(bytes))
+						: new InflaterInputStream(new ByteArrayInputStream(
+								bytes));
+				ByteArrayOutputStream inflated = new ByteArrayOutputStream();
+				byte[] buffer = new byte[1024];
+				int read;
+				while ((read = in.read(buffer)) != -1) {
+					inflated.write(buffer, 0, read);
+				}
+				assertTrue(Arrays.equals(inflated.toByteArray(), plain
+						.toByteArray()));
+
+				assertEquals(feedDoc.readFeedToBean(new ByteArrayInputStream(
+						bytes)), written);
+				assertEquals(feedDoc.readFeedToBean(ByteBuffer.wrap(bytes)),
+						written);
+				assertEquals(feedDoc.readFeedToBean(Channels
+						.newChannel(new ByteArrayInputStream(bytes))), written);
+				EntryIterator entries = feedDoc
+						.readEntries(new ByteArrayInputStream(bytes));
+				assertEquals(entries.next(), entry);
+
+				File archive = new File("target/flat.xml.gz");
+				FileOutputStream file = new FileOutputStream(archive);
+				file.write(bytes);
+				file.close();
+				assertEquals(feedDoc.readFeedToBean(archive), written);
+				ExecutorService executor = Executors.newFixedThreadPool(2);
+				try {
+					assertEquals(feedDoc.readFeedToBean(archive, executor),
+							written);
+				} finally {
+					executor.shutdown();
+				}
+				assertTrue(archive.delete());
+
+				out = new ByteArrayOutputStream();
+				feedDoc.writeEntryDoc(out, feed.getEntries().get(0), "UTF-8",
+						"1.0", compression);
+				assertEquals(feedDoc.readEntryToBean(ByteBuffer.wrap(out
+						.toByteArray())), entry);
+
+				// closing the document frees the inflater but leaves the
+				// input open.
+				final boolean[] closed = new boolean[1];
+				InputStream source = new ByteArrayInputStream(bytes) {
+					@Override
+					public void close() {
+						closed[0] = true;
+					}
+				};
+				InputStream document = Compression.decompress(source);
+				inflated = new ByteArrayOutputStream();
+				while ((read = document.read(buffer)) != -1) {
+					inflated.write(buffer, 0, read);
+				}
+				assertTrue(Arrays.equals(inflated.toByteArray(), plain
+						.toByteArray()));
+				document.close();
+				document.close();
+				assertFalse(closed[0]);
+				source.reset();
+				assertEquals(feedDoc.readFeedToBean(source), written);
+				source.reset();
+				entries = feedDoc.readEntries(source);
+				entries.close();
+				assertFalse(closed[0]);
+
+				// the problem writing is reported, not one from finishing.
+				try {
+					feedDoc.writeFeedDoc(new OutputStream() {
+						private int written;
+
+						@Override
+						public void write(int b) throws IOException {
+							if (++written > 64) {
+								throw new IOException("the output is full.");
+							}
+						}
+					}, feed, "UTF-8", "1.0", compression);
+					fail("should not get here.");
+				} catch (Exception e) {
+					Throwable cause = e;
+					while (cause.getCause() != null) {
+						cause = cause.getCause();
+					}
+					assertEquals(cause.getMessage(), "the output is full.");
+				}
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail("this shouldn't happen");
+		}
+	}
+
+	/**
+	 * test reading a single entry without reading the feed.
+	 */
+	@Test
+	public void testReadEntryToBeanById() {
+		try {
+			File file = new File("src/test/resources/flat.xml");
+			List<Entry> entries = feedDoc.readFeedToBean(file).getEntries();
+			String about = "http://colorfulsoftware.localhost/colorfulsoftware/projects/atomsphere/atom.xml#About";
+
+			assertEquals(feedDoc.readEntryToBean(file), entries.get(0));
+			assertEquals(feedDoc.readEntryToBean(new FileInputStream(file)),
+					entries.get(0));
+			assertEquals(feedDoc.readEntryToBean(file, about), entries.get(3));
+			// the input stream is left open as with readEntryToBean(in).
+			FileInputStream in = new FileInputStream(file);
+			assertEquals(feedDoc.readEntryToBean(in, " " + about + " "),
+					entries.get(3));
+			assertTrue(in.getChannel().isOpen());
+			in.close();
+			assertEquals(feedDoc.readEntryToBean(file.toURI().toURL(), about),
+					entries.get(3));
+			assertNull(feedDoc.readEntryToBean(file, "urn:uuid:missing"));
+
+			// the entries around the wanted one are not validated.
+			String feed = "<feed xmlns=\"http://www.w3.org/2005/Atom\"><id>urn:feed</id>"
+					+ "<entry><id>urn:first</id><title>no updated</title></entry>"
+					+ "<entry><id>urn:second</id><title>second</title>"
+					+ "<updated>2011-01-01T00:00:00Z</updated><summary>ok</summary></entry>"
+					+ "<entry><title>no id</title></entry></feed>";
+			Entry entry = feedDoc.readEntryToBean(new ByteArrayInputStream(feed
+					.getBytes("UTF-8")), "urn:second");
+			assertEquals(entry.getId().getAtomUri(), "urn:second");
+			assertEquals(entry.getTitle().getText(), "second");
+			try {
+				feedDoc.readEntryToBean(feed);
+				fail("should not get here.");
+			} catch (AtomSpecException e) {
+				assertNotNull(e.getMessage());
+			}
+
+			// an entry document.
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			feedDoc.writeEntryDoc(out, entry, "UTF-8", "1.0");
+			assertEquals(feedDoc.readEntryToBean(new ByteArrayInputStream(out
+					.toByteArray())), feedDoc.readEntryToBean(new ByteArrayInputStream(out
+					.toByteArray()), "urn:second"));
+			assertNull(feedDoc.readEntryToBean(new ByteArrayInputStream(out
+					.toByteArray()), "urn:first"));
+
+			// a feed without entries.
+			assertNull(feedDoc.readEntryToBean(new ByteArrayInputStream(
+					"<feed xmlns=\"http://www.w3.org/2005/Atom\"><id>urn:feed</id></feed>"
+							.getBytes("UTF-8"))));
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail("this shouldn't happen");
+		}
+	}
+
+	/**
+	 * test that documents are read in the encoding they declare.
+	 */
+	@Test
+	public void testReadEncodings() {
+		try {
+			String title = "Caf\u00e9 \u00fcber \u20ac";
+			String body = "<feed xmlns=\"http://www.w3.org/2005/Atom\"><id>urn:feed</id>"
+					+ "<updated>2011-01-01T00:00:00Z</updated><title>"
+					+ title
+					+ "</title><author><name>Bill</name></author></feed>";
+			Object[][] documents = {
+					{ "UTF-8", "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" },
+					{ "UTF-8", "<?xml version='1.0'?>" },
+					{ "UTF-8", "" },
+					{ "UTF-16BE", "<?xml version=\"1.0\" encoding=\"UTF-16\"?>" },
+					{ "UTF-16LE", "<?xml version=\"1.0\" encoding=\"UTF-16\"?>" },
+					{ "windows-1252",
+							"<?xml version=\"1.0\" encoding=\"windows-1252\"?>" } };
+			for (Object[] document : documents) {
+				String encoding = (String) document[0];
+				byte[] bytes = (document[1] + body).getBytes(encoding);
+				Feed feed = feedDoc.readFeedToBean(new ByteArrayInputStream(
+						bytes));
+				assertEquals(feed.getTitle().getText(), title);
+				assertEquals(feedDoc.readFeedToBean(ByteBuffer.wrap(bytes))
+						.getTitle().getText(), title);
+
+				// with a byte order mark.
+				if (encoding.startsWith("UTF")) {
+					ByteArrayOutputStream marked = new ByteArrayOutputStream();
+					marked.write("\ufeff".getBytes(encoding));
+					marked.write(bytes);
+					assertEquals(feedDoc.readFeedToBean(
+							new ByteArrayInputStream(marked.toByteArray()))
+							.getTitle().getText(), title);
+				}
+			}
+
+			// the encoding of the document is reported as read.
+			AtomDocument<Feed> document = feedDoc
+					.readFeedDocument(new ByteArrayInputStream(body
+							.getBytes("UTF-8")));
+			assertEquals(document.getEncoding(), "UTF-8");
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail("this shouldn't happen");
+		}
+	}
+
+	/**
+	 * test reading with the StAX implementation profiles.
+	 */
+	@Test
+	public void testParserProfiles() {
+		try {
+			File flat = new File("src/test/resources/flat.xml");
+			Feed expected = feedDoc.readFeedToBean(flat);
+			assertEquals(feedDoc.getParserProfile(), ParserProfile.defaults());
+
+			ParserProfile[] profiles = {
+					ParserProfile.jdk(),
+					ParserProfile.jdk().withCoalescing(true).withInterning(
+							true),
+					ParserProfile.jdk().withDtdSupport(false)
+							.withExternalEntities(false),
+					ParserProfile.woodstox().withInterning(true),
+					ParserProfile.aalto().withCoalescing(true) };
+			for (ParserProfile profile : profiles) {
+				if (!profile.isAvailable()) {
+					// the optional implementations are not on the classpath.
+					assertFalse(profile.getName().equals("jdk"));
+					try {
+						new FeedDoc(null, profile);
+						fail("should not get here.");
+					} catch (IllegalStateException e) {
+						assertNotNull(e.getMessage());
+					}
+					continue;
+				}
+				FeedDoc profiled = new FeedDoc(null, profile);
+				assertEquals(profiled.getParserProfile(), profile);
+				assertEquals(profiled.readFeedToBean(flat), expected);
+				assertEquals(profiled.readFeedToBean(new FileInputStream(flat)),
+						expected);
+				assertEquals(profiled.readFeedToBean(new FileReader(flat)),
+						expected);
+			}
+
+			// the document type declaration is skipped.
+			FeedDoc noDtd = new FeedDoc(null, ParserProfile.jdk()
+					.withDtdSupport(false).withExternalEntities(false));
+			String xml = "<?xml version=\"1.0\"?>"
+					+ "<!DOCTYPE feed [<!ENTITY ext SYSTEM \"file:///nonexistent/ext.xml\">]>"
+					+ "<feed xmlns=\"http://www.w3.org/2005/Atom\"><id>urn:feed</id>"
+					+ "<updated>2011-01-01T00:00:00Z</updated><title>dtd</title>"
+					+ "<author><name>Bill</name></author></feed>";
+			assertEquals(noDtd.readFeedToBean(xml).getTitle().getText(), "dtd");
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail("this shouldn't happen");
+		}
+	}
+
+	@Test
+	public void testSharedInstances() {
+		try {
+			Feed feed = feedDoc.readFeedToBean(new File(
+					"src/test/resources/flat.xml"));
+
+			// the getters hand out the same instances every time.
+			assertSame(feed.getEntries().get(0), feed.getEntries().get(0));
+			assertSame(feed.getId(), feed.getId());
+			assertSame(feed.getTitle(), feed.getTitle());
+			assertSame(feed.getAuthors().get(0), feed.getAuthors().get(0));
+			for (Entry entry : feed.getEntries()) {
+				assertSame(entry.getId(), entry.getId());
+				assertSame(entry.getUpdated(), entry.getUpdated());
+				assertSame(entry.getContent(), entry.getContent());
+				if (entry.getLinks() != null) {
+					assertSame(entry.getLinks().get(0), entry.getLinks()
+							.get(0));
+					assertSame(entry.getLinks().get(0).getHref(), entry
+							.getLinks().get(0).getHref());
+				}
+			}
+
+			// the lists cannot be changed.
+			try {
+				feed.getEntries().remove(0);
+				fail("should not get here.");
+			} catch (UnsupportedOperationException e) {
+				// expected.
+			}
+			try {
+				feed.getAuthors().add(feed.getAuthors().get(0));
+				fail("should not get here.");
+			} catch (UnsupportedOperationException e) {
+				// expected.
+			}
+			try {
+				feed.getAttributes().clear();
+				fail("should not get here.");
+			} catch (UnsupportedOperationException e) {
+				// expected.
+			}
+
+			// a feed keeps its own list of the elements it is built with.
+			List<Entry> entries = new LinkedList<Entry>(feed.getEntries());
+			Feed rebuilt = feedDoc.buildFeed(feed.getId(), feed.getTitle(),
+					feed.getUpdated(), feed.getRights(), feed.getAuthors(),
+					feed.getCategories(), feed.getContributors(), feed
+							.getLinks(), feed.getAttributes(), feed
+							.getExtensions(), feed.getGenerator(), feed
+							.getSubtitle(), feed.getIcon(), feed.getLogo(),
+					entries);
+			int size = rebuilt.getEntries().size();
+			entries.clear();
+			assertEquals(rebuilt.getEntries().size(), size);
+			assertSame(rebuilt.getEntries().get(0), feed.getEntries().get(0));
+			assertEquals(rebuilt, feed);
+
+			// writing adds the namespace without changing the feed.
+			List<Attribute> attrs = new LinkedList<Attribute>();
+			attrs.add(feedDoc.buildAttribute("xml:base",
+					"http://www.colorfulsoftware.com/"));
+			Entry entry = feed.getEntries().get(0);
+			entry = feedDoc.buildEntry(entry.getId(), entry.getTitle(), entry
+					.getUpdated(), null, null, entry.getAuthors(), null, null,
+					null, attrs, null, null, null, null);
+			Feed noNamespace = feedDoc.buildFeed(feed.getId(),
+					feed.getTitle(), feed.getUpdated(), null, feed
+							.getAuthors(), null, null, null, attrs, null, null,
+					null, null, null, null);
+			StringWriter written = new StringWriter();
+			feedDoc.writeFeedDoc(written, noNamespace, "UTF-8", "1.0");
+			assertTrue(written.toString().indexOf(
+					"xmlns=\"http://www.w3.org/2005/Atom\"") != -1);
+			assertEquals(noNamespace.getAttributes().size(), 1);
+			written = new StringWriter();
+			feedDoc.writeEntryDoc(written, entry, "UTF-8", "1.0");
+			assertEquals(entry.getAttributes().size(), 1);
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail("this shouldn't happen");
+		}
+	}
+
+	@Test
+	public void testBuilders() {
+		try {
+			Feed feed = feedDoc.readFeedToBean(new File(
+					"src/test/resources/flat.xml"));
+			Entry first = feed.getEntries().get(0);
+
+			// an entry built with a builder is the same as with buildEntry.
+			Entry entry = feedDoc.newEntryBuilder().setId(first.getId())
+					.setTitle(first.getTitle()).setUpdated(first.getUpdated())
+					.setAuthors(first.getAuthors()).setLinks(first.getLinks())
+					.setContent(first.getContent()).build();
+			assertEquals(entry, feedDoc.buildEntry(first.getId(), first
+					.getTitle(), first.getUpdated(), null, first.getContent(),
+					first.getAuthors(), null, null, first.getLinks(), null,
+					null, null, null, null));
+
+			// change one element of an entry.
+			Summary summary = feedDoc.buildSummary("a new summary", null);
+			Entry changed = feedDoc.newEntryBuilder(first).setSummary(summary)
+					.build();
+			assertSame(changed.getSummary(), summary);
+			assertSame(changed.getId(), first.getId());
+			assertEquals(changed.getLinks(), first.getLinks());
+
+			// change one element of a feed.
+			Title title = feedDoc.buildTitle("a new title", null);
+			FeedBuilder builder = feedDoc.newFeedBuilder(feed);
+			Feed retitled = builder.setTitle(title).build();
+			assertEquals(retitled.getTitle().getText(), "a new title");
+			assertEquals(feed.getTitle().getText(), "Atomsphere");
+			assertEquals(retitled.getEntries(), feed.getEntries());
+
+			// the builder can keep going after a build.
+			Feed added = builder.addEntry(entry).build();
+			assertEquals(added.getEntries().size(),
+					feed.getEntries().size() + 1);
+			assertEquals(retitled.getEntries().size(), feed.getEntries()
+					.size());
+
+			// lists given to a builder are copied.
+			List<Entry> entries = new LinkedList<Entry>();
+			entries.add(entry);
+			builder = feedDoc.newFeedBuilder().setId(feed.getId()).setTitle(
+					title).setUpdated(feed.getUpdated()).setAuthors(
+					feed.getAuthors()).setEntries(entries);
+			entries.add(changed);
+			assertEquals(builder.build().getEntries().size(), 1);
+
+			// a source.
+			Source source = feedDoc.newSourceBuilder().setId(feed.getId())
+					.setTitle(title).setUpdated(feed.getUpdated()).addAuthor(
+							feed.getAuthors().get(0))
+					.setGenerator(feed.getGenerator()).build();
+			assertSame(source.getGenerator(), feed.getGenerator());
+			assertEquals(feedDoc.newSourceBuilder(source).build(), source);
+
+			// the specification is checked when the feed is built.
+			try {
+				feedDoc.newFeedBuilder(feed).setId(null).build();
+				fail("should not get here.");
+			} catch (AtomSpecException e) {
+				assertEquals(e.getMessage(),
+						"atom:feed elements MUST contain exactly one atom:id element.");
+			}
+			try {
+				feedDoc.newFeedBuilder().setId(feed.getId()).setTitle(title)
+						.setUpdated(feed.getUpdated()).build();
+				fail("should not get here.");
+			} catch (AtomSpecException e) {
+				assertTrue(e.getMessage().startsWith(
+						"atom:feed elements MUST contain one or more atom:author elements"));
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail("this shouldn't happen");
+		}
+	}
+
+	@Test
+	public void testWithEntry() {
+		try {
+			Feed feed = feedDoc.readFeedToBean(new File(
+					"src/test/resources/flat.xml"));
+			int size = feed.getEntries().size();
+			Entry first = feed.getEntries().get(0);
+			Entry entry = feedDoc.newEntryBuilder(first).setId(
+					feedDoc.buildId(null, "urn:uuid:appended")).build();
+
+			// adding an entry leaves the feed it was added to as it was.
+			Feed added = feed.withEntry(entry);
+			assertEquals(added.getEntries().size(), size + 1);
+			assertEquals(feed.getEntries().size(), size);
+			assertSame(added.getEntries().get(size), entry);
+			assertSame(added.getEntries().get(0), first);
+			assertSame(added.getId(), feed.getId());
+			assertEquals(added, feedDoc.newFeedBuilder(feed).addEntry(entry)
+					.build());
+
+			// taking it out again.
+			Feed removed = added.withoutEntry(entry.getId());
+			assertEquals(removed, feed);
+			assertSame(feed.withoutEntry(entry.getId()), feed);
+			assertEquals(feed.withoutEntry(first.getId()).getEntries().size(),
+					size - 1);
+
+			// several at once.
+			List<Entry> entries = new LinkedList<Entry>();
+			entries.add(entry);
+			entries.add(first);
+			assertEquals(feed.withEntries(entries).getEntries().size(),
+					size + 2);
+
+			// the new entry is checked against the feed.
+			List<Extension> extns = new LinkedList<Extension>();
+			extns.add(feedDoc.buildExtension("whats:up", null,
+					"nothing special"));
+			Entry unbound = feedDoc.newEntryBuilder(entry).setExtensions(
+					extns).build();
+			try {
+				feed.withEntry(unbound);
+				fail("should not get here.");
+			} catch (AtomSpecException e) {
+				assertEquals(
+						e.getMessage(),
+						"the following extension prefix(es) ( whats ) are not bound to a namespace declaration. See http://www.w3.org/TR/1999/REC-xml-names-19990114/#ns-decl.");
+			}
+			Feed noAuthors = feedDoc.newFeedBuilder(feed).setAuthors(null)
+					.setEntries(null).addEntry(
+							feedDoc.newEntryBuilder(first).setAuthors(
+									feed.getAuthors()).build()).build();
+			try {
+				noAuthors.withEntry(first);
+				fail("should not get here.");
+			} catch (AtomSpecException e) {
+				assertTrue(e.getMessage().startsWith(
+						"atom:feed elements MUST contain one or more atom:author elements"));
+			}
+
+			// the list the entries are kept in against an ArrayList.
+			Random random = new Random(42);
+			PersistentList<Integer> persistent = PersistentList.empty();
+			List<Integer> expected = new ArrayList<Integer>();
+			List<PersistentList<Integer>> versions = new ArrayList<PersistentList<Integer>>();
+			List<List<Integer>> expectedVersions = new ArrayList<List<Integer>>();
+			for (int i = 0; i < 5000; i++) {
+				if (expected.isEmpty() || random.nextInt(3) != 0) {
+					persistent = persistent.plus(i);
+					expected.add(i);
+				} else {
+					int index = random.nextInt(expected.size());
+					persistent = persistent.minus(index);
+					expected.remove(index);
+				}
+				if (i % 500 == 0) {
+					versions.add(persistent);
+					expectedVersions.add(new ArrayList<Integer>(expected));
+				}
+			}
+			assertEquals(persistent, expected);
+			assertEquals(new ArrayList<Integer>(persistent), expected);
+			for (int i = 0; i < versions.size(); i++) {
+				assertEquals(versions.get(i), expectedVersions.get(i));
+			}
+			assertEquals(PersistentList.of(expected), expected);
+			assertEquals(PersistentList.of(new ArrayList<Integer>()).size(), 0);
+
+			// a feed is serialized with its entries in order.
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			ObjectOutputStream out = new ObjectOutputStream(bytes);
+			out.writeObject(added);
+			out.close();
+			Feed copy = (Feed) new ObjectInputStream(new ByteArrayInputStream(
+					bytes.toByteArray())).readObject();
+			assertEquals(copy, added);
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail("this shouldn't happen");
+		}
+	}
+
+	/**
+	 * tests the lists the constructs keep their attributes in.
+	 */
+	@Test
+	public void testAttributeList() {
+		try {
+			// one attribute.
+			List<Attribute> attrs = new LinkedList<Attribute>();
+			attrs.add(feedDoc.buildAttribute("term", "compact"));
+			Category category = feedDoc.buildCategory(attrs, null);
+			assertEquals(category.getAttributes(), attrs);
+			assertSame(category.getAttribute("term"), attrs.get(0));
+			assertNull(category.getAttribute("scheme"));
+			assertNull(category.getUnboundPrefixes());
+			try {
+				category.getAttributes().get(1);
+				fail("should not get here.");
+			} catch (IndexOutOfBoundsException e) {
+				// expected.
+			}
+
+			// several, with the prefix bound by the later attribute.
+			attrs.add(0, feedDoc.buildAttribute("href",
+					"http://www.colorfulsoftware.com/"));
+			attrs.set(1, feedDoc.buildAttribute("sort:asc", "updated"));
+			attrs.add(feedDoc.buildAttribute("xmlns:sort",
+					"http://www.colorfulsoftware.com/projects/atomsphere/extension/sort/1.0"));
+			Link link = feedDoc.buildLink(attrs, null);
+			assertEquals(link.getAttributes(), attrs);
+			assertEquals(link.getAttribute("sort:asc").getValue(), "updated");
+			assertNull(link.getUnboundPrefixes());
+			attrs.remove(2);
+			assertEquals(feedDoc.buildLink(attrs, null).getUnboundPrefixes()
+					.get(0), "sort");
+
+			// the constructs without attributes share one empty list.
+			Generator generator = feedDoc.buildGenerator(
+					new LinkedList<Attribute>(), "atomsphere");
+			assertSame(generator.getAttributes(), AttributeList.EMPTY);
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			ObjectOutputStream out = new ObjectOutputStream(bytes);
+			out.writeObject(generator);
+			out.writeObject(link);
+			out.close();
+			ObjectInputStream in = new ObjectInputStream(
+					new ByteArrayInputStream(bytes.toByteArray()));
+			assertSame(((Generator) in.readObject()).getAttributes(),
+					AttributeList.EMPTY);
+			assertEquals(((Link) in.readObject()).getAttributes(), link
+					.getAttributes());
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail("this shouldn't happen");
+		}
+	}
+
+	/**
+	 * tests the strings that repeat throughout a document are shared.
+	 */
+	@Test
+	public void testSymbolTable() {
+		try {
+			StringBuilder xml = new StringBuilder(
+					"<feed xmlns=\"http://www.w3.org/2005/Atom\">"
+							+ "<id>urn:uuid:symbols</id><title>symbols</title>"
+							+ "<updated>2008-01-08T00:00:00.00-06:00</updated>");
+			for (int i = 0; i < 2; i++) {
+				xml.append("<entry><id>urn:uuid:symbols" + i + "</id>"
+						+ "<title>entry</title>"
+						+ "<updated>2008-01-08T00:00:00.00-06:00</updated>"
+						+ "<author><name>Bill Brown</name>"
+						+ "<email>info@colorfulsoftware.com</email></author>"
+						+ "<link rel=\"alternate\" type=\"text/html\""
+						+ " href=\"http://www.colorfulsoftware.com/" + i
+						+ "\"/><category term=\"atom\" xml:lang=\"en\"/>"
+						+ "</entry>");
+			}
+			xml.append("</feed>");
+			byte[] bytes = xml.toString().getBytes("UTF-8");
+
+			// one copy for the whole document.
+			Feed feed = feedDoc.readFeedToBean(new ByteArrayInputStream(bytes));
+			Entry first = feed.getEntries().get(0);
+			Entry second = feed.getEntries().get(1);
+			assertSame(first.getLinks().get(0).getRel().getValue(), second
+					.getLinks().get(0).getRel().getValue());
+			assertSame(first.getLinks().get(0).getType().getValue(), second
+					.getLinks().get(0).getType().getValue());
+			assertSame(first.getCategories().get(0).getTerm().getValue(),
+					second.getCategories().get(0).getTerm().getValue());
+			assertSame(first.getCategories().get(0).getAttribute("xml:lang")
+					.getValue(), second.getCategories().get(0).getAttribute(
+					"xml:lang").getValue());
+			assertSame(first.getAuthors().get(0).getName().getText(), second
+					.getAuthors().get(0).getName().getText());
+			assertSame(first.getAuthors().get(0).getEmail().getText(),
+					second.getAuthors().get(0).getEmail().getText());
+			assertNotSame(first.getLinks().get(0).getHref().getValue(), second
+					.getLinks().get(0).getHref().getValue());
+
+			// a new table for every document unless one is given.
+			Feed other = feedDoc.readFeedToBean(new ByteArrayInputStream(bytes));
+			assertNotSame(other.getEntries().get(0).getLinks().get(0).getRel()
+					.getValue(), first.getLinks().get(0).getRel().getValue());
+			SymbolTable symbols = new SymbolTable();
+			ReadOptions options = ReadOptions.symbolTable(symbols);
+			assertSame(options.getSymbolTable(), symbols);
+			assertSame(options.withMaxEntries(1).getSymbolTable(), symbols);
+			feed = feedDoc.readFeedToBean(new ByteArrayInputStream(bytes),
+					options);
+			other = feedDoc.readFeedToBean(new ByteArrayInputStream(bytes),
+					options);
+			assertSame(other.getEntries().get(0).getLinks().get(0).getRel()
+					.getValue(), feed.getEntries().get(1).getLinks().get(0)
+					.getRel().getValue());
+			assertEquals(other, feed);
+			assertTrue(symbols.size() > 0);
+
+			// a full table hands the strings back as they are.
+			SymbolTable full = new SymbolTable(1);
+			String atom = new String("atom");
+			assertSame(full.intern(atom), atom);
+			assertSame(full.intern(new String("atom")), atom);
+			String rss = new String("rss");
+			assertSame(full.intern(rss), rss);
+			assertNotSame(full.intern(new String("rss")), rss);
+			assertEquals(full.size(), 1);
+
+			// the table of one document works the same way.
+			SymbolTable document = SymbolTable.forDocument();
+			assertSame(document.intern(atom), atom);
+			assertSame(document.intern(new String("atom")), atom);
+			assertEquals(document.size(), 1);
+			assertEquals(document.getMaxSymbols(),
+					SymbolTable.DEFAULT_MAX_SYMBOLS);
+			try {
+				new SymbolTable(0);
+				fail("should not get here.");
+			} catch (IllegalArgumentException e) {
+				assertEquals(e.getMessage(),
+						"The maximum number of symbols must be positive.");
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail("this shouldn't happen");
+		}
+	}
+
+	private static class PushHandler implements FeedHandler {
+		private final int stopAfter;
+		private Source header;
+		private List<Entry> entries = new LinkedList<Entry>();
+		private int extensions;
+		private boolean ended;
+
+		PushHandler(int stopAfter) {
+			this.stopAfter = stopAfter;
+		}
+
+		public boolean onFeedHeader(Source header) {
+			this.header = header;
+			return true;
+		}
+
+		public boolean onEntry(Entry entry) {
+			entries.add(entry);
+			return entries.size() != stopAfter;
+		}
+
+		public boolean onExtension(Extension extension) {
+			extensions++;
+			return true;
+		}
+
+		public void onEnd() {
+			assertFalse(ended);
+			ended = true;
+		}
+	}
 }
@@ -0,0 +1,448 @@
+/**
+ * Copyright 2011 Bill Brown
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.colorfulsoftware.atom;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Measures the time and the memory allocated to read a large generated feed.
+ * This is not one of the unit tests; run it from the test classpath with
+ *
+ * <pre>
+ * java com.colorfulsoftware.atom.FeedReaderBenchmark [benchmark] [entries]
+ * </pre>
+ *
+ * where benchmark is one of
+ * <ul>
+ * <li>elements: the time and bytes allocated per element read (default).</li>
+ * <li>file: reading a local file through a FileInputStream compared to the
+ * memory mapped File path.</li>
+ * <li>parallel: reading a feed on one thread compared to splitting it at the
+ * entries and reading them on a thread pool with one thread per processor.</li>
+ * <li>feeds: reading a batch of small feeds (the entries argument is the
+ * number of feeds) one after the other compared to readFeeds.</li>
+ * <li>profiles: reading the feeds in src/test/resources and the generated
+ * feed with each of the StAX implementation profiles that is on the
+ * classpath. Run it from the project directory.</li>
+ * <li>iterate: the time and bytes allocated to walk the getters of every
+ * entry of a feed that has already been read.</li>
+ * <li>append: adding one entry at a time to a feed with Feed.withEntry
+ * compared to rebuilding it with FeedDoc.buildFeed.</li>
+ * <li>footprint: the heap a read feed keeps in use per entry.</li>
+ * </ul>
+ *
+ * @author Bill Brown
+ *
+ */
+public class FeedReaderBenchmark {
+
+	private static final int WARM_UP = 5;
+	private static final int ITERATIONS = 10;
+
+	// the number of elements in each generated entry.
+	private static final int ENTRY_ELEMENTS = 10;
+
+	/**
+	 * @param args
+	 *            the benchmark to run and the number of entries in the
+	 *            generated feed (default 10000).
+	 * @throws Exception
+	 *             if the feed cannot be read.
+	 */
+	public static void main(String[] args) throws Exception {
+		String benchmark = (args.length > 0) ? args[0] : "elements";
+		int entries = (args.length > 1) ? Integer.parseInt(args[1]) : 10000;
+		if (benchmark.equals("elements")) {
+			elements(entries);
+		} else if (benchmark.equals("file")) {
+			file(entries);
+		} else if (benchmark.equals("parallel")) {
+			parallel(entries);
+		} else if (benchmark.equals("feeds")) {
+			feeds(entries);
+		} else if (benchmark.equals("profiles")) {
+			profiles(entries);
+		} else if (benchmark.equals("iterate")) {
+			iterate(entries);
+		} else if (benchmark.equals("append")) {
+			append(entries);
+		} else if (benchmark.equals("footprint")) {
+			footprint(entries);
+		} else {
+			System.out.println("unknown benchmark " + benchmark);
+		}
+	}
+
+	static void elements(int entries) throws Exception {
+		byte[] feed = buildFeed(entries).getBytes("UTF-8");
+		long elements = 6 + (long) entries * ENTRY_ELEMENTS;
+
+		FeedDoc feedDoc = new FeedDoc();
+		for (int i = 0; i < WARM_UP; i++) {
+			feedDoc.readFeedToBean(new ByteArrayInputStream(feed));
+		}
+
+		long allocated = allocatedBytes();
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			feedDoc.readFeedToBean(new ByteArrayInputStream(feed));
+		}
+		long elapsed = System.nanoTime() - start;
+		allocated = allocatedBytes() - allocated;
+
+		System.out.println("read " + entries + " entries (" + feed.length
+				+ " bytes, " + elements + " elements)");
+		System.out.println("  " + (elapsed / ITERATIONS / 1000000)
+				+ " ms per feed");
+		if (allocated >= 0) {
+			System.out.println("  " + (allocated / ITERATIONS / elements)
+					+ " bytes allocated per element");
+		}
+	}
+
+	static void file(int entries) throws Exception {
+		File file = File.createTempFile("atomsphere", ".xml");
+		file.deleteOnExit();
+		OutputStream out = new FileOutputStream(file);
+		out.write(buildFeed(entries).getBytes("UTF-8"));
+		out.close();
+
+		FeedDoc feedDoc = new FeedDoc();
+		System.out.println("read " + entries + " entries (" + file.length()
+				+ " bytes)");
+		for (int round = 0; round < 2; round++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < ITERATIONS; i++) {
+				InputStream in = new FileInputStream(file);
+				feedDoc.readFeedToBean(in);
+				in.close();
+			}
+			long stream = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < ITERATIONS; i++) {
+				feedDoc.readFeedToBean(file);
+			}
+			long mapped = System.nanoTime() - start;
+
+			// the first round warms up both paths.
+			if (round > 0) {
+				System.out.println("  FileInputStream "
+						+ (stream / ITERATIONS / 1000000) + " ms per feed");
+				System.out.println("  memory mapped   "
+						+ (mapped / ITERATIONS / 1000000) + " ms per feed");
+			}
+		}
+		file.delete();
+	}
+
+	static void parallel(int entries) throws Exception {
+		byte[] feed = buildFeed(entries).getBytes("UTF-8");
+		int threads = Runtime.getRuntime().availableProcessors();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			FeedDoc feedDoc = new FeedDoc();
+			System.out.println("read " + entries + " entries (" + feed.length
+					+ " bytes) with " + threads + " threads");
+			for (int round = 0; round < 2; round++) {
+				long start = System.nanoTime();
+				for (int i = 0; i < ITERATIONS; i++) {
+					feedDoc.readFeedToBean(new ByteArrayInputStream(feed));
+				}
+				long single = System.nanoTime() - start;
+
+				start = System.nanoTime();
+				for (int i = 0; i < ITERATIONS; i++) {
+					feedDoc.readFeedToBean(ByteBuffer.wrap(feed), executor);
+				}
+				long split = System.nanoTime() - start;
+
+				// the first round warms up both paths.
+				if (round > 0) {
+					System.out.println("  one thread   "
+							+ (single / ITERATIONS / 1000000) + " ms per feed");
+					System.out.println("  thread pool  "
+							+ (split / ITERATIONS / 1000000) + " ms per feed");
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	static void feeds(int count) throws Exception {
+		byte[] feed = buildFeed(5).getBytes("UTF-8");
+		List<ByteBuffer> sources = new ArrayList<ByteBuffer>(count);
+		for (int i = 0; i < count; i++) {
+			sources.add(ByteBuffer.wrap(feed));
+		}
+		FeedDoc feedDoc = new FeedDoc();
+		System.out.println("read " + count + " feeds of " + feed.length
+				+ " bytes with "
+				+ Runtime.getRuntime().availableProcessors() + " processors");
+		for (int round = 0; round < 2; round++) {
+			long start = System.nanoTime();
+			for (ByteBuffer source : sources) {
+				feedDoc.readFeedToBean(source);
+			}
+			long loop = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			feedDoc.readFeeds(sources);
+			long batch = System.nanoTime() - start;
+
+			// the first round warms up both paths.
+			if (round > 0) {
+				System.out.println("  one at a time  "
+						+ (count * 1000000000L / loop) + " feeds per second");
+				System.out.println("  readFeeds      "
+						+ (count * 1000000000L / batch) + " feeds per second");
+			}
+		}
+	}
+
+	static void profiles(int entries) throws Exception {
+		List<byte[]> corpus = new ArrayList<byte[]>();
+		for (String name : new String[] { "flat.xml", "dump.xml" }) {
+			corpus.add(readFile(new File("src/test/resources", name)));
+		}
+		corpus.add(buildFeed(entries).getBytes("UTF-8"));
+		long bytes = 0;
+		for (byte[] document : corpus) {
+			bytes += document.length;
+		}
+
+		ParserProfile[] profiles = {
+				ParserProfile.defaults(),
+				ParserProfile.jdk(),
+				ParserProfile.jdk().withCoalescing(true),
+				ParserProfile.jdk().withDtdSupport(false)
+						.withExternalEntities(false),
+				ParserProfile.woodstox(),
+				ParserProfile.woodstox().withInterning(true)
+						.withDtdSupport(false),
+				ParserProfile.aalto(),
+				ParserProfile.aalto().withCoalescing(true) };
+		System.out.println("read " + corpus.size() + " documents (" + bytes
+				+ " bytes)");
+		for (int round = 0; round < 2; round++) {
+			for (ParserProfile profile : profiles) {
+				if (!profile.isAvailable()) {
+					if (round > 0) {
+						System.out.println("  " + profile
+								+ " not on the classpath");
+					}
+					continue;
+				}
+				FeedDoc feedDoc = new FeedDoc(null, profile);
+				long start = System.nanoTime();
+				for (int i = 0; i < ITERATIONS; i++) {
+					for (byte[] document : corpus) {
+						feedDoc.readFeedToBean(new ByteArrayInputStream(
+								document));
+					}
+				}
+				long elapsed = System.nanoTime() - start;
+				// the first round warms up all of the profiles.
+				if (round > 0) {
+					System.out.println("  " + profile + " "
+							+ (elapsed / ITERATIONS / 1000000) + " ms, "
+							+ (bytes * ITERATIONS * 1000 / elapsed) + " MB/s");
+				}
+			}
+		}
+	}
+
+	static void iterate(int entries) throws Exception {
+		Feed feed = new FeedDoc().readFeedToBean(new ByteArrayInputStream(
+				buildFeed(entries).getBytes("UTF-8")));
+		long checksum = 0;
+		for (int i = 0; i < WARM_UP; i++) {
+			checksum += walk(feed);
+		}
+
+		long allocated = allocatedBytes();
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			checksum += walk(feed);
+		}
+		long elapsed = System.nanoTime() - start;
+		allocated = allocatedBytes() - allocated;
+
+		System.out.println("walked " + entries + " entries (checksum "
+				+ checksum + ")");
+		System.out.println("  " + (elapsed / ITERATIONS / 1000) + " us per feed");
+		if (allocated >= 0) {
+			System.out.println("  " + (allocated / ITERATIONS / entries)
+					+ " bytes allocated per entry");
+		}
+	}
+
+	static void append(int entries) throws Exception {
+		FeedDoc feedDoc = new FeedDoc();
+		Feed feed = feedDoc.readFeedToBean(new ByteArrayInputStream(buildFeed(
+				entries).getBytes("UTF-8")));
+		Entry entry = feed.getEntries().get(0);
+		int appends = 1000;
+
+		System.out.println("append " + appends + " entries to " + entries
+				+ " entries");
+		for (int round = 0; round < 2; round++) {
+			Feed appended = feed;
+			long start = System.nanoTime();
+			for (int i = 0; i < appends; i++) {
+				appended = appended.withEntry(entry);
+			}
+			long withEntry = System.nanoTime() - start;
+
+			appended = feed;
+			start = System.nanoTime();
+			for (int i = 0; i < appends / 10; i++) {
+				List<Entry> all = new ArrayList<Entry>(appended.getEntries());
+				all.add(entry);
+				appended = feedDoc.buildFeed(appended.getId(), appended
+						.getTitle(), appended.getUpdated(), appended
+						.getRights(), appended.getAuthors(), appended
+						.getCategories(), appended.getContributors(), appended
+						.getLinks(), appended.getAttributes(), appended
+						.getExtensions(), appended.getGenerator(), appended
+						.getSubtitle(), appended.getIcon(), appended.getLogo(),
+						all);
+			}
+			long rebuilt = (System.nanoTime() - start) * 10;
+
+			System.out.println("  withEntry: " + (withEntry / appends)
+					+ " ns per entry");
+			System.out.println("  buildFeed: " + (rebuilt / appends)
+					+ " ns per entry");
+		}
+	}
+
+	static void footprint(int entries) throws Exception {
+		byte[] bytes = buildFeed(entries).getBytes("UTF-8");
+		FeedDoc feedDoc = new FeedDoc();
+		// load the classes before measuring.
+		feedDoc.readFeedToBean(new ByteArrayInputStream(buildFeed(10)
+				.getBytes("UTF-8")));
+
+		long before = usedMemory();
+		Feed feed = feedDoc.readFeedToBean(new ByteArrayInputStream(bytes));
+		long after = usedMemory();
+
+		System.out.println("hold " + feed.getEntries().size() + " entries");
+		System.out.println("  " + ((after - before) / entries)
+				+ " bytes per entry");
+	}
+
+	private static long usedMemory() throws InterruptedException {
+		Runtime runtime = Runtime.getRuntime();
+		long used = Long.MAX_VALUE;
+		// collect until the heap stops shrinking.
+		for (int i = 0; i < 10; i++) {
+			System.gc();
+			Thread.sleep(20);
+			long now = runtime.totalMemory() - runtime.freeMemory();
+			if (now >= used) {
+				break;
+			}
+			used = now;
+		}
+		return used;
+	}
+
+	// reads every element of every entry through the getters.
+	private static long walk(Feed feed) {
+		long checksum = 0;
+		for (Entry entry : feed.getEntries()) {
+			checksum += entry.getId().getAtomUri().length();
+			checksum += entry.getTitle().getText().length();
+			checksum += entry.getUpdated().getText().length();
+			checksum += entry.getAuthors().get(0).getName().getText().length();
+			checksum += entry.getLinks().get(0).getHref().getValue().length();
+			checksum += entry.getCategories().get(0).getTerm().getValue()
+					.length();
+			checksum += entry.getSummary().getText().length();
+			checksum += entry.getContent().getContent().length();
+		}
+		return checksum;
+	}
+
+	static byte[] readFile(File file) throws Exception {
+		InputStream in = new FileInputStream(file);
+		try {
+			byte[] bytes = new byte[(int) file.length()];
+			int read = 0;
+			while (read < bytes.length) {
+				read += in.read(bytes, read, bytes.length - read);
+			}
+			return bytes;
+		} finally {
+			in.close();
+		}
+	}
+
+	// the bytes allocated by the current thread or a negative number if the
+	// jvm cannot measure it.
+	static long allocatedBytes() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) threads)
+					.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+
+	static String buildFeed(int entries) {
+		StringBuilder feed = new StringBuilder();
+		feed.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+		feed.append("<feed xmlns=\"http://www.w3.org/2005/Atom\">");
+		feed.append("<id>http://www.colorfulsoftware.com/atom.xml</id>");
+		feed.append("<updated>2008-01-08T00:00:00.00-06:00</updated>");
+		feed.append("<title>benchmark feed</title>");
+		feed.append("<author><name>Bill Brown</name></author>");
+		for (int i = 0; i < entries; i++) {
+			feed.append("<entry>");
+			feed.append("<id>http://www.colorfulsoftware.com/atom.xml#entry")
+					.append(i).append("</id>");
+			feed.append("<title>entry ").append(i).append("</title>");
+			feed.append("<updated>2008-01-08T00:00:00.00-06:00</updated>");
+			feed.append("<author><name>Bill Brown</name></author>");
+			feed.append("<link rel=\"alternate\" type=\"text/html\"")
+					.append(" href=\"http://www.colorfulsoftware.com/").append(i)
+					.append("\"/>");
+			feed.append("<category term=\"benchmark\"/>");
+			feed.append("<summary>the summary of entry ").append(i)
+					.append("</summary>");
+			feed.append("<content>the content of entry ").append(i)
+					.append("</content>");
+			feed.append("</entry>");
+		}
+		feed.append("</feed>");
+		return feed.toString();
+	}
+}
@@ -26,8 +26,10 @@ import java.io.FileWriter;
 import java.io.Serializable;
 import java.io.StringReader;
 import java.net.URL;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLOutputFactory;
@@ -522,4 +524,104 @@ public class FeedReaderTest implements Serializable {
 			fail("could not read title fragment.");
 		}
 	}
+
+	/**
+	 * test the feed handler callbacks.
+	 */
+	@Test
+	public void testReadFeedToHandler() {
+		try {
+			reader = XMLInputFactory.newInstance().createXMLStreamReader(
+					new StringReader(extension1));
+			CountingHandler handler = new CountingHandler(-1);
+			assertNull(feedReader.readFeed(reader, handler));
+			assertEquals(handler.header.getId().getAtomUri(),
+					"http://www.minoritydirectory.net/latest.xml");
+			assertEquals(handler.extensions, 2);
+			assertEquals(handler.entries, 2);
+			assertTrue(handler.ended);
+			// each extension is reported once and not in the header too.
+			assertNull(handler.header.getExtensions());
+			reader = XMLInputFactory.newInstance().createXMLStreamReader(
+					new StringReader(extension1));
+			assertEquals(feedReader.readFeed(reader).getExtensions().size(),
+					handler.extensions);
+
+			// stop after the first entry.
+			reader = XMLInputFactory.newInstance().createXMLStreamReader(
+					new StringReader(extension1));
+			handler = new CountingHandler(1);
+			feedReader.readFeed(reader, handler);
+			assertEquals(handler.entries, 1);
+			assertTrue(handler.ended);
+
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail("could not read feed.");
+		}
+	}
+
+	/**
+	 * test reading only the projected elements.
+	 */
+	@Test
+	public void testReadFeedProjection() {
+		try {
+			Set<String> elements = new HashSet<String>();
+			elements.add("id");
+			elements.add("updated");
+			FeedReader projectedReader = new FeedReader(new FeedDoc(),
+					ReadOptions.projection(elements, elements, null));
+			reader = XMLInputFactory.newInstance().createXMLStreamReader(
+					new StringReader(extension1));
+			Feed feed = projectedReader.readFeed(reader);
+			assertNull(feed.getGenerator());
+			assertNull(feed.getLinks());
+			assertNull(feed.getExtensions());
+			assertNotNull(feed.getAuthors());
+			assertEquals(feed.getEntries().size(), 2);
+			for (Entry entry : feed.getEntries()) {
+				assertNotNull(entry.getId());
+				assertNotNull(entry.getTitle());
+				assertNull(entry.getSummary());
+				assertNull(entry.getContent());
+				assertNull(entry.getLinks());
+				assertNull(entry.getExtensions());
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail("could not read feed.");
+		}
+	}
+
+	private static class CountingHandler implements FeedHandler {
+		private final int stopAfter;
+		private Source header;
+		private int entries;
+		private int extensions;
+		private boolean ended;
+
+		CountingHandler(int stopAfter) {
+			this.stopAfter = stopAfter;
+		}
+
+		public boolean onFeedHeader(Source header) {
+			this.header = header;
+			return true;
+		}
+
+		public boolean onEntry(Entry entry) {
+			assertNotNull(entry.getId());
+			return ++entries != stopAfter;
+		}
+
+		public boolean onExtension(Extension extension) {
+			extensions++;
+			return true;
+		}
+
+		public void onEnd() {
+			ended = true;
+		}
+	}
 }
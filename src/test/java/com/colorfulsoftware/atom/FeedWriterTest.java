@@ -411,4 +411,29 @@ public class FeedWriterTest implements Serializable {
 			fail("could not write entries." + e.getLocalizedMessage());
 		}
 	}
+
+	/**
+	 * test that the escaping matches the replaceAll chains it replaced.
+	 */
+	@Test
+	public void testXMLEscaper() {
+		String[] texts = { "plain text", "a & b", "&amp;", "&amp;amp;",
+				"<b>bold</b>", "&lt;b&gt;", "&amp;lt;i&amp;gt;", "&&lt;gt;",
+				"q=test%20text&amp;a=hello&b=bye", "" };
+		for (String text : texts) {
+			assertEquals(XMLEscaper.escapeAttribute(text), text.replaceAll(
+					"&amp;", "&").replaceAll("&", "&amp;"));
+			assertEquals(XMLEscaper.escapeText(text, true), text.replaceAll(
+					"&", "&amp;").replaceAll("<", "&lt;").replaceAll(">",
+					"&gt;"));
+			assertEquals(XMLEscaper.escapeText(text, false), text.replaceAll(
+					"&", "&amp;").replaceAll("<", "&lt;"));
+			assertEquals(XMLEscaper.unescapeMarkup(text), text.replaceAll(
+					"&amp;", "&").replaceAll("&lt;", "<").replaceAll("&gt;",
+					">"));
+		}
+		// nothing to escape returns the same text.
+		assertTrue(XMLEscaper.escapeText(texts[0], true) == texts[0]);
+		assertTrue(XMLEscaper.unescapeMarkup(texts[0]) == texts[0]);
+	}
 }